@@ -0,0 +1,25 @@
+package org.example;
+
+import org.openqa.selenium.WebDriver;
+
+// Fixture server + headless Chrome shared by the browser-backed benchmarks.
+final class BrowserFixture implements AutoCloseable {
+
+    final FixtureServer server;
+    final WebDriver driver;
+    final CallCounter calls;
+
+    BrowserFixture(String page) throws Exception {
+        server = new FixtureServer();
+        Drivers.Counted counted = Drivers.headless();
+        driver = counted.driver();
+        calls = counted.calls();
+        driver.get(server.url(page));
+    }
+
+    @Override
+    public void close() {
+        try { driver.quit(); } catch (Exception ignored) {}
+        server.close();
+    }
+}
@@ -0,0 +1,52 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+
+// Property-card loop on the replayed results page (25 cards).
+//   java -jar target/benchmarks.jar CardExtraction -prof gc
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CardExtractionBenchmark {
+
+    @Param({"batch", "element"})
+    public String mode;
+
+    private BrowserFixture fixture;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        fixture = new BrowserFixture(FixtureServer.SEARCH_RESULTS);
+    }
+
+    @Benchmark
+    public List<HotelCard> extractCards(ExtractionCounters counters) {
+        long before = fixture.calls.get();
+        List<HotelCard> cards = "batch".equals(mode)
+                ? CardExtractor.extractBatch(fixture.driver)
+                : CardExtractor.extractPerElement(fixture.driver);
+        counters.webDriverCalls += fixture.calls.get() - before;
+        counters.records += cards.size();
+        return cards;
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        fixture.close();
+    }
+}
@@ -0,0 +1,28 @@
+package org.example;
+
+import java.util.List;
+
+// Offline DetailFanOut run against the fixture server: every card on the saved results page -> its detail
+// page, with the usual -Dbooking.* fan-out, sink and metrics properties.
+//   java -cp target/benchmarks.jar org.example.DetailFanOutRun
+public class DetailFanOutRun {
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) System.setProperty("sun.net.httpserver.nodelay", "true");
+        MetricsServer.startFromProperties();
+        try (FixtureServer server = new FixtureServer()) {
+            Drivers.Counted counted = Drivers.headless();
+            List<HotelCard> hotels;
+            try {
+                counted.driver().get(server.searchResultsUrl());
+                hotels = CardExtractor.extractBatch(counted.driver());
+            } finally {
+                counted.driver().quit();
+            }
+            try (ResultSink sink = ResultSink.fromPropertiesOrConsole(RunTrace.newRunId())) {
+                DetailFanOut.fetchAll(hotels, DetailFanOut.Config.fromProperties(), d -> Main.printDetail(d, sink));
+                if (!(sink instanceof ConsoleSink)) System.out.println(sink.stats());
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Extra JMH columns: WebDriver round-trips and records extracted, totalled per iteration.
+// Divide by the op count for calls/page; divide gc.alloc.rate.norm (-prof gc) by records/op for bytes per hotel.
+@AuxCounters(AuxCounters.Type.EVENTS)
+@State(Scope.Thread)
+public class ExtractionCounters {
+
+    public long webDriverCalls;
+    public long records;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        webDriverCalls = 0;
+        records = 0;
+    }
+}
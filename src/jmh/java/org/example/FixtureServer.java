@@ -0,0 +1,123 @@
+package org.example;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Local HTTP server that replays saved search-results / hotel-detail snapshots, so extraction can be
+// benchmarked and checked without network access.
+//   /searchresults.html       -> search-results.html (query string ignored)
+//   /hotel/...                -> hotel-detail-table.html or hotel-detail-cards.html (stable per path)
+//   /dml/graphql?op=...       -> search-results.json, or hotel-rooms.json for op=RoomTable (the pages fetch these)
+//   /<file>.html              -> that file
+// Snapshots come from the classpath (src/jmh/resources/fixtures, bench profile only) unless -Dbooking.fixtures=<dir> points
+// at a directory of real saved pages with the same file names.
+// Run with -Dsun.net.httpserver.nodelay=true (the bench entry points set it): the JDK server writes headers
+// and body separately, and with Nagle on each response waits ~40 ms for the client's delayed ACK. The
+// property is read once, when the first HttpServer starts.
+public class FixtureServer implements AutoCloseable {
+
+    public static final String SEARCH_RESULTS = "search-results.html";
+    public static final String DETAIL_TABLE = "hotel-detail-table.html";
+    public static final String DETAIL_CARDS = "hotel-detail-cards.html";
+    public static final String SEARCH_JSON = "search-results.json";
+    public static final String ROOMS_JSON = "hotel-rooms.json";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Path dir;
+
+    public FixtureServer() throws IOException {
+        this(0);
+    }
+
+    public FixtureServer(int port) throws IOException {
+        String d = System.getProperty("booking.fixtures");
+        this.dir = d == null ? null : Path.of(d);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.createContext("/", this::handle);
+        this.executor = Executors.newFixedThreadPool(4, r -> {
+            Thread t = new Thread(r, "fixture-server");
+            t.setDaemon(true);
+            return t;
+        });
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public String url(String file) {
+        return baseUrl() + "/" + file;
+    }
+
+    public String searchResultsUrl() {
+        return baseUrl() + "/searchresults.html";
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        String path = ex.getRequestURI().getPath();
+        String file;
+        if (path.equals("/searchresults.html") || path.equals("/")) {
+            file = SEARCH_RESULTS;
+        } else if (path.startsWith("/hotel/")) {
+            file = (path.hashCode() & 1) == 0 ? DETAIL_TABLE : DETAIL_CARDS;
+        } else if (path.equals("/dml/graphql")) {
+            String query = ex.getRequestURI().getQuery();
+            file = query != null && query.contains("op=RoomTable") ? ROOMS_JSON : SEARCH_JSON;
+            ex.getRequestBody().readAllBytes();
+        } else {
+            file = path.substring(1);
+        }
+
+        byte[] body = load(file);
+        if (body == null) {
+            ex.sendResponseHeaders(404, -1);
+            ex.close();
+            return;
+        }
+        ex.getResponseHeaders().set("Content-Type",
+                file.endsWith(".json") ? "application/json; charset=utf-8" : "text/html; charset=utf-8");
+        ex.sendResponseHeaders(200, body.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    byte[] load(String file) throws IOException {
+        if (file.contains("..") || file.contains("/")) return null;
+        if (dir != null) {
+            Path p = dir.resolve(file);
+            return Files.isRegularFile(p) ? Files.readAllBytes(p) : null;
+        }
+        try (InputStream in = FixtureServer.class.getResourceAsStream("/fixtures/" + file)) {
+            return in == null ? null : in.readAllBytes();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // Keeps serving until killed: FixtureServer [port]
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        FixtureServer server = new FixtureServer(port);
+        System.out.println("Fixtures at " + server.searchResultsUrl()
+                + ", " + server.url(DETAIL_TABLE) + ", " + server.url(DETAIL_CARDS));
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,110 @@
+package org.example;
+
+import org.openjdk.jol.info.GraphLayout;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
+// Retained heap of N room-rate observations (JOL graph walk, shared objects counted once) in each shape:
+//   legacy    a RoomInfo as the scraper built it before interning: five fresh Strings per rate
+//   rates     RoomRate records with interned text, shared SearchJob / HotelCard references
+//   block     a ColumnarSink room block: the primitive/arena columns a crawl streams out (no per-rate objects)
+//   codec     ModelCodec bytes on disk / in flight
+// Synthetic but shaped like a multi-destination crawl: 40 searches x 1000 hotels, ~25 rates per hotel.
+//   java -Xmx3g -cp target/benchmarks.jar org.example.ModelFootprint [rates=1000000]
+public class ModelFootprint {
+
+    // Mutable, un-interned holder with RoomInfo's old layout
+    static final class LegacyRoom {
+        String roomType, price, occupancy, mealPlan, cancellation;
+    }
+
+    private static final String[] ROOM_TYPES = {
+            "Deluxe Double Room", "Superior King Room", "Standard Twin Room", "Family Suite", "Deluxe Room with Sea View",
+            "Executive Suite", "Classic Double Room", "Premium Room", "Studio Apartment", "Villa with Private Pool",
+            "Budget Double Room", "Junior Suite", "Triple Room", "Deluxe King Room with Balcony", "Cottage",
+    };
+    private static final String[] MEALS = {"", "Breakfast included", "Breakfast & dinner included", "All-inclusive", "Room only"};
+    private static final String[] CANCEL = {"", "Free cancellation before 3 days", "Non-refundable", "Free cancellation", "Partially refundable"};
+    private static final String[] DESTINATIONS = {"Goa, India", "Jaipur, India", "Mumbai, India", "Kerala, India"};
+
+    public static void main(String[] args) throws IOException {
+        // JOL cannot take record field offsets through Unsafe
+        if (System.getProperty("jol.magicFieldOffset") == null) System.setProperty("jol.magicFieldOffset", "true");
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random rnd = new Random(42);
+
+        List<SearchJob> queries = new ArrayList<>();
+        LocalDate start = LocalDate.of(2026, 11, 1);
+        for (int i = 0; i < 40; i++) {
+            queries.add(new SearchJob(DESTINATIONS[i % DESTINATIONS.length], start.plusDays(i), start.plusDays(i + 3),
+                    EnumSet.allOf(SearchFilter.class)));
+        }
+        List<HotelCard> hotels = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            hotels.add(new HotelCard("Hotel " + i, "₹ " + (4000 + rnd.nextInt(20000)), String.valueOf(6 + rnd.nextInt(40) / 10.0),
+                    "https://cf.bstatic.com/xdata/images/hotel/square600/" + (100000 + i) + ".jpg?k=" + Long.toHexString(rnd.nextLong()),
+                    rnd.nextBoolean(), rnd.nextBoolean(), "https://www.booking.com/hotel/in/hotel-" + i + ".html"));
+        }
+
+        List<LegacyRoom> legacy = new ArrayList<>(n);
+        List<RoomRate> rates = new ArrayList<>(n);
+        ColumnarSink.RoomBlock block = new ColumnarSink.RoomBlock(n);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ModelCodec.Writer codec = new ModelCodec.Writer(bytes)) {
+            for (int i = 0; i < n; i++) {
+                SearchJob query = queries.get(i / 25 / 1000 % queries.size());
+                int hotelRow = i / 25 % hotels.size();
+                String price = "₹ " + String.format("%,d", 3000 + rnd.nextInt(40) * 250);
+                String type = ROOM_TYPES[rnd.nextInt(ROOM_TYPES.length)];
+                String occupancy = "Max. people: " + (1 + rnd.nextInt(4));
+                String meal = MEALS[rnd.nextInt(MEALS.length)];
+                String cancel = CANCEL[rnd.nextInt(CANCEL.length)];
+
+                // getText() hands back a new String every time; copy to model that
+                LegacyRoom old = new LegacyRoom();
+                old.roomType = new String(type);
+                old.price = new String(price);
+                old.occupancy = new String(occupancy);
+                old.mealPlan = new String(meal);
+                old.cancellation = new String(cancel);
+                legacy.add(old);
+
+                Main.RoomInfo room = new Main.RoomInfo(new String(type), price, occupancy, new String(meal), new String(cancel));
+                RoomRate rate = RoomRate.of(query, hotels.get(hotelRow), room);
+                rates.add(rate);
+                block.add(hotels.get(hotelRow), room);
+                codec.write(rate);
+            }
+        }
+
+        long legacyBytes = GraphLayout.parseInstance(legacy).totalSize();
+        long rateBytes = GraphLayout.parseInstance(rates).totalSize();
+        long blockBytes = GraphLayout.parseInstance(block).totalSize();
+        report("legacy", n, legacyBytes, legacyBytes);
+        report("rates", n, rateBytes, legacyBytes);
+        report("block", n, blockBytes, legacyBytes);
+        report("codec", n, bytes.size(), legacyBytes);
+
+        long decoded = 0;
+        long t0 = System.nanoTime();
+        try (ModelCodec.Reader in = new ModelCodec.Reader(new ByteArrayInputStream(bytes.toByteArray()))) {
+            for (RoomRate r; (r = in.next()) != null; ) {
+                if (!r.equals(rates.get((int) decoded++))) throw new IllegalStateException("round trip differs at " + decoded);
+            }
+        }
+        System.out.println("Decoded " + decoded + " rates in " + (System.nanoTime() - t0) / 1_000_000 + " ms, identical to the originals; interner holds "
+                + Interner.shared().size() + " values");
+    }
+
+    private static void report(String label, int n, long bytes, long baseline) {
+        System.out.println(String.format("%-7s %,14d bytes  %6.1f B/rate  %5.1f%% of legacy",
+                label, bytes, (double) bytes / n, 100.0 * bytes / baseline));
+    }
+}
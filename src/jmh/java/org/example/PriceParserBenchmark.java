@@ -0,0 +1,52 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Card / room price text -> minor units. "legacy" is what reports did before: normalizePrice,
+// then strip everything but digits and Long.parseLong (₹ only, drops decimals and the original price).
+//   java -jar target/benchmarks.jar PriceParser -prof gc
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PriceParserBenchmark {
+
+    private final String[] samples = {
+            "₹ 13,700",
+            "₹ 15,100 ₹ 13,700 +₹ 1,644 taxes and charges",
+            "₹ 9,500 Includes taxes and charges",
+            "2 adults, 3 nights ₹ 41,100",
+            "₹ 1,23,456",
+            "1.234,56 €",
+            "CHF 1'234.50",
+            "US$1,234",
+            "12 345 Kč",
+            "¥ 12,000",
+    };
+
+    @Benchmark
+    public void parse(Blackhole bh) {
+        for (String s : samples) bh.consume(PriceParser.parse(s).amountMinor());
+    }
+
+    @Benchmark
+    public void legacy(Blackhole bh) {
+        for (String s : samples) {
+            String digits = Main.normalizePrice(s).replaceAll("[^0-9]", "");
+            bh.consume(digits.isEmpty() ? -1 : Long.parseLong(digits));
+        }
+    }
+}
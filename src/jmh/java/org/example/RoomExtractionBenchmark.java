@@ -0,0 +1,55 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+
+// Room extraction against both detail-page layouts: the single-pass walker vs the old XPath path.
+//   java -jar target/benchmarks.jar RoomExtraction -prof gc
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class RoomExtractionBenchmark {
+
+    @Param({FixtureServer.DETAIL_TABLE, FixtureServer.DETAIL_CARDS})
+    public String page;
+
+    @Param({"walker", "legacy"})
+    public String engine;
+
+    private BrowserFixture fixture;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        fixture = new BrowserFixture(page);
+    }
+
+    @Benchmark
+    public List<Main.RoomInfo> extractRooms(ExtractionCounters counters) {
+        long before = fixture.calls.get();
+        List<Main.RoomInfo> rooms = "walker".equals(engine)
+                ? RoomTableExtractor.extract(fixture.driver)
+                : Main.extractRoomsAndPricesLegacy(fixture.driver);
+        counters.webDriverCalls += fixture.calls.get() - before;
+        counters.records += rooms.size();
+        return rooms;
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        fixture.close();
+    }
+}
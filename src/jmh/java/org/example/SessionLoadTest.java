@@ -0,0 +1,199 @@
+package org.example;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// How many concurrent driver sessions one JVM can coordinate, and at what CPU / heap cost, with platform
+// vs virtual threads. A session is what a search looks like from the JVM: `calls` sequential blocking
+// HTTP round-trips (JDK HttpClient, as Selenium uses) to a stub endpoint that answers like chromedriver
+// after `latencyMs`. No browsers are started, so this measures the orchestration side only; each real
+// Chrome costs ~600 MB on top (SearchEngine.BYTES_PER_DRIVER).
+// Levels climb until calls fail (platform threads run out first); efficiency is throughput against the
+// sessions * 1000 / latency a latency-bound run would reach, and drops once the CPUs are the limit.
+//   java -cp target/benchmarks.jar org.example.SessionLoadTest [platform|virtual|both] [calls=30] [latencyMs=50] [levels=100,500,1000,2000,4000]
+// CPU is for the whole process, including the stub (a few scheduler threads).
+public class SessionLoadTest {
+
+    public record Level(Threads.Mode mode, int sessions, long wallMs, long calls, long errors,
+                        long cpuMs, long peakHeapMb, int peakThreads, double efficiency) {
+        boolean passed() {
+            return errors == 0;
+        }
+
+        boolean latencyBound() {
+            return efficiency >= 0.5;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-8s sessions=%5d wall=%6d ms calls/s=%8.0f efficiency=%3.0f%% errors=%d cpu=%6d ms (%.2f ms/session) heap peak=%4d MB threads peak=%d",
+                    mode, sessions, wallMs, calls * 1000.0 / Math.max(1, wallMs), efficiency * 100, errors,
+                    cpuMs, (double) cpuMs / sessions, peakHeapMb, peakThreads);
+        }
+    }
+
+    private final int calls;
+    private final long latencyMs;
+    private final HttpServer stub;
+    private final ScheduledExecutorService replies = Executors.newScheduledThreadPool(4, Threads.factory("stub-reply", Threads.Mode.PLATFORM));
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    public SessionLoadTest(int calls, long latencyMs) throws IOException {
+        this.calls = calls;
+        this.latencyMs = latencyMs;
+        stub = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 8192);
+        stub.createContext("/", ex -> {
+            ex.getRequestBody().readAllBytes();
+            // reply later from the scheduler, so the stub never holds a thread per pending call
+            replies.schedule(() -> {
+                try {
+                    byte[] body = "{\"value\":{\"element-6066-11e4-a52e-4f735466cecf\":\"f.1C2D.d.3\"}}".getBytes(StandardCharsets.UTF_8);
+                    ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+                    ex.sendResponseHeaders(200, body.length);
+                    try (OutputStream out = ex.getResponseBody()) { out.write(body); }
+                } catch (IOException ignored) {
+                    ex.close();
+                }
+            }, latencyMs, TimeUnit.MILLISECONDS);
+        });
+        stub.setExecutor(Executors.newFixedThreadPool(2, Threads.factory("stub-accept", Threads.Mode.PLATFORM)));
+        stub.start();
+    }
+
+    public Level run(Threads.Mode mode, int sessions) throws InterruptedException {
+        System.gc();
+        URI uri = URI.create("http://127.0.0.1:" + stub.getAddress().getPort() + "/session/");
+        AtomicLong ok = new AtomicLong(), errors = new AtomicLong();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        long[] peakHeap = {0};
+        Thread sampler = Threads.factory("heap-sampler", Threads.Mode.PLATFORM).newThread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakHeap[0] = Math.max(peakHeap[0], memory.getHeapMemoryUsage().getUsed());
+                try { Thread.sleep(10); } catch (InterruptedException e) { return; }
+            }
+        });
+        sampler.start();
+
+        long cpu0 = processCpuNanos();
+        long t0 = System.nanoTime();
+        // platform: one pooled thread per session, which is what the fixed-pool fallback amounts to here
+        ExecutorService executor;
+        try {
+            executor = Threads.executor("session", sessions, mode);
+        } catch (RuntimeException e) {
+            sampler.interrupt();
+            throw e;
+        }
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int s = 0; s < sessions; s++) {
+                int session = s;
+                futures.add(executor.submit(() -> {
+                    for (int c = 0; c < calls; c++) {
+                        try {
+                            HttpRequest req = HttpRequest.newBuilder(uri.resolve(session + "/element"))
+                                    .timeout(Duration.ofSeconds(30))
+                                    .POST(HttpRequest.BodyPublishers.ofString("{\"using\":\"css selector\",\"value\":\"div\"}"))
+                                    .build();
+                            HttpResponse<String> resp = client.send(req, HttpResponse.BodyHandlers.ofString());
+                            if (resp.statusCode() == 200 && resp.body().contains("value")) ok.incrementAndGet();
+                            else errors.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            return;
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                try { f.get(); } catch (Exception e) { errors.incrementAndGet(); }
+            }
+        } catch (OutOfMemoryError e) {
+            // "unable to create native thread": the platform ceiling
+            errors.addAndGet((long) (sessions - futures.size()) * calls);
+        } finally {
+            executor.shutdownNow();
+        }
+        long wallMs = Math.max(1, (System.nanoTime() - t0) / 1_000_000);
+        long cpuMs = (processCpuNanos() - cpu0) / 1_000_000;
+        sampler.interrupt();
+        sampler.join();
+
+        double concurrency = (double) sessions * calls * latencyMs / wallMs; // sessions effectively in flight
+        return new Level(mode, sessions, wallMs, ok.get(), errors.get(), cpuMs, peakHeap[0] / (1024 * 1024),
+                threads.getPeakThreadCount(), concurrency / sessions);
+    }
+
+    public void close() {
+        stub.stop(0);
+        replies.shutdownNow();
+    }
+
+    private static long processCpuNanos() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            return os.getProcessCpuTime();
+        }
+        return 0;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String which = args.length > 0 ? args[0] : "both";
+        int calls = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        long latency = args.length > 2 ? Long.parseLong(args[2]) : 50;
+        String levels = args.length > 3 ? args[3] : "100,500,1000,2000,4000";
+
+        List<Threads.Mode> modes = new ArrayList<>();
+        if (!which.equals("virtual")) modes.add(Threads.Mode.PLATFORM);
+        if (!which.equals("platform")) {
+            if (Threads.virtualAvailable()) modes.add(Threads.Mode.VIRTUAL);
+            else System.out.println("Virtual threads need JDK 21+ (running " + Runtime.version() + "); platform only");
+        }
+        if (modes.isEmpty()) return;
+
+        System.out.println("Sessions of " + calls + " calls x " + latency + " ms; JDK " + Runtime.version()
+                + ", " + Runtime.getRuntime().availableProcessors() + " CPUs, max heap " + Runtime.getRuntime().maxMemory() / (1024 * 1024) + " MB");
+        SessionLoadTest test = new SessionLoadTest(calls, latency);
+        try {
+            test.run(modes.get(0), 50); // warm-up: JIT, HttpClient, stub
+            for (Threads.Mode mode : modes) {
+                int best = 0, unsaturated = 0;
+                for (String level : levels.split(",")) {
+                    int sessions = Integer.parseInt(level.trim());
+                    Level r = test.run(mode, sessions);
+                    System.out.println(r);
+                    if (!r.passed()) break;
+                    best = sessions;
+                    if (r.latencyBound()) unsaturated = sessions;
+                }
+                System.out.println(mode + ": coordinated up to " + best + " concurrent sessions without errors"
+                        + (unsaturated > 0 ? ", latency-bound (>= 50% efficiency) up to " + unsaturated : ", CPU-bound at every level"));
+            }
+        } finally {
+            test.close();
+        }
+    }
+}
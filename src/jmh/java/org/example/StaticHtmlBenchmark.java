@@ -0,0 +1,58 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// StaticHtmlExtractor over HTTP from the fixture server, one page per operation. With -prof gc the
+// allocation per page covers every thread (HttpClient's workers included, and the fixture server's share).
+//   java -jar target/benchmarks.jar StaticHtml -prof gc
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class StaticHtmlBenchmark {
+
+    @Param({FixtureServer.DETAIL_TABLE, FixtureServer.DETAIL_CARDS})
+    public String detailPage;
+
+    private FixtureServer server;
+    private StaticHtmlExtractor extractor;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        server = new FixtureServer();
+        extractor = new StaticHtmlExtractor(Duration.ofSeconds(15));
+    }
+
+    @Benchmark
+    public List<HotelCard> cards() {
+        return extractor.tryCards(server.searchResultsUrl()).orElseThrow();
+    }
+
+    @Benchmark
+    public List<Main.RoomInfo> rooms() {
+        return extractor.tryRooms(server.url(detailPage)).orElseThrow();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        server.close();
+    }
+}
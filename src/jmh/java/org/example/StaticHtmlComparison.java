@@ -0,0 +1,137 @@
+package org.example;
+
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+// StaticHtmlExtractor against the browser on the fixture server: the saved results page + every detail page
+// it links to, `rounds` times, static HTTP + StreamParser against driver.get + the batch scripts in headless
+// Chrome. Checks that both give the same records and prints pages/sec and memory per page (JVM allocation;
+// resident size of the browser processes).
+// The allocation figure is the calling thread's only: HttpClient reads responses on its own selector and
+// executor threads, so their share is missing. For the static path's full allocation rate use
+// java -jar target/benchmarks.jar StaticHtmlBenchmark -prof gc.
+//   java -cp target/benchmarks.jar org.example.StaticHtmlComparison [rounds=5] [browser=true]
+public class StaticHtmlComparison {
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) System.setProperty("sun.net.httpserver.nodelay", "true");
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        boolean browser = args.length <= 1 || Boolean.parseBoolean(args[1]);
+        try (FixtureServer server = new FixtureServer()) {
+            StaticHtmlExtractor extractor = new StaticHtmlExtractor(Duration.ofSeconds(15));
+            List<HotelCard> staticCards = extractor.tryCards(server.searchResultsUrl()).orElse(List.of());
+            System.out.println("Static: " + staticCards.size() + " cards from " + server.searchResultsUrl());
+
+            long a0 = allocatedBytes(), t0 = System.nanoTime();
+            int staticPages = 0;
+            for (int r = 0; r < rounds; r++) {
+                extractor.tryCards(server.searchResultsUrl());
+                staticPages++;
+                for (HotelCard h : staticCards) {
+                    extractor.tryRooms(h.url());
+                    staticPages++;
+                }
+            }
+            report("static", staticPages, System.nanoTime() - t0, allocatedBytes() - a0, -1);
+            System.out.println(extractor.stats());
+            if (!browser) return;
+
+            Drivers.Counted counted = Drivers.headless();
+            WebDriver driver = counted.driver();
+            try {
+                driver.get(server.searchResultsUrl());
+                List<HotelCard> browserCards = CardExtractor.extractBatch(driver);
+                int mismatches = compareCards(staticCards, browserCards);
+                for (HotelCard h : staticCards.subList(0, Math.min(5, staticCards.size()))) {
+                    driver.get(h.url());
+                    List<Main.RoomInfo> viaBrowser = RoomTableExtractor.extract(driver);
+                    List<Main.RoomInfo> viaStatic = extractor.tryRooms(h.url()).orElse(List.of());
+                    mismatches += compareRooms(h.name(), viaStatic, viaBrowser);
+                }
+                System.out.println("Records compared: " + (mismatches == 0 ? "identical" : mismatches + " mismatches"));
+
+                a0 = allocatedBytes();
+                t0 = System.nanoTime();
+                int browserPages = 0;
+                long rss = 0;
+                for (int r = 0; r < rounds; r++) {
+                    driver.get(server.searchResultsUrl());
+                    CardExtractor.extractBatch(driver);
+                    browserPages++;
+                    for (HotelCard h : staticCards) {
+                        driver.get(h.url());
+                        RoomTableExtractor.extract(driver);
+                        browserPages++;
+                    }
+                    rss = Math.max(rss, browserRssBytes());
+                }
+                report("webdriver", browserPages, System.nanoTime() - t0, allocatedBytes() - a0, rss);
+            } finally {
+                driver.quit();
+            }
+        }
+    }
+
+    private static void report(String path, int pages, long nanos, long allocated, long rss) {
+        System.out.println(String.format("%-9s %4d pages in %6d ms = %6.1f pages/s, caller allocation %5d KB/page%s",
+                path, pages, nanos / 1_000_000, pages * 1e9 / Math.max(1, nanos), allocated / Math.max(1, pages) / 1024,
+                rss > 0 ? ", browser resident " + rss / (1024 * 1024) + " MB" : ""));
+    }
+
+    private static int compareCards(List<HotelCard> viaStatic, List<HotelCard> viaBrowser) {
+        int bad = Math.abs(viaStatic.size() - viaBrowser.size());
+        for (int i = 0; i < Math.min(viaStatic.size(), viaBrowser.size()); i++) {
+            HotelCard s = viaStatic.get(i), b = viaBrowser.get(i);
+            boolean same = s.name().equals(b.name()) && s.price().equals(b.price())
+                    && s.rating().replaceAll("\\s+", " ").equals(b.rating().replaceAll("\\s+", " "))
+                    && s.imageUrl().equals(b.imageUrl()) && s.url().equals(b.url())
+                    && s.breakfastIncluded() == b.breakfastIncluded() && s.freeCancellation() == b.freeCancellation();
+            if (!same) {
+                bad++;
+                System.out.println("Card differs:\n  static  " + s + "\n  browser " + b);
+            }
+        }
+        return bad;
+    }
+
+    private static int compareRooms(String hotel, List<Main.RoomInfo> viaStatic, List<Main.RoomInfo> viaBrowser) {
+        int bad = Math.abs(viaStatic.size() - viaBrowser.size());
+        for (int i = 0; i < Math.min(viaStatic.size(), viaBrowser.size()); i++) {
+            Main.RoomInfo s = viaStatic.get(i), b = viaBrowser.get(i);
+            if (!(s.roomType.equals(b.roomType) && s.price.equals(b.price) && s.occupancy.equals(b.occupancy)
+                    && s.mealPlan.equals(b.mealPlan) && s.cancellation.equals(b.cancellation))) {
+                bad++;
+                System.out.println("Room differs (" + hotel + "): static " + s.roomType + " | " + s.price + " | " + s.occupancy
+                        + " | " + s.mealPlan + " | " + s.cancellation + "  browser " + b.roomType + " | " + b.price
+                        + " | " + b.occupancy + " | " + b.mealPlan + " | " + b.cancellation);
+            }
+        }
+        return bad;
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean t) {
+            return t.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    // chromedriver + Chrome processes started by this JVM (Linux /proc only; -1 elsewhere)
+    private static long browserRssBytes() {
+        long total = 0;
+        for (ProcessHandle p : ProcessHandle.current().descendants().toList()) {
+            try {
+                for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(p.pid()), "status"))) {
+                    if (line.startsWith("VmRSS:")) total += Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            } catch (IOException | RuntimeException ignored) {}
+        }
+        return total == 0 ? -1 : total;
+    }
+}
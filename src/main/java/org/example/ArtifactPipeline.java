@@ -0,0 +1,250 @@
+package org.example;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Screenshots off the critical path. capture() only grabs the bytes (a JPEG straight from CDP
+// Page.captureScreenshot on Chrome, OutputType.BYTES otherwise) and queues them; one background thread
+// downscales, re-encodes to JPEG and writes <dir>/<runId>/<seq>-<step>.jpg. When the directory grows past
+// its cap the oldest files go first. A full queue drops the screenshot rather than stall the browser.
+//   -Dbooking.artifactDir (artifacts)  -Dbooking.artifactMaxMb (200)  -Dbooking.artifactMaxWidth (1280)
+//   -Dbooking.artifactQuality (0.75)   -Dbooking.artifactQueue (16)
+public class ArtifactPipeline implements AutoCloseable {
+
+    private record Job(Path file, byte[] bytes, boolean jpeg) {}
+
+    private static ArtifactPipeline shared;
+
+    private final Path dir;
+    private final long maxBytes;
+    private final int maxWidth;
+    private final float quality;
+    private final ArrayBlockingQueue<Job> queue;
+    private final Thread writer;
+    private final AtomicInteger seq = new AtomicInteger();
+    private volatile boolean closed;
+
+    // oldest first, for rotation; touched by the writer thread only
+    private final ArrayDeque<Path> files = new ArrayDeque<>();
+    private long diskBytes;
+
+    private final AtomicLong captured = new AtomicLong(), written = new AtomicLong(), dropped = new AtomicLong(), failed = new AtomicLong();
+    private final AtomicLong captureNanos = new AtomicLong(), writeNanos = new AtomicLong();
+    private final AtomicLong rawBytes = new AtomicLong(), storedBytes = new AtomicLong(), rotated = new AtomicLong();
+
+    public ArtifactPipeline(Path dir, long maxBytes, int maxWidth, float quality, int queueSize) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        this.maxWidth = maxWidth;
+        this.quality = quality;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        scanExisting();
+        this.writer = Threads.factory("artifact-writer", Threads.Mode.PLATFORM).newThread(this::drain);
+        writer.start();
+    }
+
+    public static synchronized ArtifactPipeline shared() {
+        if (shared == null || shared.closed) {
+            shared = new ArtifactPipeline(
+                    Path.of(System.getProperty("booking.artifactDir", "artifacts")),
+                    Long.getLong("booking.artifactMaxMb", 200) * 1024 * 1024,
+                    Integer.getInteger("booking.artifactMaxWidth", 1280),
+                    Float.parseFloat(System.getProperty("booking.artifactQuality", "0.75")),
+                    Integer.getInteger("booking.artifactQueue", 16));
+        }
+        return shared;
+    }
+
+    // The shared pipeline if anything has used it since the last close, else null (nothing to flush or report)
+    public static synchronized ArtifactPipeline sharedIfStarted() {
+        return shared == null || shared.closed ? null : shared;
+    }
+
+    // Returns the file the screenshot will be written to, or null if it could not be taken / was dropped.
+    // -Dbooking.screenshotFull=true re-renders images first when running the lean profile.
+    public Path capture(WebDriver driver, String step) {
+        long t0 = System.nanoTime();
+        try (RunTrace.Step trace = RunTrace.current().step("screenshot")) {
+            try {
+                AutoCloseable full = Boolean.getBoolean("booking.screenshotFull") ? Drivers.fullRendering(driver) : null;
+                Job job;
+                try {
+                    job = grab(driver, step);
+                } finally {
+                    if (full != null) full.close(); // back to lean before the page does anything else
+                }
+                captured.incrementAndGet();
+                rawBytes.addAndGet(job.bytes().length);
+                if (!queue.offer(job)) {
+                    dropped.incrementAndGet();
+                    trace.outcome("dropped");
+                    return null;
+                }
+                return job.file();
+            } catch (Throwable e) {
+                trace.failed(e);
+                throw e;
+            }
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            System.out.println("Screenshot failed (" + step + "): " + e.getMessage());
+            return null;
+        } finally {
+            captureNanos.addAndGet(System.nanoTime() - t0);
+        }
+    }
+
+    private Job grab(WebDriver driver, String step) {
+        String runId = RunTrace.current().runId();
+        String name = String.format("%03d-%s.jpg", seq.incrementAndGet(), step.replaceAll("[^A-Za-z0-9_.-]", "_"));
+        Path file = dir.resolve(runId).resolve(name);
+        if (Drivers.unwrap(driver) instanceof HasCdp cdp) {
+            // Chrome encodes JPEG much faster than PNG and ships a third of the bytes over the wire
+            Map<String, Object> r = cdp.executeCdpCommand("Page.captureScreenshot",
+                    Map.of("format", "jpeg", "quality", Math.round(quality * 100), "optimizeForSpeed", true));
+            return new Job(file, Base64.getDecoder().decode((String) r.get("data")), true);
+        }
+        return new Job(file, ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES), false);
+    }
+
+    // ---------------- WRITER ----------------
+
+    private void drain() {
+        while (true) {
+            Job job;
+            try {
+                job = queue.poll(200, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (job == null) {
+                if (closed) return;
+                continue;
+            }
+            long t0 = System.nanoTime();
+            try {
+                byte[] out = encode(job);
+                Files.createDirectories(job.file().getParent());
+                Path tmp = job.file().resolveSibling(job.file().getFileName() + ".tmp");
+                Files.write(tmp, out);
+                Files.move(tmp, job.file(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                files.addLast(job.file());
+                diskBytes += out.length;
+                storedBytes.addAndGet(out.length);
+                written.incrementAndGet();
+                rotate();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                System.out.println("Artifact write failed for " + job.file() + ": " + e.getMessage());
+            } finally {
+                writeNanos.addAndGet(System.nanoTime() - t0);
+            }
+        }
+    }
+
+    // Already a JPEG of acceptable width: as is. Otherwise scale down to maxWidth and encode JPEG.
+    private byte[] encode(Job job) throws IOException {
+        BufferedImage src = ImageIO.read(new ByteArrayInputStream(job.bytes()));
+        if (src == null) return job.bytes();
+        if (job.jpeg() && src.getWidth() <= maxWidth) return job.bytes();
+
+        int w = Math.min(maxWidth, src.getWidth());
+        int h = (int) Math.max(1, (long) src.getHeight() * w / src.getWidth());
+        BufferedImage rgb = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB); // JPEG has no alpha
+        Graphics2D g = rgb.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(src, 0, 0, w, h, null);
+        g.dispose();
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(w * h / 8);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(buf)) {
+            writer.setOutput(out);
+            ImageWriteParam p = writer.getDefaultWriteParam();
+            p.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            p.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(rgb, null, null), p);
+        } finally {
+            writer.dispose();
+        }
+        return buf.toByteArray();
+    }
+
+    private void rotate() {
+        while (diskBytes > maxBytes && files.size() > 1) {
+            Path oldest = files.pollFirst();
+            try {
+                diskBytes -= Files.size(oldest);
+                Files.delete(oldest);
+                rotated.incrementAndGet();
+                try (Stream<Path> left = Files.list(oldest.getParent())) {
+                    if (left.findAny().isEmpty()) Files.delete(oldest.getParent());
+                }
+            } catch (IOException ignored) {}
+        }
+    }
+
+    private void scanExisting() {
+        if (!Files.isDirectory(dir)) return;
+        List<Path> existing = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(dir, 2)) {
+            walk.filter(p -> p.toString().endsWith(".jpg")).forEach(existing::add);
+        } catch (IOException ignored) {}
+        existing.sort(Comparator.comparingLong(p -> {
+            try { return Files.getLastModifiedTime(p).toMillis(); } catch (IOException e) { return 0L; }
+        }));
+        for (Path p : existing) {
+            try {
+                diskBytes += Files.size(p);
+                files.addLast(p);
+            } catch (IOException ignored) {}
+        }
+    }
+
+    public String stats() {
+        return String.format("Artifacts: %d captured (%.0f ms on the flow), %d written (%.0f ms in background), %d dropped, %d failed, "
+                        + "%d KB -> %d KB, %d rotated out, %d KB on disk in %s",
+                captured.get(), captureNanos.get() / 1e6, written.get(), writeNanos.get() / 1e6, dropped.get(), failed.get(),
+                rawBytes.get() / 1024, storedBytes.get() / 1024, rotated.get(), diskBytes / 1024, dir);
+    }
+
+    // Waits (bounded) for queued screenshots to be written
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            writer.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) writer.interrupt();
+    }
+}
@@ -0,0 +1,150 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Append-only JSONL log of finished batch steps, forced to disk line by line so a kill loses at most the
+// step in flight. One line per step:
+//   {"job":"goa","type":"search","at":...,"hotels":[{...HotelCard}]}
+//   {"job":"goa","type":"detail","at":...,"hotel":"<url>","rooms":[{...RoomInfo}]}
+//   {"job":"goa","type":"done","at":...}
+// On open the log is replayed into per-job state; a torn last line is ignored.
+public class BatchCheckpoint implements AutoCloseable {
+
+    public static final class JobState {
+        List<HotelCard> hotels; // null until the search step finished
+        final Map<String, List<Main.RoomInfo>> rooms = new LinkedHashMap<>(); // by hotel url
+        boolean done;
+
+        public List<HotelCard> hotels() { return hotels; }
+        public Map<String, List<Main.RoomInfo>> rooms() { return rooms; }
+        public boolean done() { return done; }
+    }
+
+    private final Path file;
+    private final FileChannel out;
+    private final Map<String, JobState> jobs = new HashMap<>();
+    private int replayed;
+
+    public BatchCheckpoint(Path file) throws IOException {
+        this.file = file;
+        if (Files.exists(file)) replay();
+        out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        // a torn last line would swallow the next record
+        if (out.size() > 0) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) { in.read(last, in.size() - 1); }
+            if (last.get(0) != '\n') write("\n");
+        }
+    }
+
+    public Path file() { return file; }
+
+    // Steps read back from an earlier run
+    public int replayed() { return replayed; }
+
+    public synchronized JobState state(String jobId) {
+        return jobs.computeIfAbsent(jobId, k -> new JobState());
+    }
+
+    public synchronized void search(String jobId, List<HotelCard> hotels) throws IOException {
+        StringBuilder sb = head(jobId, "search").append(",\"hotels\":[");
+        for (int i = 0; i < hotels.size(); i++) {
+            HotelCard h = hotels.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"name\":").append(Json.quote(h.name()))
+                    .append(",\"price\":").append(Json.quote(h.price()))
+                    .append(",\"rating\":").append(Json.quote(h.rating()))
+                    .append(",\"imageUrl\":").append(Json.quote(h.imageUrl()))
+                    .append(",\"breakfast\":").append(h.breakfastIncluded())
+                    .append(",\"freeCancellation\":").append(h.freeCancellation())
+                    .append(",\"url\":").append(Json.quote(h.url())).append('}');
+        }
+        write(sb.append("]}\n").toString());
+        state(jobId).hotels = List.copyOf(hotels);
+    }
+
+    public synchronized void detail(String jobId, HotelCard hotel, List<Main.RoomInfo> rooms) throws IOException {
+        StringBuilder sb = head(jobId, "detail").append(",\"hotel\":").append(Json.quote(hotel.url())).append(",\"rooms\":[");
+        for (int i = 0; i < rooms.size(); i++) {
+            Main.RoomInfo r = rooms.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"roomType\":").append(Json.quote(r.roomType))
+                    .append(",\"price\":").append(Json.quote(r.price))
+                    .append(",\"occupancy\":").append(Json.quote(r.occupancy))
+                    .append(",\"mealPlan\":").append(Json.quote(r.mealPlan))
+                    .append(",\"cancellation\":").append(Json.quote(r.cancellation)).append('}');
+        }
+        write(sb.append("]}\n").toString());
+        state(jobId).rooms.put(hotel.url(), List.copyOf(rooms));
+    }
+
+    public synchronized void done(String jobId) throws IOException {
+        write(head(jobId, "done").append("}\n").toString());
+        state(jobId).done = true;
+    }
+
+    private static StringBuilder head(String jobId, String type) {
+        return new StringBuilder("{\"job\":").append(Json.quote(jobId))
+                .append(",\"type\":\"").append(type).append("\",\"at\":").append(System.currentTimeMillis());
+    }
+
+    private void write(String line) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        while (buf.hasRemaining()) out.write(buf);
+        out.force(false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void replay() throws IOException {
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) continue;
+            Map<String, Object> m;
+            try {
+                m = (Map<String, Object>) Json.parse(line);
+            } catch (RuntimeException torn) {
+                continue;
+            }
+            JobState s = state((String) m.get("job"));
+            switch (String.valueOf(m.get("type"))) {
+                case "search" -> {
+                    List<HotelCard> hotels = new ArrayList<>();
+                    for (Object o : (List<Object>) m.get("hotels")) {
+                        Map<String, Object> h = (Map<String, Object>) o;
+                        hotels.add(new HotelCard((String) h.get("name"), (String) h.get("price"), (String) h.get("rating"),
+                                (String) h.get("imageUrl"), Boolean.TRUE.equals(h.get("breakfast")),
+                                Boolean.TRUE.equals(h.get("freeCancellation")), (String) h.get("url")));
+                    }
+                    s.hotels = List.copyOf(hotels);
+                }
+                case "detail" -> {
+                    List<Main.RoomInfo> rooms = new ArrayList<>();
+                    for (Object o : (List<Object>) m.get("rooms")) {
+                        Map<String, Object> r = (Map<String, Object>) o;
+                        rooms.add(new Main.RoomInfo((String) r.get("roomType"), (String) r.get("price"),
+                                (String) r.get("occupancy"), (String) r.get("mealPlan"), (String) r.get("cancellation")));
+                    }
+                    s.rooms.put((String) m.get("hotel"), List.copyOf(rooms));
+                }
+                case "done" -> s.done = true;
+                default -> { continue; }
+            }
+            replayed++;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
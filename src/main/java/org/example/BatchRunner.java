@@ -0,0 +1,308 @@
+package org.example;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Long crawls from a JSONL job file, one job per line:
+//   {"id":"goa-nov","destination":"Goa, India","checkIn":"2026-11-01","checkOut":"2026-11-04",
+//    "filters":["FOUR_STARS_PLUS"],"adults":2,"rooms":1,"details":10,"budgetSec":900}
+//   {"spec":"Jaipur;2026-12-01;2026-12-03"}        SearchJob.parse syntax
+//   {"id":"local","url":"http://127.0.0.1:8089/searchresults.html","destination":"x",...}  fixed results URL
+// details = how many hotels get their detail page read (-1 = all). Every finished search and detail page
+// goes to a BatchCheckpoint (<jobs>.checkpoint.jsonl); a rerun with the same file skips what is in it.
+// A failed step is retried with exponential backoff and jitter; a job stops when its time budget runs out
+// and is picked up again by the next run.
+//   -Dbooking.batchDrivers (1)  -Dbooking.batchRetries (3)  -Dbooking.batchBackoffMs (1000)
+//   -Dbooking.batchBudgetSec (600)  -Dbooking.batchDetails (-1)  -Dbooking.checkpoint=<file>
+public class BatchRunner implements AutoCloseable {
+
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    public record Job(String id, SearchJob search, String url, int details, Duration budget) {}
+
+    public record Config(int drivers, int retries, long backoffMs, Duration budget, int details) {
+        public static Config fromProperties() {
+            return new Config(
+                    Math.max(1, Integer.getInteger("booking.batchDrivers", 1)),
+                    Math.max(0, Integer.getInteger("booking.batchRetries", 3)),
+                    Math.max(0, Long.getLong("booking.batchBackoffMs", 1000)),
+                    Duration.ofSeconds(Long.getLong("booking.batchBudgetSec", 600)),
+                    Integer.getInteger("booking.batchDetails", -1));
+        }
+    }
+
+    // What one job ended with in this run
+    public enum Status { DONE, RESUMED_DONE, INCOMPLETE, OUT_OF_TIME, FAILED }
+
+    public record JobResult(Job job, Status status, int hotels, int details, long millis, String error) {}
+
+    private static final class OutOfTime extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        OutOfTime(String what) { super("time budget used up before " + what); }
+    }
+
+    // A dead driver could not be replaced mid-job: nothing else in the job can run
+    private static final class NoDriver extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        NoDriver(RuntimeException cause) { super("replacement driver did not start: " + cause.getMessage(), cause); }
+    }
+
+    private final Config config;
+    private final BatchCheckpoint checkpoint;
+    private final DriverPool pool;
+    private final ExecutorService executor;
+
+    private final AtomicLong attempts = new AtomicLong(), retries = new AtomicLong();
+    private final AtomicLong searches = new AtomicLong(), detailPages = new AtomicLong(), skippedSteps = new AtomicLong();
+
+    public BatchRunner(Config config, BatchCheckpoint checkpoint, Supplier<Drivers.Counted> drivers) {
+        this.config = config;
+        this.checkpoint = checkpoint;
+        this.pool = new DriverPool(config.drivers(), Integer.MAX_VALUE, drivers);
+        this.executor = Threads.executor("batch-worker", config.drivers());
+    }
+
+    public List<JobResult> run(List<Job> jobs) throws InterruptedException {
+        List<Future<JobResult>> futures = new ArrayList<>();
+        Metrics.JOBS_PLANNED.add(jobs.size());
+        for (Job job : jobs) {
+            futures.add(executor.submit(() -> {
+                JobResult r = runOne(job);
+                Metrics.job(r.status().name().toLowerCase());
+                return r;
+            }));
+        }
+        List<JobResult> results = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).get());
+            } catch (Exception e) {
+                results.add(new JobResult(jobs.get(i), Status.FAILED, 0, 0, 0, String.valueOf(e.getCause())));
+                Metrics.job("failed");
+            }
+        }
+        return results;
+    }
+
+    private JobResult runOne(Job job) throws InterruptedException {
+        long t0 = System.nanoTime();
+        BatchCheckpoint.JobState state = checkpoint.state(job.id());
+        if (state.done()) {
+            return new JobResult(job, Status.RESUMED_DONE, state.hotels().size(), state.rooms().size(), 0, null);
+        }
+
+        DriverPool.Lease[] lease = {pool.acquire()};
+        // The budget is for the job's own work, not for waiting on a busy pool
+        long deadline = System.nanoTime() + job.budget().toNanos();
+        RunTrace trace = RunTrace.start(RunTrace.newRunId(), lease[0].calls());
+        String error = null;
+        Status status;
+        try {
+            List<HotelCard> hotels = state.hotels();
+            if (hotels == null) {
+                hotels = withRetry(job, "search", deadline, lease, () -> search(lease[0], job));
+                checkpoint.search(job.id(), hotels);
+                searches.incrementAndGet();
+            } else {
+                skippedSteps.incrementAndGet();
+            }
+
+            int wanted = job.details() < 0 ? hotels.size() : Math.min(job.details(), hotels.size());
+            int failedDetails = 0;
+            for (HotelCard hotel : hotels.subList(0, wanted)) {
+                if (state.rooms().containsKey(hotel.url())) {
+                    skippedSteps.incrementAndGet();
+                    continue;
+                }
+                try {
+                    List<Main.RoomInfo> rooms = withRetry(job, "detail " + hotel.name(), deadline, lease,
+                            () -> detail(lease[0].driver(), hotel, deadline));
+                    checkpoint.detail(job.id(), hotel, rooms);
+                    detailPages.incrementAndGet();
+                } catch (OutOfTime | NoDriver e) {
+                    throw e;
+                } catch (Exception e) {
+                    failedDetails++;
+                    error = "detail " + hotel.name() + ": " + e.getMessage();
+                }
+            }
+
+            if (failedDetails == 0) {
+                checkpoint.done(job.id());
+                status = Status.DONE;
+            } else {
+                status = Status.INCOMPLETE;
+                error = failedDetails + " detail page(s) failed, last: " + error;
+            }
+        } catch (OutOfTime e) {
+            status = Status.OUT_OF_TIME;
+            error = e.getMessage();
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            status = Status.FAILED;
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        } finally {
+            trace.finish();
+            if (lease[0] != null) pool.release(lease[0], !DriverPool.isAlive(lease[0].driver()));
+        }
+        return new JobResult(job, status, state.hotels() == null ? 0 : state.hotels().size(), state.rooms().size(),
+                (System.nanoTime() - t0) / 1_000_000, error);
+    }
+
+    private interface Step<T> {
+        T run() throws Exception;
+    }
+
+    // Backoff doubles from booking.batchBackoffMs (capped at 30 s, 50-100% jitter) and never sleeps past the
+    // deadline. A driver that died is replaced before the next attempt; if that fails the job is aborted (NoDriver).
+    private <T> T withRetry(Job job, String what, long deadline, DriverPool.Lease[] lease, Step<T> step) throws Exception {
+        for (int attempt = 0; ; attempt++) {
+            if (System.nanoTime() >= deadline) throw new OutOfTime(what);
+            attempts.incrementAndGet();
+            try {
+                return step.run();
+            } catch (Exception e) {
+                if (attempt >= config.retries()) throw e;
+                retries.incrementAndGet();
+                if (!DriverPool.isAlive(lease[0].driver())) {
+                    pool.release(lease[0], true);
+                    lease[0] = null;
+                    try {
+                        lease[0] = pool.acquire();
+                    } catch (RuntimeException started) {
+                        throw new NoDriver(started);
+                    }
+                }
+                long backoff = Math.min(MAX_BACKOFF_MS, config.backoffMs() << Math.min(attempt, 20));
+                backoff = (long) (backoff * (0.5 + ThreadLocalRandom.current().nextDouble() * 0.5));
+                long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (backoff >= left) throw new OutOfTime(what + " (retry " + (attempt + 1) + ")");
+                System.out.println("[" + job.id() + "] " + what + " failed (" + e.getClass().getSimpleName()
+                        + "), retry " + (attempt + 1) + "/" + config.retries() + " in " + backoff + " ms");
+                Thread.sleep(backoff);
+                Metrics.slept("batch-backoff", backoff);
+            }
+        }
+    }
+
+    private static List<HotelCard> search(DriverPool.Lease lease, Job job) {
+        WebDriver driver = lease.driver();
+        if (job.url() != null) {
+            driver.get(job.url());
+            Main.newWait(driver).until(ExpectedConditions.presenceOfElementLocated(
+                    By.cssSelector("div[data-testid='property-card']")));
+        } else {
+            Main.openResults(driver, Main.newWait(driver), job.search(), Main.Navigation.fromProperty());
+        }
+        List<HotelCard> hotels = CardExtractor.extract(driver, lease.calls(), CardExtractor.Mode.fromProperty());
+        if (hotels.isEmpty()) throw new IllegalStateException("no property cards");
+        return hotels;
+    }
+
+    private static List<Main.RoomInfo> detail(WebDriver driver, HotelCard hotel, long deadline) {
+        long leftMs = Math.max(1000, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+        return DetailFanOut.fetchOne(driver, hotel, Duration.ofMillis(Math.min(20_000, leftMs)));
+    }
+
+    public void printReport(List<JobResult> results, long wallMs) {
+        Map<Status, Integer> byStatus = new LinkedHashMap<>();
+        for (JobResult r : results) {
+            byStatus.merge(r.status(), 1, Integer::sum);
+            System.out.println(String.format("%-12s %-20s hotels=%d details=%d time=%dms%s", r.status(), r.job().id(),
+                    r.hotels(), r.details(), r.millis(), r.error() == null ? "" : " error=" + r.error()));
+        }
+        long pages = searches.get() + detailPages.get();
+        double minutes = Math.max(1, wallMs) / 60_000.0;
+        System.out.println("Batch: " + results.size() + " jobs " + byStatus + ", wall " + wallMs + " ms");
+        System.out.println(String.format("Throughput: %d pages (%d searches, %d detail pages) = %.1f pages/min; %d steps resumed from %s",
+                pages, searches.get(), detailPages.get(), pages / minutes, skippedSteps.get(), checkpoint.file()));
+        System.out.println(String.format("Retries: %d of %d attempts (%.1f%%)",
+                retries.get(), attempts.get(), attempts.get() == 0 ? 0.0 : 100.0 * retries.get() / attempts.get()));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        pool.close();
+        LocatorRegistry.shared().save();
+    }
+
+    // ---------------- JOB FILE ----------------
+
+    @SuppressWarnings("unchecked")
+    public static List<Job> readJobs(Path file, Config config) throws IOException {
+        List<Job> jobs = new ArrayList<>();
+        int lineNo = 0;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            lineNo++;
+            if (line.isBlank() || line.startsWith("#")) continue;
+            try {
+                Map<String, Object> m = (Map<String, Object>) Json.parse(line);
+                SearchJob search;
+                if (m.get("spec") instanceof String spec) {
+                    search = SearchJob.parse(spec);
+                } else {
+                    Set<SearchFilter> filters = EnumSet.noneOf(SearchFilter.class);
+                    if (m.get("filters") instanceof List<?> names) {
+                        for (Object f : names) filters.add(SearchFilter.valueOf(String.valueOf(f).trim().toUpperCase()));
+                    }
+                    search = new SearchJob((String) m.get("destination"),
+                            LocalDate.parse((String) m.get("checkIn")), LocalDate.parse((String) m.get("checkOut")), filters,
+                            ((Number) m.getOrDefault("adults", 2L)).intValue(), ((Number) m.getOrDefault("rooms", 1L)).intValue());
+                }
+                String id = m.get("id") instanceof String s ? s : search.cacheKey();
+                int details = m.get("details") instanceof Number n ? n.intValue() : config.details();
+                Duration budget = m.get("budgetSec") instanceof Number n ? Duration.ofSeconds(n.longValue()) : config.budget();
+                jobs.add(new Job(id, search, (String) m.get("url"), details, budget));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(file + ":" + lineNo + ": " + e.getMessage(), e);
+            }
+        }
+        return jobs;
+    }
+
+    // Usage: BatchRunner jobs.jsonl   (rerun the same command to resume)
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Usage: BatchRunner <jobs.jsonl>");
+            return;
+        }
+        MetricsServer.startFromProperties();
+        Path jobsFile = Path.of(args[0]);
+        Config config = Config.fromProperties();
+        List<Job> jobs = readJobs(jobsFile, config);
+        Path cp = Path.of(System.getProperty("booking.checkpoint", jobsFile + ".checkpoint.jsonl"));
+
+        long t0 = System.nanoTime();
+        try (BatchCheckpoint checkpoint = new BatchCheckpoint(cp);
+             BatchRunner runner = new BatchRunner(config, checkpoint, Drivers::headless)) {
+            if (checkpoint.replayed() > 0) System.out.println("Resuming: " + checkpoint.replayed() + " steps already in " + cp);
+            System.out.println("Running " + jobs.size() + " jobs on " + config.drivers() + " driver(s)");
+            List<JobResult> results = runner.run(jobs);
+            runner.printReport(results, (System.nanoTime() - t0) / 1_000_000);
+        }
+    }
+}
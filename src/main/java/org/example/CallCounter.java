@@ -0,0 +1,42 @@
+package org.example;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Counts WebDriver round-trips (every driver/element command goes over HTTP to chromedriver), per driver
+// here and JVM-wide in Metrics, which also counts page navigations.
+public class CallCounter implements WebDriverListener {
+
+    // These only hand back local helper objects or never leave the JVM
+    private static final Set<String> LOCAL = Set.of(
+            "manage", "switchTo", "navigate", "getWrappedDriver", "getWrappedElement",
+            "toString", "hashCode", "equals"
+    );
+
+    private final AtomicLong calls = new AtomicLong();
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (LOCAL.contains(method.getName())) return;
+        if (target instanceof WebDriver || target instanceof WebElement
+                || target instanceof WebDriver.Options || target instanceof WebDriver.Navigation
+                || target instanceof WebDriver.TargetLocator || target instanceof WebDriver.Window
+                || target instanceof WebDriver.Timeouts) {
+            calls.incrementAndGet();
+            Metrics.WEBDRIVER_CALLS.inc();
+            if ((target instanceof WebDriver && method.getName().equals("get"))
+                    || (target instanceof WebDriver.Navigation && method.getName().equals("to"))) {
+                Metrics.pages("browser", 1);
+            }
+        }
+    }
+
+    public long get() {
+        return calls.get();
+    }
+}
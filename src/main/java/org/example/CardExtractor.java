@@ -0,0 +1,211 @@
+package org.example;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Reads the property cards on the results page.
+// BATCH pulls every card in one executeScript, ELEMENT is the old per-field path (~6 calls per card),
+// NETWORK parses the captured search JSON (see NetworkCapture) and falls back to BATCH. COMPARE runs
+// BATCH and ELEMENT on the same page and reports every field where the two disagree, then returns BATCH.
+public class CardExtractor {
+
+    public enum Mode {
+        BATCH, ELEMENT, NETWORK, COMPARE;
+
+        static Mode fromProperty() {
+            String v = System.getProperty("booking.extract", "batch");
+            try {
+                return Mode.valueOf(v.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.out.println("Unknown booking.extract=" + v + ", using batch");
+                return BATCH;
+            }
+        }
+    }
+
+    static final String CARD_CSS = "div[data-testid='property-card']";
+
+    private static final String BATCH_SCRIPT =
+            "const txt = (root, sel) => { const e = root.querySelector(sel); return e ? e.innerText.trim() : null; };" +
+            "return Array.from(document.querySelectorAll(\"" + CARD_CSS + "\")).slice(arguments[0] || 0).map(c => {" +
+            "  const img = c.querySelector('img');" +
+            "  const link = c.querySelector(\"a[data-testid='title-link']\") || c.querySelector('a[href]');" +
+            "  const all = (c.innerText || '').toLowerCase();" +
+            "  return {" +
+            "    name: txt(c, \"div[data-testid='title']\")," +
+            "    price: txt(c, \"span[data-testid='price-and-discounted-price']\")," +
+            "    rating: txt(c, \"div[aria-label*='Scored'], div[data-testid='review-score']\")," +
+            "    img: img ? img.src : null," +
+            "    breakfast: all.includes('breakfast included') || all.includes('breakfast')," +
+            "    freeCancellation: all.includes('free cancellation')," +
+            "    url: link ? link.href : null" +
+            "  };" +
+            "});";
+
+    public static List<HotelCard> extract(WebDriver driver, CallCounter calls, Mode mode) {
+        try (RunTrace.Step step = RunTrace.current().step("extract-cards")) {
+            try {
+                List<HotelCard> cards = extractWithFallback(driver, calls, mode, step);
+                if (cards.isEmpty()) step.outcome("miss");
+                Metrics.cards("browser", cards.size());
+                return cards;
+            } catch (Throwable e) {
+                step.failed(e);
+                throw e;
+            }
+        }
+    }
+
+    private static List<HotelCard> extractWithFallback(WebDriver driver, CallCounter calls, Mode mode, RunTrace.Step step) {
+        if (mode == Mode.ELEMENT) {
+            return timed("element", calls, () -> extractPerElement(driver));
+        }
+        if (mode == Mode.NETWORK) {
+            try {
+                List<HotelCard> net = timed("network", calls, () -> NetworkCapture.hotels(driver));
+                if (!net.isEmpty()) return net;
+                System.out.println("No hotels in captured network payloads, reading the DOM");
+            } catch (Exception e) {
+                System.out.println("Network extraction failed (" + e.getMessage() + "), reading the DOM");
+            }
+            step.outcome("fallback");
+        }
+        if (mode == Mode.COMPARE) {
+            try { NetworkCapture.compareCards(driver, calls); } catch (Exception ignored) {}
+        }
+
+        List<HotelCard> batch;
+        try {
+            batch = timed("batch", calls, () -> extractBatch(driver));
+        } catch (Exception e) {
+            System.out.println("Batch extraction failed (" + e.getMessage() + "), falling back to per-element");
+            step.outcome("fallback");
+            return timed("element", calls, () -> extractPerElement(driver));
+        }
+
+        if (mode == Mode.COMPARE || batch.isEmpty()) {
+            List<HotelCard> perElement = timed("element", calls, () -> extractPerElement(driver));
+            if (batch.isEmpty()) {
+                step.outcome("fallback");
+                return perElement;
+            }
+            if (compare(batch, perElement) > 0) step.outcome("mismatch");
+        }
+        return batch;
+    }
+
+    // Cards in page order from both paths; prints each differing field, returns the number of differences
+    static int compare(List<HotelCard> batch, List<HotelCard> perElement) {
+        int diffs = 0;
+        if (batch.size() != perElement.size()) {
+            System.out.println("Compare: batch read " + batch.size() + " cards, per-element " + perElement.size());
+            diffs++;
+        }
+        for (int i = 0; i < Math.min(batch.size(), perElement.size()); i++) {
+            HotelCard b = batch.get(i), e = perElement.get(i);
+            diffs += differs(i, "name", b.name(), e.name())
+                    + differs(i, "price", b.price(), e.price())
+                    + differs(i, "rating", b.rating(), e.rating())
+                    + differs(i, "imageUrl", b.imageUrl(), e.imageUrl())
+                    + differs(i, "url", b.url(), e.url())
+                    + differs(i, "breakfastIncluded", b.breakfastIncluded(), e.breakfastIncluded())
+                    + differs(i, "freeCancellation", b.freeCancellation(), e.freeCancellation());
+        }
+        System.out.println("Compare: " + (diffs == 0 ? "batch and per-element cards identical" : diffs + " differences"));
+        return diffs;
+    }
+
+    private static int differs(int card, String field, Object batch, Object perElement) {
+        if (String.valueOf(batch).equals(String.valueOf(perElement))) return 0;
+        System.out.println("  card " + card + " " + field + ": batch=" + batch + " per-element=" + perElement);
+        return 1;
+    }
+
+    // The crawler's read of one more page or "Load more" batch, traced and counted like extract()
+    static List<HotelCard> extract(WebDriver driver, int fromIndex) {
+        try (RunTrace.Step step = RunTrace.current().step("extract-cards")) {
+            try {
+                List<HotelCard> cards = extractBatch(driver, fromIndex);
+                if (cards.isEmpty()) step.outcome("miss");
+                Metrics.cards("browser", cards.size());
+                return cards;
+            } catch (Throwable e) {
+                step.failed(e);
+                throw e;
+            }
+        }
+    }
+
+    static List<HotelCard> extractBatch(WebDriver driver) {
+        return extractBatch(driver, 0);
+    }
+
+    // Cards from index fromIndex on, so infinite-scroll batches don't re-read what was already seen
+    static List<HotelCard> extractBatch(WebDriver driver, int fromIndex) {
+        Object raw = ((JavascriptExecutor) driver).executeScript(BATCH_SCRIPT, fromIndex);
+        List<HotelCard> out = new ArrayList<>();
+        if (!(raw instanceof List<?> rows)) return out;
+
+        for (Object row : rows) {
+            if (!(row instanceof Map<?, ?> m)) continue;
+            out.add(new HotelCard(
+                    orElse(m.get("name"), "N/A"),
+                    orElse(m.get("price"), "Price not visible"),
+                    orElse(m.get("rating"), "Rating not available"),
+                    orElse(m.get("img"), "Image not found"),
+                    Boolean.TRUE.equals(m.get("breakfast")),
+                    Boolean.TRUE.equals(m.get("freeCancellation")),
+                    orElse(m.get("url"), "")
+            ));
+        }
+        return out;
+    }
+
+    static List<HotelCard> extractPerElement(WebDriver driver) {
+        List<HotelCard> out = new ArrayList<>();
+        for (WebElement hotel : driver.findElements(By.cssSelector(CARD_CSS))) {
+            String name = Main.getTextSafe(hotel, By.cssSelector("div[data-testid='title']"), "N/A");
+            String price = Main.getTextSafe(hotel, By.cssSelector("span[data-testid='price-and-discounted-price']"), "Price not visible");
+            String rating = Main.getTextSafe(hotel,
+                    By.cssSelector("div[aria-label*='Scored'], div[data-testid='review-score']"),
+                    "Rating not available"
+            );
+            String img = Main.getAttrSafe(hotel, By.cssSelector("img"), "src", "Image not found");
+            // title link first, like the batch script (a selector list would take the first anchor in the card)
+            String url = Main.getAttrSafe(hotel, By.cssSelector("a[data-testid='title-link']"), "href", "");
+            if (url.isEmpty()) url = Main.getAttrSafe(hotel, By.cssSelector("a[href]"), "href", "");
+
+            String cardText = "";
+            try { cardText = hotel.getText().toLowerCase(); } catch (Exception ignored) {}
+
+            boolean breakfastIncluded = cardText.contains("breakfast included") || cardText.contains("breakfast");
+            boolean freeCancellation = cardText.contains("free cancellation");
+
+            out.add(new HotelCard(name, price, rating, img, breakfastIncluded, freeCancellation, url));
+        }
+        return out;
+    }
+
+    private static List<HotelCard> timed(String label, CallCounter calls, Supplier<List<HotelCard>> body) {
+        long c0 = calls.get();
+        long t0 = System.nanoTime();
+        List<HotelCard> cards = body.get();
+        long ms = (System.nanoTime() - t0) / 1_000_000;
+        System.out.println("Card extraction [" + label + "]: " + cards.size() + " cards, "
+                + (calls.get() - c0) + " WebDriver calls, " + ms + " ms");
+        return cards;
+    }
+
+    private static String orElse(Object v, String fallback) {
+        if (v == null) return fallback;
+        String s = v.toString().trim();
+        return s.isBlank() ? fallback : s;
+    }
+}
@@ -0,0 +1,163 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Base of the file sinks: records are encoded into one direct buffer that goes to the FileChannel when it
+// fills up, and at the latest every flushEvery from a background timer, so a consumer tailing the file
+// sees a slow crawl's hotels as they arrive. close() forces the file to disk. All writes hold the sink's
+// lock, so hotels and rooms from different threads land as whole records.
+abstract class ChannelSink implements ResultSink {
+
+    private final Path file;
+    private final String format;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final ScheduledExecutorService flusher;
+    private boolean closed;
+
+    private long hotels, rooms, written, flushes;
+
+    ChannelSink(Path file, String format, int bufferBytes, Duration flushEvery) throws IOException {
+        this.file = file;
+        this.format = format;
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocateDirect(Math.max(4096, bufferBytes));
+        this.flusher = Executors.newSingleThreadScheduledExecutor(Threads.factory("sink-flush", Threads.Mode.PLATFORM));
+        long ms = Math.max(10, flushEvery.toMillis());
+        flusher.scheduleWithFixedDelay(this::timedFlush, ms, ms, TimeUnit.MILLISECONDS);
+    }
+
+    // Subclasses encode one record with the put* methods; called under the sink's lock
+    abstract void writeHotel(HotelCard hotel) throws IOException;
+
+    abstract void writeRooms(HotelCard hotel, List<Main.RoomInfo> rooms) throws IOException;
+
+    // Hook for sinks that hold back a partial block until flush; called under the sink's lock
+    void beforeFlush() throws IOException {}
+
+    @Override
+    public final synchronized void hotel(HotelCard hotel) {
+        checkOpen();
+        try {
+            writeHotel(hotel);
+            hotels++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public final synchronized void rooms(HotelCard hotel, List<Main.RoomInfo> list) {
+        checkOpen();
+        try {
+            writeRooms(hotel, list);
+            rooms += list.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public final synchronized void flush() {
+        if (closed) return;
+        try {
+            beforeFlush();
+            drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void timedFlush() {
+        try {
+            flush();
+        } catch (UncheckedIOException e) {
+            System.out.println("Output flush failed for " + file + ": " + e.getCause().getMessage());
+        }
+    }
+
+    @Override
+    public final synchronized void close() {
+        if (closed) return;
+        flusher.shutdownNow();
+        try {
+            beforeFlush();
+            drain();
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            closed = true;
+            try { channel.close(); } catch (IOException ignored) {}
+        }
+    }
+
+    @Override
+    public synchronized String stats() {
+        return String.format("Output [%s]: %d hotels, %d rooms, %d KB in %d writes -> %s",
+                format, hotels, rooms, (written + buffer.position()) / 1024, flushes, file);
+    }
+
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException("sink closed: " + file);
+    }
+
+    // ---------------- ENCODING ----------------
+
+    // String.getBytes has fast paths for Latin-1 strings; encoding through a CharsetEncoder made NDJSON ~20% slower
+    final void put(CharSequence s) throws IOException {
+        byte[] b = s.toString().getBytes(StandardCharsets.UTF_8);
+        put(b, 0, b.length);
+    }
+
+    final void put(byte[] src, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (!buffer.hasRemaining()) drain();
+            int n = Math.min(length, buffer.remaining());
+            buffer.put(src, offset, n);
+            offset += n;
+            length -= n;
+        }
+    }
+
+    final void putByte(int b) throws IOException {
+        if (buffer.remaining() < 1) drain();
+        buffer.put((byte) b);
+    }
+
+    final void putShort(int v) throws IOException {
+        if (buffer.remaining() < 2) drain();
+        buffer.putShort((short) v);
+    }
+
+    final void putInt(int v) throws IOException {
+        if (buffer.remaining() < 4) drain();
+        buffer.putInt(v);
+    }
+
+    final void putLong(long v) throws IOException {
+        if (buffer.remaining() < 8) drain();
+        buffer.putLong(v);
+    }
+
+    private void drain() throws IOException {
+        if (buffer.position() == 0) return;
+        buffer.flip();
+        while (buffer.hasRemaining()) written += channel.write(buffer);
+        buffer.clear();
+        flushes++;
+    }
+}
@@ -0,0 +1,299 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Hotels and rooms column-wise, in blocks of up to blockRows rows (fewer when a timed flush cuts a block
+// short). Only the current block is held in memory: prices in minor units, rating tenths and flags as
+// primitive arrays, text packed into UTF-8 arenas, so a 100k-hotel crawl never has a String per field
+// on the heap. Layout, big-endian:
+//   file   = "BKCOL" 0 0 1, block*
+//   block  = kind byte ('H' hotels / 'R' rooms), int rows, byte columns, column*
+//   column = short nameLength, UTF-8 name, type byte, values
+//     'L' rows longs | 'S' rows shorts | 'B' rows bytes | 'T' int dataLength, rows int end offsets, UTF-8 data
+// Every column is length-prefixed, so a reader can pull price_minor without decoding names and URLs.
+final class ColumnarSink extends ChannelSink {
+
+    static final byte[] MAGIC = {'B', 'K', 'C', 'O', 'L', 0, 0, 1};
+
+    private final int blockRows;
+    private HotelBlock hotels;
+    private RoomBlock rooms;
+
+    ColumnarSink(Path file, int bufferBytes, Duration flushEvery, int blockRows) throws IOException {
+        super(file, "columnar", bufferBytes, flushEvery);
+        this.blockRows = Math.max(1, blockRows);
+        this.hotels = new HotelBlock(this.blockRows);
+        this.rooms = new RoomBlock(this.blockRows);
+        put(MAGIC, 0, MAGIC.length);
+    }
+
+    @Override
+    void writeHotel(HotelCard h) throws IOException {
+        hotels.add(h);
+        if (hotels.size == blockRows) {
+            hotels.write(this);
+            hotels = new HotelBlock(blockRows);
+        }
+    }
+
+    @Override
+    void writeRooms(HotelCard hotel, List<Main.RoomInfo> list) throws IOException {
+        for (Main.RoomInfo r : list) {
+            rooms.add(hotel, r);
+            if (rooms.size == blockRows) {
+                rooms.write(this);
+                rooms = new RoomBlock(blockRows);
+            }
+        }
+    }
+
+    @Override
+    void beforeFlush() throws IOException {
+        if (hotels.size > 0) {
+            hotels.write(this);
+            hotels = new HotelBlock(blockRows);
+        }
+        if (rooms.size > 0) {
+            rooms.write(this);
+            rooms = new RoomBlock(blockRows);
+        }
+    }
+
+    static final class HotelBlock {
+        int size;
+        final Columns.Strings key = new Columns.Strings(), name = new Columns.Strings(), priceText = new Columns.Strings(),
+                currency = new Columns.Strings(), image = new Columns.Strings(), url = new Columns.Strings();
+        final long[] priceMinor, originalMinor, taxesMinor;
+        final short[] ratingTenths;
+        final byte[] flags;
+
+        HotelBlock(int rows) {
+            priceMinor = new long[rows];
+            originalMinor = new long[rows];
+            taxesMinor = new long[rows];
+            ratingTenths = new short[rows];
+            flags = new byte[rows];
+        }
+
+        void add(HotelCard h) {
+            Price p = PriceParser.parse(h.price());
+            key.add(h.propertyKey());
+            name.add(h.name());
+            priceText.add(h.price());
+            priceMinor[size] = p.amountMinor();
+            originalMinor[size] = p.originalMinor();
+            taxesMinor[size] = p.taxesMinor();
+            currency.add(p.known() ? p.currency() : "");
+            ratingTenths[size] = (short) h.ratingTenths();
+            flags[size] = h.flags();
+            image.add(h.imageUrl());
+            url.add(h.url());
+            size++;
+        }
+
+        void write(ColumnarSink out) throws IOException {
+            out.blockHeader('H', size, 11);
+            out.text("key", key);
+            out.text("name", name);
+            out.text("price", priceText);
+            out.longs("price_minor", priceMinor, size);
+            out.longs("original_minor", originalMinor, size);
+            out.longs("taxes_minor", taxesMinor, size);
+            out.text("currency", currency);
+            out.shorts("rating_tenths", ratingTenths, size);
+            out.bytes("flags", flags, size);
+            out.text("image", image);
+            out.text("url", url);
+        }
+    }
+
+    static final class RoomBlock {
+        int size;
+        final Columns.Strings hotel = new Columns.Strings(), roomType = new Columns.Strings(), priceText = new Columns.Strings(),
+                currency = new Columns.Strings(), occupancy = new Columns.Strings(), mealPlan = new Columns.Strings(),
+                cancellation = new Columns.Strings();
+        final long[] priceMinor, originalMinor, taxesMinor;
+
+        RoomBlock(int rows) {
+            priceMinor = new long[rows];
+            originalMinor = new long[rows];
+            taxesMinor = new long[rows];
+        }
+
+        void add(HotelCard h, Main.RoomInfo r) {
+            Price p = PriceParser.parse(r.price);
+            hotel.add(h.propertyKey());
+            roomType.add(r.roomType);
+            priceText.add(r.price);
+            priceMinor[size] = p.amountMinor();
+            originalMinor[size] = p.originalMinor();
+            taxesMinor[size] = p.taxesMinor();
+            currency.add(p.known() ? p.currency() : "");
+            occupancy.add(r.occupancy);
+            mealPlan.add(r.mealPlan);
+            cancellation.add(r.cancellation);
+            size++;
+        }
+
+        void write(ColumnarSink out) throws IOException {
+            out.blockHeader('R', size, 10);
+            out.text("hotel_key", hotel);
+            out.text("room_type", roomType);
+            out.text("price", priceText);
+            out.longs("price_minor", priceMinor, size);
+            out.longs("original_minor", originalMinor, size);
+            out.longs("taxes_minor", taxesMinor, size);
+            out.text("currency", currency);
+            out.text("occupancy", occupancy);
+            out.text("meal_plan", mealPlan);
+            out.text("cancellation", cancellation);
+        }
+    }
+
+    // ---------------- WRITING ----------------
+
+    private void blockHeader(char kind, int rows, int columns) throws IOException {
+        putByte(kind);
+        putInt(rows);
+        putByte(columns);
+    }
+
+    private void columnHeader(String name, char type) throws IOException {
+        byte[] b = name.getBytes(StandardCharsets.UTF_8);
+        putShort(b.length);
+        put(b, 0, b.length);
+        putByte(type);
+    }
+
+    private void longs(String name, long[] values, int rows) throws IOException {
+        columnHeader(name, 'L');
+        for (int i = 0; i < rows; i++) putLong(values[i]);
+    }
+
+    private void shorts(String name, short[] values, int rows) throws IOException {
+        columnHeader(name, 'S');
+        for (int i = 0; i < rows; i++) putShort(values[i]);
+    }
+
+    private void bytes(String name, byte[] values, int rows) throws IOException {
+        columnHeader(name, 'B');
+        put(values, 0, rows);
+    }
+
+    private void text(String name, Columns.Strings values) throws IOException {
+        columnHeader(name, 'T');
+        int rows = values.size();
+        int length = rows == 0 ? 0 : values.end(rows - 1);
+        putInt(length);
+        for (int i = 0; i < rows; i++) putInt(values.end(i));
+        put(values.data(), 0, length);
+    }
+
+    // ---------------- READING ----------------
+
+    // One decoded block: column name -> long[], short[], byte[] or String[]
+    record Block(char kind, int rows, Map<String, Object> columns) {}
+
+    // Streams the blocks of a file; `wanted` names the columns to decode (null = all), the rest are skipped
+    static void scan(Path file, List<String> wanted, Consumer<Block> consumer) throws IOException {
+        try (FileChannel ch = FileChannel.open(file)) {
+            MappedByteBuffer in = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            byte[] magic = new byte[MAGIC.length];
+            in.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) throw new IOException("not a columnar result file: " + file);
+            while (in.remaining() >= 6) {
+                char kind = (char) in.get();
+                int rows = in.getInt();
+                int columns = in.get();
+                Map<String, Object> out = new LinkedHashMap<>();
+                for (int c = 0; c < columns; c++) {
+                    byte[] nameBytes = new byte[in.getShort()];
+                    in.get(nameBytes);
+                    String name = new String(nameBytes, StandardCharsets.UTF_8);
+                    char type = (char) in.get();
+                    boolean decode = wanted == null || wanted.contains(name);
+                    Object values = readColumn(in, type, rows, decode);
+                    if (decode) out.put(name, values);
+                }
+                consumer.accept(new Block(kind, rows, out));
+            }
+        }
+    }
+
+    private static Object readColumn(ByteBuffer in, char type, int rows, boolean decode) throws IOException {
+        switch (type) {
+            case 'L' -> {
+                if (!decode) { in.position(in.position() + 8 * rows); return null; }
+                long[] v = new long[rows];
+                in.asLongBuffer().get(v);
+                in.position(in.position() + 8 * rows);
+                return v;
+            }
+            case 'S' -> {
+                if (!decode) { in.position(in.position() + 2 * rows); return null; }
+                short[] v = new short[rows];
+                in.asShortBuffer().get(v);
+                in.position(in.position() + 2 * rows);
+                return v;
+            }
+            case 'B' -> {
+                if (!decode) { in.position(in.position() + rows); return null; }
+                byte[] v = new byte[rows];
+                in.get(v);
+                return v;
+            }
+            case 'T' -> {
+                int length = in.getInt();
+                if (!decode) { in.position(in.position() + 4 * rows + length); return null; }
+                int[] ends = new int[rows];
+                in.asIntBuffer().get(ends);
+                in.position(in.position() + 4 * rows);
+                byte[] data = new byte[length];
+                in.get(data);
+                String[] v = new String[rows];
+                for (int i = 0, start = 0; i < rows; start = ends[i++]) {
+                    v[i] = new String(data, start, ends[i] - start, StandardCharsets.UTF_8);
+                }
+                return v;
+            }
+            default -> throw new IOException("unknown column type '" + type + "'");
+        }
+    }
+
+    // Usage: ColumnarSink <file.col> — row counts and the cheapest hotel, reading only the columns it needs
+    public static void main(String[] args) throws IOException {
+        Path file = Path.of(args[0]);
+        long[] counts = new long[2];
+        String[] cheapest = {null};
+        long[] best = {Long.MAX_VALUE};
+        scan(file, List.of("name", "price", "price_minor"), b -> {
+            if (b.kind() != 'H') {
+                counts[1] += b.rows();
+                return;
+            }
+            counts[0] += b.rows();
+            long[] minor = (long[]) b.columns().get("price_minor");
+            String[] names = (String[]) b.columns().get("name");
+            String[] prices = (String[]) b.columns().get("price");
+            for (int i = 0; i < b.rows(); i++) {
+                if (minor[i] >= 0 && minor[i] < best[0]) {
+                    best[0] = minor[i];
+                    cheapest[0] = names[i] + " (" + prices[i] + ")";
+                }
+            }
+        });
+        System.out.println(file + ": " + counts[0] + " hotels, " + counts[1] + " rooms"
+                + (cheapest[0] != null ? ", cheapest " + cheapest[0] : ""));
+    }
+}
@@ -0,0 +1,57 @@
+package org.example;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Building blocks for column storage (ColumnarSink blocks, PriceHistoryStore's key index): growable
+// primitive arrays and a UTF-8 string arena (one byte[] + offsets instead of one String object per value).
+final class Columns {
+
+    private Columns() {}
+
+    static int capacity(int current, int needed) {
+        return Math.max(needed, current + (current >> 1) + 16);
+    }
+
+    static long[] ensure(long[] a, int size) {
+        return size < a.length ? a : Arrays.copyOf(a, capacity(a.length, size + 1));
+    }
+
+    static int[] ensure(int[] a, int size) {
+        return size < a.length ? a : Arrays.copyOf(a, capacity(a.length, size + 1));
+    }
+
+    // Append-only strings packed end to end; value i is bytes [offsets[i], offsets[i + 1])
+    static final class Strings {
+        private byte[] data = new byte[1024];
+        private int[] offsets = new int[17];
+        private int size;
+
+        int add(String s) {
+            byte[] b = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+            int end = offsets[size];
+            if (end + b.length > data.length) data = Arrays.copyOf(data, capacity(data.length, end + b.length));
+            System.arraycopy(b, 0, data, end, b.length);
+            offsets = ensure(offsets, size + 1);
+            offsets[size + 1] = end + b.length;
+            return size++;
+        }
+
+        String get(int i) {
+            return new String(data, offsets[i], offsets[i + 1] - offsets[i], StandardCharsets.UTF_8);
+        }
+
+        int size() {
+            return size;
+        }
+
+        // End offset of value i in data(), for writing the arena out as is
+        int end(int i) {
+            return offsets[i + 1];
+        }
+
+        byte[] data() {
+            return data;
+        }
+    }
+}
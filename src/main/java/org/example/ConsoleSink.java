@@ -0,0 +1,60 @@
+package org.example;
+
+import java.util.List;
+
+// The original human-readable output, one block per hotel / room; the counts are printed by the caller.
+// Each record is built in one StringBuilder and printed with a single call, so concurrent writers
+// (fan-out workers, the crawl sink thread) never interleave lines.
+final class ConsoleSink implements ResultSink {
+
+    private long hotels, rooms;
+
+    @Override
+    public void hotel(HotelCard hotel) {
+        StringBuilder sb = new StringBuilder(256)
+                .append("Hotel: ").append(hotel.name()).append('\n')
+                .append("Price: ").append(hotel.price()).append('\n')
+                .append("Rating: ").append(hotel.rating()).append('\n')
+                .append("Breakfast Included: ").append(hotel.breakfastIncluded() ? "YES" : "NO/NOT SHOWN").append('\n')
+                .append("Free Cancellation: ").append(hotel.freeCancellation() ? "YES" : "NO/NOT SHOWN").append('\n')
+                .append("Image: ").append(hotel.imageUrl()).append('\n')
+                .append("----------------------------------");
+        synchronized (this) {
+            System.out.println(sb);
+            hotels++;
+        }
+    }
+
+    @Override
+    public void rooms(HotelCard hotel, List<Main.RoomInfo> list) {
+        if (list.isEmpty()) return;
+        StringBuilder sb = new StringBuilder(128 * list.size());
+        for (Main.RoomInfo r : list) {
+            if (sb.length() > 0) sb.append('\n');
+            sb.append("Room: ").append(r.roomType).append("\nPrice: ").append(r.price);
+            if (!r.occupancy.isBlank()) sb.append("\nOccupancy: ").append(r.occupancy);
+            if (!r.mealPlan.isBlank()) sb.append("\nMeal plan: ").append(r.mealPlan);
+            if (!r.cancellation.isBlank()) sb.append("\nCancellation: ").append(r.cancellation);
+            sb.append("\n------------------------------");
+        }
+        synchronized (this) {
+            System.out.println(sb);
+            rooms += list.size();
+        }
+    }
+
+    @Override
+    public void flush() {
+        System.out.flush();
+    }
+
+    @Override
+    public synchronized String stats() {
+        return "Output [console]: " + hotels + " hotels, " + rooms + " rooms";
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+}
@@ -0,0 +1,80 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+// RFC 4180 CSV, hotels and rooms in one file told apart by the first column; fields that do not apply
+// to a record are empty. Amounts are minor units; the price text is kept for anything PriceParser missed.
+final class CsvSink extends ChannelSink {
+
+    static final String HEADER = "record,hotel_key,name,room_type,price,price_minor,currency,rating_tenths,"
+            + "breakfast,free_cancellation,occupancy,meal_plan,cancellation,image,url\r\n";
+
+    private final StringBuilder line = new StringBuilder(512);
+
+    CsvSink(Path file, int bufferBytes, Duration flushEvery) throws IOException {
+        super(file, "csv", bufferBytes, flushEvery);
+        put(HEADER);
+    }
+
+    @Override
+    void writeHotel(HotelCard h) throws IOException {
+        Price p = PriceParser.parse(h.price());
+        int rating = h.ratingTenths();
+        line.setLength(0);
+        line.append("hotel,");
+        field(h.propertyKey()).append(',');
+        field(h.name()).append(",,");
+        field(h.price()).append(',');
+        price(p);
+        line.append(rating < 0 ? "" : String.valueOf(rating)).append(',')
+                .append(h.breakfastIncluded()).append(',')
+                .append(h.freeCancellation()).append(",,,,");
+        field(h.imageUrl()).append(',');
+        field(h.url()).append("\r\n");
+        put(line);
+    }
+
+    @Override
+    void writeRooms(HotelCard hotel, List<Main.RoomInfo> rooms) throws IOException {
+        for (Main.RoomInfo r : rooms) {
+            line.setLength(0);
+            line.append("room,");
+            field(hotel.propertyKey()).append(',');
+            field(hotel.name()).append(',');
+            field(r.roomType).append(',');
+            field(r.price).append(',');
+            price(PriceParser.parse(r.price));
+            line.append(",,").append(r.freeCancellation()).append(',');
+            field(r.occupancy).append(',');
+            field(r.mealPlan).append(',');
+            field(r.cancellation).append(",,\r\n");
+            put(line);
+        }
+    }
+
+    // price_minor,currency,
+    private void price(Price p) {
+        if (p.known()) line.append(p.amountMinor()).append(',').append(p.currency()).append(',');
+        else line.append(",,");
+    }
+
+    private StringBuilder field(String s) {
+        if (s == null || s.isEmpty()) return line;
+        boolean quote = false;
+        for (int i = 0; i < s.length() && !quote; i++) {
+            char c = s.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) return line.append(s);
+        line.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"') line.append('"');
+            line.append(c);
+        }
+        return line.append('"');
+    }
+}
@@ -0,0 +1,122 @@
+package org.example;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+// Picks check-in and check-out in one executeAsyncScript instead of a "Next month" click, overlay sweep
+// and visibility wait per month. The script reads the first month on screen from the calendar's data-date
+// cells, clicks "Next month" as often as the check-in month needs in one burst, polls until the day cell
+// renders, clicks it, then does the same for check-out (usually already in view, so no clicks at all).
+// Cost is one round-trip however far ahead the stay is. On failure the caller falls back to month-by-month
+// for the dates still missing (Result.picked: 0 none, 1 check-in only, 2 both).
+//   -Dbooking.datePick=jump|click (jump)
+public class DateRangePicker {
+
+    public record Result(boolean ok, int picked, int nextClicks, long millis, String error) {
+        public boolean checkInPicked() {
+            return picked >= 1;
+        }
+    }
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final int MAX_MONTHS = 24;
+
+    private static final String SCRIPT =
+            "const done = arguments[arguments.length - 1];" +
+            "const from = arguments[0], to = arguments[1], maxMs = arguments[2], maxMonths = arguments[3];" +
+            "const CAL = \"[data-testid='searchbox-datepicker-calendar'], div[role='dialog']\";" +
+            "const NEXT = \"button[aria-label*='Next month'], button[data-testid='calendar-next']\";" +
+            "const cell = d => document.querySelector(\"span[data-date='\" + d + \"'], td[data-date='\" + d + \"']\");" +
+            "const month = d => { const p = d.split('-'); return +p[0] * 12 + (+p[1] - 1); };" +
+            "const shown = () => {" +
+            "  const c = document.querySelector(CAL); const f = c && c.querySelector('[data-date]');" +
+            "  return f ? month(f.getAttribute('data-date')) : -1;" +
+            "};" +
+            "const t0 = performance.now(); let clicks = 0, picked = 0;" +
+            "const finish = (ok, error) => done({ ok: ok, picked: picked, clicks: clicks, ms: Math.round(performance.now() - t0), error: error || null });" +
+            "const next = n => { const b = document.querySelector(NEXT); if (!b) return false;" +
+            "  for (let i = 0; i < n; i++) { b.click(); clicks++; } return true; };" +
+            "const pick = (date, then) => {" +
+            "  const first = shown();" +
+            "  if (first < 0) return finish(false, 'calendar not open');" +
+            "  if (month(date) < first) return finish(false, 'month before the calendar: ' + date);" +
+            // Two months are usually on screen, so the target may already be visible one month early
+            "  let expect = first;" +
+            "  if (!cell(date)) {" +
+            "    const n = Math.max(1, month(date) - first - 1);" +
+            "    if (!next(n)) return finish(false, 'no next-month button');" +
+            "    expect += n;" +
+            "  }" +
+            // Rendering may lag the clicks: only step further once the calendar has caught up
+            "  const poll = () => {" +
+            "    const c = cell(date);" +
+            "    if (c) { c.click(); picked++; return then(); }" +
+            "    if (performance.now() - t0 >= maxMs) return finish(false, 'date not found: ' + date);" +
+            "    if (shown() >= expect && clicks < maxMonths && next(1)) expect++;" +
+            "    setTimeout(poll, 25);" +
+            "  };" +
+            "  poll();" +
+            "};" +
+            "pick(from, () => pick(to, () => finish(true)));";
+
+    public enum Mode {
+        JUMP, CLICK;
+
+        static Mode fromProperty() {
+            String v = System.getProperty("booking.datePick", "jump");
+            try {
+                return Mode.valueOf(v.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.out.println("Unknown booking.datePick=" + v + ", using jump");
+                return JUMP;
+            }
+        }
+    }
+
+    // The calendar must already be open
+    public static Result pick(WebDriver driver, LocalDate checkIn, LocalDate checkOut, Duration timeout) {
+        long t0 = System.nanoTime();
+        try (RunTrace.Step step = RunTrace.current().step("pick-dates")) {
+            Result result;
+            try {
+                // Script timeout must outlive the in-page timeout or Selenium gives up first
+                WebDriver.Timeouts timeouts = driver.manage().timeouts();
+                Duration previous = timeouts.getScriptTimeout();
+                timeouts.scriptTimeout(timeout.plusSeconds(2));
+                Object raw;
+                try {
+                    raw = ((JavascriptExecutor) driver).executeAsyncScript(SCRIPT,
+                            checkIn.format(DATE), checkOut.format(DATE), timeout.toMillis(), MAX_MONTHS);
+                } finally {
+                    timeouts.scriptTimeout(previous);
+                }
+                if (raw instanceof Map<?, ?> m) {
+                    result = new Result(Boolean.TRUE.equals(m.get("ok")), asInt(m.get("picked")), asInt(m.get("clicks")), elapsedMs(t0),
+                            m.get("error") == null ? null : String.valueOf(m.get("error")));
+                } else {
+                    result = new Result(false, 0, 0, elapsedMs(t0), "script returned " + raw);
+                }
+            } catch (Exception e) {
+                // The script may have clicked check-in before failing: unknown, so the caller redoes both
+                result = new Result(false, 0, 0, elapsedMs(t0), e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+            step.outcome(result.ok() ? "jump-x" + result.nextClicks() : result.checkInPicked() ? "partial" : "miss");
+            System.out.println("Dates [jump]: " + result.millis() + " ms, " + result.nextClicks() + " month clicks"
+                    + (result.ok() ? "" : " (failed: " + result.error() + ")"));
+            return result;
+        }
+    }
+
+    private static int asInt(Object v) {
+        return v instanceof Number n ? n.intValue() : 0;
+    }
+
+    private static long elapsedMs(long t0) {
+        return (System.nanoTime() - t0) / 1_000_000;
+    }
+}
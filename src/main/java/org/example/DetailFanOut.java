@@ -0,0 +1,295 @@
+package org.example;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Fetches hotel detail pages concurrently: `drivers` browser sessions, each loading up to `tabsPerDriver`
+// pages at once in named tabs (window.open returns immediately, so the tabs load in parallel and are then
+// read one by one). A global semaphore caps pages in flight; failed pages are retried up to `retries` times.
+// With -Dbooking.staticHtml=true every page is first fetched without a browser (StaticHtmlExtractor); only
+// the misses go to the drivers, and none are started when there are no misses.
+public class DetailFanOut {
+
+    public record Config(int drivers, int tabsPerDriver, int maxInFlight, int retries, Duration pageTimeout) {
+
+        // -Dbooking.fanOutDrivers (2), -Dbooking.fanOutTabs (4), -Dbooking.fanOutInFlight (drivers*tabs),
+        // -Dbooking.fanOutRetries (2), -Dbooking.fanOutTimeoutSec (20)
+        public static Config fromProperties() {
+            int drivers = Integer.getInteger("booking.fanOutDrivers", 2);
+            int tabs = Integer.getInteger("booking.fanOutTabs", 4);
+            return new Config(drivers, tabs,
+                    Integer.getInteger("booking.fanOutInFlight", drivers * tabs),
+                    Integer.getInteger("booking.fanOutRetries", 2),
+                    Duration.ofSeconds(Integer.getInteger("booking.fanOutTimeoutSec", 20)));
+        }
+    }
+
+    public record HotelDetail(HotelCard hotel, List<Main.RoomInfo> rooms, int attempts, String error) {
+        public boolean ok() {
+            return error == null;
+        }
+    }
+
+    private static final class Task {
+        final int index;
+        final HotelCard hotel;
+        int attempts;
+        String window;
+        RuntimeException openError;
+
+        Task(int index, HotelCard hotel) {
+            this.index = index;
+            this.hotel = hotel;
+        }
+    }
+
+    private static final String READY_SCRIPT =
+            "return document.readyState === 'complete'" +
+            " || !!document.querySelector(\"#hprt-table, [data-testid='room-card'], #availability\");";
+
+    private final Config config;
+    private final DriverPool pool;
+
+    // One detail page for callers that do not batch tabs: static HTML when enabled, else the driver's current tab
+    static List<Main.RoomInfo> fetchOne(WebDriver driver, HotelCard hotel, Duration timeout) {
+        Optional<List<Main.RoomInfo>> rooms = staticRooms(hotel);
+        return rooms.isPresent() ? rooms.get() : loadOne(driver, hotel, timeout);
+    }
+
+    // Empty when static extraction is off or the page needs a browser
+    static Optional<List<Main.RoomInfo>> staticRooms(HotelCard hotel) {
+        if (!StaticHtmlExtractor.enabled()) return Optional.empty();
+        return StaticHtmlExtractor.shared().tryRooms(hotel.url());
+    }
+
+    static List<Main.RoomInfo> loadOne(WebDriver driver, HotelCard hotel, Duration timeout) {
+        if (hotel.url() == null || hotel.url().isBlank()) throw new IllegalStateException("hotel has no link");
+        driver.get(hotel.url());
+        WebDriverWait wait = new WebDriverWait(driver, timeout);
+        wait.pollingEvery(Duration.ofMillis(100));
+        wait.until(d -> Boolean.TRUE.equals(((JavascriptExecutor) d).executeScript(READY_SCRIPT)));
+        return Main.extractRoomsAndPrices(driver);
+    }
+
+    public DetailFanOut(Config config, DriverPool pool) {
+        this.config = config;
+        this.pool = pool;
+    }
+
+    // One-shot: a private pool of lean drivers for this fan-out only
+    public static List<HotelDetail> fetchAll(List<HotelCard> hotels, Config config) throws InterruptedException {
+        return fetchAll(hotels, config, d -> {});
+    }
+
+    public static List<HotelDetail> fetchAll(List<HotelCard> hotels, Config config, Consumer<HotelDetail> onDone) throws InterruptedException {
+        try (DriverPool pool = new DriverPool(Math.max(1, config.drivers()), Integer.MAX_VALUE, Drivers::lean)) {
+            return new DetailFanOut(config, pool).fetch(hotels, onDone);
+        }
+    }
+
+    public List<HotelDetail> fetch(List<HotelCard> hotels) throws InterruptedException {
+        return fetch(hotels, d -> {});
+    }
+
+    // onDone sees each hotel as soon as it is final (fetched, or out of retries), on the worker's thread
+    public List<HotelDetail> fetch(List<HotelCard> hotels, Consumer<HotelDetail> onDone) throws InterruptedException {
+        long t0 = System.nanoTime();
+        Map<Integer, HotelDetail> done = new ConcurrentHashMap<>();
+        LinkedBlockingQueue<Task> queue = new LinkedBlockingQueue<>();
+        for (int i = 0; i < hotels.size(); i++) {
+            if (!hotels.get(i).url().isBlank()) queue.add(new Task(i, hotels.get(i)));
+        }
+        if (StaticHtmlExtractor.enabled()) queue = staticPass(queue, done, onDone);
+
+        AtomicInteger remaining = new AtomicInteger(queue.size());
+        AtomicInteger retried = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(Math.max(1, config.maxInFlight()));
+        int workers = Math.min(Math.max(1, config.drivers()), queue.size());
+        CountDownLatch finished = new CountDownLatch(workers);
+        LinkedBlockingQueue<Task> pending = queue;
+
+        ThreadFactory threads = Threads.factory("detail-fanout");
+        for (int w = 0; w < workers; w++) {
+            int workerId = w;
+            threads.newThread(() -> {
+                try {
+                    work(workerId, pending, done, remaining, retried, inFlight, onDone);
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    // Driver could not start (or died between batches): the other workers drain the queue
+                    System.out.println("Fan-out worker " + workerId + " stopped: " + e.getMessage());
+                } finally {
+                    finished.countDown();
+                }
+            }).start();
+        }
+        finished.await();
+
+        long ms = Math.max(1, (System.nanoTime() - t0) / 1_000_000);
+        List<HotelDetail> out = new ArrayList<>();
+        int ok = 0;
+        for (int i = 0; i < hotels.size(); i++) {
+            HotelDetail d = done.get(i);
+            if (d == null) d = new HotelDetail(hotels.get(i), List.of(), 0, hotels.get(i).url().isBlank() ? "no property URL" : "not fetched");
+            if (d.ok()) ok++;
+            out.add(d);
+        }
+        System.out.println(String.format("Detail fan-out: %d/%d hotels in %d ms (%.1f hotels/min), retries=%d, drivers=%d, tabs/driver=%d",
+                ok, hotels.size(), ms, ok * 60_000.0 / ms, retried.get(), workers, config.tabsPerDriver()));
+        return out;
+    }
+
+    // Every page over plain HTTP, maxInFlight at a time; returns the tasks that still need a browser
+    private LinkedBlockingQueue<Task> staticPass(LinkedBlockingQueue<Task> tasks, Map<Integer, HotelDetail> done,
+                                                 Consumer<HotelDetail> onDone) throws InterruptedException {
+        LinkedBlockingQueue<Task> misses = new LinkedBlockingQueue<>();
+        ExecutorService executor = Threads.executor("detail-static", Math.min(Math.max(1, config.maxInFlight()), tasks.size()));
+        try {
+            for (Task task : tasks) {
+                executor.execute(() -> {
+                    Optional<List<Main.RoomInfo>> rooms = staticRooms(task.hotel);
+                    if (rooms.isPresent()) finish(done, onDone, task.index, new HotelDetail(task.hotel, rooms.get(), 1, null));
+                    else misses.add(task);
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        System.out.println("Detail fan-out: " + (tasks.size() - misses.size()) + "/" + tasks.size()
+                + " hotels from static HTML, " + misses.size() + " left for the browser");
+        return misses;
+    }
+
+    private void work(int workerId, LinkedBlockingQueue<Task> queue, Map<Integer, HotelDetail> done,
+                      AtomicInteger remaining, AtomicInteger retried, Semaphore inFlight,
+                      Consumer<HotelDetail> onDone) throws InterruptedException {
+        DriverPool.Lease lease = pool.acquire();
+        int seq = 0;
+        try {
+            while (remaining.get() > 0) {
+                List<Task> batch = new ArrayList<>();
+                Task first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                inFlight.acquire();
+                batch.add(first);
+                // Fill the remaining tabs only while global capacity is free; never block holding open tabs
+                Task next;
+                while (batch.size() < config.tabsPerDriver() && (next = queue.poll()) != null) {
+                    if (!inFlight.tryAcquire()) {
+                        queue.add(next);
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                WebDriver driver = lease.driver();
+                String base;
+                try {
+                    base = driver.getWindowHandle();
+                } catch (RuntimeException e) {
+                    // Session gone before any tab opened: the batch counts as one attempt each, permits go back
+                    for (Task task : batch) {
+                        task.attempts++;
+                        retryOrFail(task, e, queue, done, remaining, retried, onDone);
+                        inFlight.release();
+                    }
+                    pool.release(lease, true);
+                    lease = null;
+                    lease = pool.acquire();
+                    continue;
+                }
+                JavascriptExecutor js = (JavascriptExecutor) driver;
+                for (Task task : batch) {
+                    task.attempts++;
+                    task.window = "bk-detail-" + workerId + "-" + (seq++);
+                    try {
+                        js.executeScript("window.open(arguments[0], arguments[1]);", task.hotel.url(), task.window);
+                        Metrics.pages("browser", 1);
+                    } catch (RuntimeException e) {
+                        task.openError = e;
+                    }
+                }
+
+                for (Task task : batch) {
+                    try {
+                        List<Main.RoomInfo> rooms = readTab(driver, task);
+                        finish(done, onDone, task.index, new HotelDetail(task.hotel, rooms, task.attempts, null));
+                        remaining.decrementAndGet();
+                    } catch (Exception e) {
+                        retryOrFail(task, e, queue, done, remaining, retried, onDone);
+                    } finally {
+                        inFlight.release();
+                        try { driver.switchTo().window(base); } catch (Exception ignored) {}
+                    }
+                }
+
+                if (!DriverPool.isAlive(driver)) {
+                    pool.release(lease, true);
+                    lease = null;
+                    lease = pool.acquire();
+                }
+            }
+        } finally {
+            if (lease != null) pool.release(lease, !DriverPool.isAlive(lease.driver()));
+        }
+    }
+
+    private void retryOrFail(Task task, Exception e, LinkedBlockingQueue<Task> queue, Map<Integer, HotelDetail> done,
+                             AtomicInteger remaining, AtomicInteger retried, Consumer<HotelDetail> onDone) {
+        if (e instanceof TimeoutException) Metrics.timeout("detail-page");
+        if (task.attempts <= config.retries()) {
+            retried.incrementAndGet();
+            Metrics.DETAIL_RETRIES.inc();
+            queue.add(task);
+        } else {
+            finish(done, onDone, task.index, new HotelDetail(task.hotel, List.of(), task.attempts,
+                    e.getClass().getSimpleName() + ": " + e.getMessage()));
+            remaining.decrementAndGet();
+        }
+    }
+
+    private static void finish(Map<Integer, HotelDetail> done, Consumer<HotelDetail> onDone, int index, HotelDetail detail) {
+        done.put(index, detail);
+        try {
+            onDone.accept(detail);
+        } catch (RuntimeException e) {
+            System.out.println("Detail consumer failed for " + detail.hotel().name() + ": " + e.getMessage());
+        }
+    }
+
+    private List<Main.RoomInfo> readTab(WebDriver driver, Task task) {
+        if (task.openError != null) {
+            RuntimeException e = task.openError;
+            task.openError = null;
+            throw e;
+        }
+        driver.switchTo().window(task.window);
+        try {
+            WebDriverWait wait = new WebDriverWait(driver, config.pageTimeout());
+            wait.pollingEvery(Duration.ofMillis(100));
+            wait.until(d -> Boolean.TRUE.equals(((JavascriptExecutor) d).executeScript(READY_SCRIPT)));
+            return Main.extractRoomsAndPrices(driver);
+        } finally {
+            try { driver.close(); } catch (Exception ignored) {}
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.example;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.time.Duration;
+import java.util.Map;
+
+// "Wait until the page is quiet" instead of fixed sleeps.
+// arm() before the action: it hooks fetch/XHR (an in-flight counter), starts a MutationObserver that tracks
+// the last DOM change and notes the card count, so requests and mutations the action causes are seen even
+// if they finish before await() runs. await() is one executeAsyncScript that resolves once both have been
+// idle for the quiet window (and, for awaitCards, the card count has changed), or at the timeout.
+// Navigations replace the document, so arm() cannot cover them; install() registers the fetch/XHR hook for
+// every later document of the tab (CDP) and await() arms itself when nothing was armed.
+public class DomSettle {
+
+    public static final Duration QUIET = Duration.ofMillis(200);
+
+    public record Result(boolean settled, long millis, long cardsBefore, long cardsAfter) {}
+
+    private static final String HOOK =
+            "if (!window.__bkPending) {" +
+            "  const p = window.__bkPending = { n: 0 };" +
+            "  if (window.fetch) {" +
+            "    const f = window.fetch;" +
+            "    window.fetch = function () { p.n++; return f.apply(this, arguments).finally(() => p.n--); };" +
+            "  }" +
+            "  const send = XMLHttpRequest.prototype.send;" +
+            "  XMLHttpRequest.prototype.send = function () {" +
+            "    p.n++; this.addEventListener('loadend', () => p.n--, { once: true });" +
+            "    return send.apply(this, arguments);" +
+            "  };" +
+            "}";
+
+    private static final String ARM =
+            HOOK +
+            "const cards = () => document.querySelectorAll(\"" + CardExtractor.CARD_CSS + "\").length;" +
+            "const arm = () => {" +
+            "  const s = window.__bkSettle || (window.__bkSettle = {});" +
+            "  if (s.obs) s.obs.disconnect();" +
+            "  s.last = performance.now(); s.cards = cards();" +
+            "  s.obs = new MutationObserver(() => { s.last = performance.now(); });" +
+            "  s.obs.observe(document.documentElement, { subtree: true, childList: true, attributes: true, characterData: true });" +
+            "  return s;" +
+            "};";
+
+    private static final String SCRIPT =
+            "const done = arguments[arguments.length - 1];" +
+            "const quietMs = arguments[0], maxMs = arguments[1], wantCards = arguments[2];" +
+            ARM +
+            "const s = window.__bkSettle && window.__bkSettle.obs ? window.__bkSettle : arm();" +
+            "const before = s.cards;" +
+            "const t0 = performance.now();" +
+            "const finish = (settled) => { s.obs.disconnect(); s.obs = null;" +
+            "  done({ settled: settled, ms: Math.round(performance.now() - t0), before: before, after: cards() }); };" +
+            "const tick = () => {" +
+            "  const now = performance.now();" +
+            "  if (now - s.last >= quietMs && window.__bkPending.n <= 0 && (!wantCards || cards() !== before)) return finish(true);" +
+            "  if (now - t0 >= maxMs) return finish(false);" +
+            "  setTimeout(tick, 25);" +
+            "};" +
+            "setTimeout(tick, 25);";
+
+    // fetch/XHR hook for every later document in the current tab (CDP), plus the current one
+    public static void install(WebDriver driver) {
+        try {
+            if (Drivers.unwrap(driver) instanceof HasCdp cdp) {
+                cdp.executeCdpCommand("Page.enable", Map.of());
+                cdp.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", Map.of("source", HOOK));
+            }
+        } catch (Exception ignored) {}
+        try { ((JavascriptExecutor) driver).executeScript(HOOK); } catch (Exception ignored) {}
+    }
+
+    // Call right before the click / scroll that the next await() waits out
+    public static void arm(WebDriver driver) {
+        try {
+            ((JavascriptExecutor) driver).executeScript(ARM + "arm();");
+        } catch (Exception ignored) {
+            // await() arms itself; only the action's earliest requests go unseen
+        }
+    }
+
+    public static Result await(WebDriver driver, String label, Duration timeout) {
+        return await(driver, label, QUIET, timeout, false);
+    }
+
+    // Settled also requires the card count to differ from the one arm() saw: for load-more / infinite scroll
+    public static Result awaitCards(WebDriver driver, String label, Duration timeout) {
+        return await(driver, label, QUIET, timeout, true);
+    }
+
+    public static Result await(WebDriver driver, String label, Duration quiet, Duration timeout, boolean cardsChange) {
+        long t0 = System.nanoTime();
+        Result result;
+        try (RunTrace.Step step = RunTrace.current().step("settle:" + label)) {
+            try {
+                // Script timeout must outlive the in-page timeout or Selenium gives up first
+                WebDriver.Timeouts timeouts = driver.manage().timeouts();
+                Duration previous = timeouts.getScriptTimeout();
+                timeouts.scriptTimeout(timeout.plusSeconds(2));
+                Object raw;
+                try {
+                    raw = ((JavascriptExecutor) driver).executeAsyncScript(SCRIPT, quiet.toMillis(), timeout.toMillis(), cardsChange);
+                } finally {
+                    timeouts.scriptTimeout(previous);
+                }
+                if (raw instanceof Map<?, ?> m) {
+                    result = new Result(Boolean.TRUE.equals(m.get("settled")), elapsedMs(t0), asLong(m.get("before")), asLong(m.get("after")));
+                } else {
+                    result = new Result(false, elapsedMs(t0), -1, -1);
+                }
+                if (!result.settled()) {
+                    step.outcome("timeout");
+                    Metrics.timeout("settle:" + label);
+                }
+            } catch (Throwable e) {
+                step.failed(e);
+                throw e;
+            }
+        } catch (Exception e) {
+            // Navigation mid-script (new document) or a dead window: report and move on
+            result = new Result(false, elapsedMs(t0), -1, -1);
+        }
+
+        System.out.println("Settle [" + label + "]: " + result.millis() + " ms"
+                + (result.settled() ? "" : " (not quiet" + (cardsChange ? " or no new cards" : "") + ", timeout " + timeout.toMillis() + " ms)")
+                + (result.cardsBefore() >= 0 && result.cardsBefore() != result.cardsAfter()
+                        ? ", cards " + result.cardsBefore() + " -> " + result.cardsAfter() : ""));
+        return result;
+    }
+
+    private static long asLong(Object v) {
+        return v instanceof Number n ? n.longValue() : -1;
+    }
+
+    private static long elapsedMs(long t0) {
+        return (System.nanoTime() - t0) / 1_000_000;
+    }
+}
@@ -0,0 +1,107 @@
+package org.example;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+// Bounded pool of reusable drivers. A driver is quit and replaced after maxJobsPerDriver jobs or after it crashes.
+public class DriverPool implements AutoCloseable {
+
+    public static final class Lease {
+        final WebDriver driver;
+        final CallCounter calls;
+        int jobs;
+
+        Lease(Drivers.Counted counted) {
+            this.driver = counted.driver();
+            this.calls = counted.calls();
+        }
+
+        public WebDriver driver() { return driver; }
+        public CallCounter calls() { return calls; }
+    }
+
+    private final Supplier<Drivers.Counted> factory;
+    private final int maxJobsPerDriver;
+    private final Semaphore permits;
+    private final LinkedBlockingQueue<Lease> idle = new LinkedBlockingQueue<>();
+    private final List<Lease> all = new ArrayList<>();
+    private volatile boolean closed;
+
+    private int created;
+    private int recycled;
+
+    public DriverPool(int size, int maxJobsPerDriver, Supplier<Drivers.Counted> factory) {
+        if (size < 1) throw new IllegalArgumentException("pool size must be >= 1");
+        this.permits = new Semaphore(size, true);
+        this.maxJobsPerDriver = Math.max(1, maxJobsPerDriver);
+        this.factory = factory;
+    }
+
+    public Lease acquire() throws InterruptedException {
+        if (closed) throw new IllegalStateException("pool is closed");
+        long t0 = System.nanoTime();
+        permits.acquire();
+        Metrics.DRIVER_WAIT.observeNanos(System.nanoTime() - t0);
+        Lease lease = idle.poll();
+        if (lease == null) {
+            try {
+                lease = new Lease(factory.get());
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+            synchronized (this) {
+                all.add(lease);
+                created++;
+            }
+            Metrics.DRIVERS_STARTED.inc();
+        }
+        Metrics.driverLeased();
+        return lease;
+    }
+
+    // crashed=true (or a used-up driver) quits it; the next acquire() starts a fresh one
+    public void release(Lease lease, boolean crashed) {
+        lease.jobs++;
+        if (crashed || lease.jobs >= maxJobsPerDriver || closed) {
+            quit(lease);
+            synchronized (this) { recycled++; }
+            Metrics.driverReturned(crashed ? "crashed" : closed ? "closed" : "used-up");
+        } else {
+            idle.offer(lease);
+            Metrics.driverReturned(null);
+        }
+        permits.release();
+    }
+
+    public static boolean isAlive(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    public synchronized int created() { return created; }
+    public synchronized int recycled() { return recycled; }
+
+    @Override
+    public void close() {
+        closed = true;
+        List<Lease> snapshot;
+        synchronized (this) { snapshot = new ArrayList<>(all); all.clear(); }
+        for (Lease lease : snapshot) quit(lease);
+        idle.clear();
+    }
+
+    private void quit(Lease lease) {
+        synchronized (this) { all.remove(lease); }
+        try { lease.driver.quit(); } catch (Exception ignored) {}
+    }
+}
@@ -0,0 +1,250 @@
+package org.example;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+// ChromeDriver construction in one place, always wrapped with a CallCounter.
+public class Drivers {
+
+    private static volatile boolean setupDone;
+
+    // Lean profile: what CDP Network.setBlockedURLs drops. We only read text and img src attributes.
+    static final List<String> BLOCKED_URLS = List.of(
+            "*.png", "*.jpg", "*.jpeg", "*.gif", "*.webp", "*.avif", "*.svg", "*.ico",
+            "*.woff", "*.woff2", "*.ttf", "*.otf", "*.eot",
+            "*.mp4", "*.webm", "*.m3u8", "*.mp3",
+            "*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*", "*googlesyndication.com*",
+            "*facebook.net*", "*connect.facebook.*", "*hotjar.com*", "*bat.bing.com*", "*criteo.*",
+            "*scorecardresearch.com*", "*optimizely.com*", "*newrelic.com*", "*nr-data.net*"
+    );
+
+    // Chrome locks a user-data-dir, so concurrent lean drivers each lease one of a fixed set of numbered
+    // slots (-Dbooking.profileSlots, default 16; stable across runs). A slot is held by a file lock, so two
+    // JVMs sharing booking.profileDir never start on the same directory, and goes back when the driver quits.
+    static final class ProfileSlot implements AutoCloseable {
+        final Path dir;
+        private final FileChannel channel;
+        private final FileLock lock;
+
+        private ProfileSlot(Path dir, FileChannel channel, FileLock lock) {
+            this.dir = dir;
+            this.channel = channel;
+            this.lock = lock;
+        }
+
+        static ProfileSlot lease(Path root, int slots) {
+            try {
+                Files.createDirectories(root);
+                for (int i = 0; i < slots; i++) {
+                    FileChannel channel = FileChannel.open(root.resolve("slot-" + i + ".lock"),
+                            StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                    FileLock lock = null;
+                    try {
+                        lock = channel.tryLock();
+                    } catch (OverlappingFileLockException inThisJvm) {
+                        // leased by another driver of this process
+                    }
+                    if (lock != null) return new ProfileSlot(root.resolve("slot-" + i), channel, lock);
+                    channel.close();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("profile slots in " + root, e);
+            }
+            throw new IllegalStateException("all " + slots + " profile slots in " + root + " are in use (booking.profileSlots)");
+        }
+
+        @Override
+        public void close() {
+            try {
+                lock.release();
+                channel.close();
+            } catch (IOException ignored) {}
+        }
+    }
+
+    // Returns the slot once the driver has quit (or quit failed: the browser is gone either way)
+    private static final class SlotReturn implements WebDriverListener {
+        private final ProfileSlot slot;
+
+        SlotReturn(ProfileSlot slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public void afterQuit(WebDriver driver) {
+            slot.close();
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            if (method.getName().equals("quit")) slot.close();
+        }
+    }
+
+    public record Counted(WebDriver driver, CallCounter calls) {}
+
+    // -Dbooking.profile=visible|headless|lean (default visible)
+    public enum Profile {
+        VISIBLE, HEADLESS, LEAN;
+
+        static Profile fromProperty() {
+            String v = System.getProperty("booking.profile", "visible");
+            try {
+                return Profile.valueOf(v.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.out.println("Unknown booking.profile=" + v + ", using visible");
+                return VISIBLE;
+            }
+        }
+    }
+
+    // The interactive run's driver. Only the lean profile keeps Chrome's network log for PageStats: the
+    // performance log records every CDP Network event, which costs the other profiles for nothing.
+    public static Counted create(Profile profile) {
+        return create(profile, profile == Profile.LEAN);
+    }
+
+    static Counted create(Profile profile, boolean networkLog) {
+        ChromeOptions options = new ChromeOptions();
+        WebDriverListener[] listeners = {};
+        if (networkLog) {
+            PageStats.logNetwork(options);
+            listeners = new WebDriverListener[]{PageStats.FORGET_ON_QUIT};
+        }
+        Counted counted = switch (profile) {
+            case VISIBLE -> visible(options, listeners);
+            case HEADLESS -> headless(options, listeners);
+            case LEAN -> lean(options, listeners);
+        };
+        if (networkLog) PageStats.logging(counted.driver());
+        return counted;
+    }
+
+    public static Counted visible() {
+        return visible(new ChromeOptions());
+    }
+
+    private static Counted visible(ChromeOptions options, WebDriverListener... listeners) {
+        setup();
+        Counted counted = decorate(new ChromeDriver(options), listeners);
+        counted.driver().manage().window().maximize();
+        return counted;
+    }
+
+    public static Counted headless() {
+        return headless(new ChromeOptions());
+    }
+
+    private static Counted headless(ChromeOptions options, WebDriverListener... listeners) {
+        setup();
+        options.addArguments("--headless=new", "--window-size=1920,1080", "--disable-gpu", "--no-sandbox");
+        return decorate(new ChromeDriver(options), listeners);
+    }
+
+    // Headless, eager page loads (DOMContentLoaded, not every subresource), a reusable profile directory
+    // (-Dbooking.profileDir, default .booking-profile) and images/media/fonts/trackers blocked over CDP.
+    public static Counted lean() {
+        return lean(new ChromeOptions());
+    }
+
+    private static Counted lean(ChromeOptions options, WebDriverListener... listeners) {
+        setup();
+        ProfileSlot slot = ProfileSlot.lease(Path.of(System.getProperty("booking.profileDir", ".booking-profile")),
+                Math.max(1, Integer.getInteger("booking.profileSlots", 16)));
+        options.setPageLoadStrategy(PageLoadStrategy.EAGER);
+        options.addArguments("--headless=new", "--window-size=1920,1080", "--disable-gpu", "--no-sandbox",
+                "--user-data-dir=" + slot.dir.toAbsolutePath(), "--disable-extensions", "--mute-audio");
+        ChromeDriver chrome;
+        try {
+            chrome = new ChromeDriver(options);
+        } catch (RuntimeException e) {
+            slot.close();
+            throw e;
+        }
+        try {
+            chrome.executeCdpCommand("Network.enable", Map.of());
+            chrome.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", BLOCKED_URLS));
+        } catch (RuntimeException e) {
+            chrome.quit();
+            slot.close();
+            throw e;
+        }
+
+        WebDriverListener[] withSlot = Arrays.copyOf(listeners, listeners.length + 1);
+        withSlot[listeners.length] = new SlotReturn(slot);
+        return decorate(chrome, withSlot);
+    }
+
+    // The CallCounter first, then whatever else has to see the driver's calls (slot return, PageStats cleanup)
+    private static Counted decorate(ChromeDriver chrome, WebDriverListener... listeners) {
+        CallCounter calls = new CallCounter();
+        WebDriverListener[] all = new WebDriverListener[listeners.length + 1];
+        all[0] = calls;
+        System.arraycopy(listeners, 0, all, 1, listeners.length);
+        return new Counted(new EventFiringDecorator<WebDriver>(all).decorate(chrome), calls);
+    }
+
+    // Lifts the lean blocking for a screenshot: re-fetches the page's images in place (no reload, so
+    // scroll position and dismissed overlays survive) and restores the block list on close().
+    // No-op for drivers without CDP.
+    public static AutoCloseable fullRendering(WebDriver driver) {
+        if (!(unwrap(driver) instanceof HasCdp cdp)) return () -> {};
+        cdp.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", List.of()));
+        try {
+            WebDriver.Timeouts timeouts = driver.manage().timeouts();
+            Duration previous = timeouts.getScriptTimeout();
+            timeouts.scriptTimeout(Duration.ofSeconds(7));
+            try {
+                ((JavascriptExecutor) driver).executeAsyncScript(
+                        "const done = arguments[arguments.length - 1];" +
+                        "const imgs = Array.from(document.images);" +
+                        "imgs.forEach(i => { if (i.srcset) i.srcset = i.srcset; if (i.src) i.src = i.src; });" +
+                        "const t0 = Date.now();" +
+                        "const tick = () => (imgs.every(i => i.complete) || Date.now() - t0 > 5000) ? done(true) : setTimeout(tick, 50);" +
+                        "tick();");
+            } finally {
+                timeouts.scriptTimeout(previous);
+            }
+        } catch (Exception ignored) {}
+        return () -> cdp.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", BLOCKED_URLS));
+    }
+
+    static WebDriver unwrap(WebDriver driver) {
+        WebDriver d = driver;
+        while (d instanceof WrapsDriver w) d = w.getWrappedDriver();
+        return d;
+    }
+
+    private static void setup() {
+        if (setupDone) return;
+        synchronized (Drivers.class) {
+            if (!setupDone) {
+                WebDriverManager.chromedriver().setup();
+                setupDone = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.example;
+
+import java.io.Serializable;
+
+// One property card from the search results page.
+public record HotelCard(String name,
+                        String price,
+                        String rating,
+                        String imageUrl,
+                        boolean breakfastIncluded,
+                        boolean freeCancellation,
+                        String url) implements Serializable {
+
+    // flags() bits, as the columnar sink and the room-rate codec store them
+    static final byte BREAKFAST = 1, FREE_CANCELLATION = 2;
+
+    // Property URL without query/fragment, so the same hotel reached from different searches compares equal
+    public String propertyKey() {
+        if (url == null || url.isBlank()) return name;
+        String u = url;
+        int cut = u.indexOf('?');
+        if (cut >= 0) u = u.substring(0, cut);
+        cut = u.indexOf('#');
+        if (cut >= 0) u = u.substring(0, cut);
+        return u;
+    }
+
+    public byte flags() {
+        return (byte) ((breakfastIncluded ? BREAKFAST : 0) | (freeCancellation ? FREE_CANCELLATION : 0));
+    }
+
+    // "8.3", "Scored 8.3", "8.3Excellent497 reviews" -> 83; 0..10 only, -1 when the card had no score
+    public int ratingTenths() {
+        if (rating == null) return -1;
+        for (int i = 0; i < rating.length(); i++) {
+            char c = rating.charAt(i);
+            if (c < '0' || c > '9') continue;
+            int whole = 0, j = i;
+            while (j < rating.length() && Character.isDigit(rating.charAt(j)) && j - i < 2) whole = whole * 10 + (rating.charAt(j++) - '0');
+            int tenth = 0;
+            if (j + 1 < rating.length() && (rating.charAt(j) == '.' || rating.charAt(j) == ',') && Character.isDigit(rating.charAt(j + 1))) {
+                tenth = rating.charAt(j + 1) - '0';
+            }
+            return whole <= 10 ? whole * 10 + tenth : -1;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,38 @@
+package org.example;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// Deduplicates repeated text (room types, occupancy, meal plans, cancellation terms, currencies) so a crawl
+// that sees the same "Deluxe Double Room" a hundred thousand times keeps one String for it. Only for
+// low-cardinality fields: prices, ratings, names and URLs are close to unique and would just fill the pool.
+// Unlike String.intern() the pool is bounded: once -Dbooking.internMax (65536) values are held, new values
+// are returned as they are, so unique text that reaches it anyway cannot grow it without limit.
+// Thread-safe; values are never evicted.
+public final class Interner {
+
+    private static final Interner SHARED = new Interner(Integer.getInteger("booking.internMax", 1 << 16));
+
+    private final ConcurrentHashMap<String, String> pool = new ConcurrentHashMap<>();
+    private final int max;
+
+    public Interner(int max) {
+        this.max = max;
+    }
+
+    public static Interner shared() {
+        return SHARED;
+    }
+
+    public String intern(String value) {
+        if (value == null || value.isEmpty()) return value == null ? null : "";
+        String known = pool.get(value);
+        if (known != null) return known;
+        if (pool.size() >= max) return value;
+        known = pool.putIfAbsent(value, value);
+        return known == null ? value : known;
+    }
+
+    public int size() {
+        return pool.size();
+    }
+}
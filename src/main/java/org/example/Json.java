@@ -0,0 +1,55 @@
+package org.example;
+
+import org.openqa.selenium.json.JsonException;
+import org.openqa.selenium.json.JsonInput;
+import org.openqa.selenium.json.JsonType;
+
+import java.io.StringReader;
+
+// JSON for captured payloads and our own trace/checkpoint files. parse() reads with Selenium's JSON reader and
+// returns Map (insertion-ordered), List, String, Long, Double, Boolean or null; integral numbers, 3e2 included,
+// come back as Long. quote() serves the writers that build each record in one buffer.
+public final class Json {
+
+    private static final org.openqa.selenium.json.Json JSON = new org.openqa.selenium.json.Json();
+
+    private Json() {}
+
+    // One JSON value and nothing after it; IllegalArgumentException otherwise
+    public static Object parse(String text) {
+        try (JsonInput in = JSON.newInput(new StringReader(text))) {
+            if (in.peek() == JsonType.END) throw new IllegalArgumentException("JSON unexpected end");
+            Object v = in.read(Object.class);
+            if (in.peek() != JsonType.END) throw new IllegalArgumentException("JSON trailing characters after the value");
+            return v;
+        } catch (JsonException e) {
+            throw new IllegalArgumentException("JSON " + e.getMessage().lines().findFirst().orElse(""), e);
+        }
+    }
+
+    public static String quote(String s) {
+        if (s == null) return "null";
+        return quote(new StringBuilder(s.length() + 2), s).toString();
+    }
+
+    // Appends the quoted string to sb, for writers that build a whole record in one buffer
+    public static StringBuilder quote(StringBuilder sb, String s) {
+        if (s == null) return sb.append("null");
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"');
+    }
+}
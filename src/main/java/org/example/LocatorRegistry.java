@@ -0,0 +1,196 @@
+package org.example;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebElement;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+// Remembers which By candidate wins for each logical target ("filter:BREAKFAST_INCLUDED", "room-price", ...).
+// Declared order is precedence (most specific first, broad fallbacks last) and is never overridden; only
+// candidates the caller wraps in anyOf(...) are interchangeable, and those go best-first, so the usual winner
+// among them costs one findElements instead of several. A hit means the match was also usable (non-blank
+// text, a click that went through); callers record anything else as a miss.
+// Stats persist between runs in a properties file; lookups slower than SLOW_NANOS (or that threw a
+// TimeoutException) count as timeouts and push the candidate down its group.
+public class LocatorRegistry {
+
+    static final long SLOW_NANOS = 1_000_000_000L;
+
+    private static volatile LocatorRegistry shared;
+
+    private static final class Stats {
+        long hits, misses, timeouts, missNanos;
+
+        // Laplace-smoothed hit rate, timeouts weigh like five misses
+        double score() {
+            return (hits + 1.0) / (hits + misses + 5.0 * timeouts + 2.0);
+        }
+    }
+
+    private final Path file;
+    private final Map<String, Stats> stats = new HashMap<>();
+
+    // this process only
+    private long lookups, attempts, attemptsSaved;
+
+    public LocatorRegistry(Path file) {
+        this.file = file;
+        load();
+    }
+
+    // -Dbooking.locatorStats (default .booking-locators.properties)
+    public static LocatorRegistry shared() {
+        LocatorRegistry r = shared;
+        if (r == null) {
+            synchronized (LocatorRegistry.class) {
+                r = shared;
+                if (r == null) {
+                    r = new LocatorRegistry(Path.of(System.getProperty("booking.locatorStats", ".booking-locators.properties")));
+                    shared = r;
+                }
+            }
+        }
+        return r;
+    }
+
+    // Equivalent alternatives (e.g. the same control as <a> or <button>); as a plain By it finds the first
+    // alternative that matches
+    public static By anyOf(By... alternatives) {
+        return new Group(alternatives);
+    }
+
+    static final class Group extends By {
+        final By[] members;
+
+        Group(By[] members) {
+            this.members = members.clone();
+        }
+
+        @Override
+        public List<WebElement> findElements(SearchContext context) {
+            for (By by : members) {
+                List<WebElement> els = context.findElements(by);
+                if (!els.isEmpty()) return els;
+            }
+            return List.of();
+        }
+
+        @Override
+        public String toString() {
+            return "anyOf" + Arrays.toString(members);
+        }
+    }
+
+    // Declared order with every anyOf(...) group expanded in place, best-first inside the group
+    // (never-seen members keep their declared order)
+    public synchronized By[] order(String target, By... candidates) {
+        List<By> ordered = new ArrayList<>(candidates.length);
+        for (By by : candidates) {
+            if (by instanceof Group g) {
+                By[] members = g.members.clone();
+                Arrays.sort(members, Comparator.comparingDouble((By m) -> -statsFor(target, m).score()));
+                ordered.addAll(Arrays.asList(members));
+            } else {
+                ordered.add(by);
+            }
+        }
+        return ordered.toArray(new By[0]);
+    }
+
+    // attempt is 1-based position in the ordered list; candidates is the declared (fixed) order
+    public synchronized void hit(String target, By by, By[] candidates, int attempt, long nanos) {
+        statsFor(target, by).hits++;
+        lookups++;
+        attempts += attempt;
+        int fixedAttempt = expanded(candidates).indexOf(by) + 1;
+        attemptsSaved += fixedAttempt - attempt;
+        RunTrace.current().locator(target, by, true, nanos);
+    }
+
+    public synchronized void miss(String target, By by, long nanos, Exception error) {
+        Stats s = statsFor(target, by);
+        if (nanos >= SLOW_NANOS || error instanceof TimeoutException) s.timeouts++;
+        else s.misses++;
+        s.missNanos += nanos;
+        attempts++;
+        RunTrace.current().locator(target, by, false, nanos);
+    }
+
+    // A lookup where every candidate missed
+    public synchronized void exhausted() {
+        lookups++;
+    }
+
+    public synchronized String report() {
+        return "Locators: lookups=" + lookups + " findElements=" + attempts
+                + " saved vs fixed order=" + attemptsSaved + " (" + stats.size() + " candidates tracked)";
+    }
+
+    public synchronized void save() {
+        Properties p = new Properties();
+        for (Map.Entry<String, Stats> e : stats.entrySet()) {
+            Stats s = e.getValue();
+            p.setProperty(e.getKey(), s.hits + "," + s.misses + "," + s.timeouts + "," + s.missNanos);
+        }
+        try {
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (Writer w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                p.store(w, "target<TAB>locator = hits,misses,timeouts,missNanos");
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.out.println("Locator stats not saved: " + e.getMessage());
+        }
+    }
+
+    private static List<By> expanded(By[] candidates) {
+        List<By> all = new ArrayList<>(candidates.length);
+        for (By by : candidates) {
+            if (by instanceof Group g) all.addAll(Arrays.asList(g.members));
+            else all.add(by);
+        }
+        return all;
+    }
+
+    private Stats statsFor(String target, By by) {
+        return stats.computeIfAbsent(target + "\t" + by, k -> new Stats());
+    }
+
+    private void load() {
+        if (!Files.exists(file)) return;
+        Properties p = new Properties();
+        try (Reader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            p.load(r);
+        } catch (IOException e) {
+            System.out.println("Locator stats not loaded: " + e.getMessage());
+            return;
+        }
+        for (String key : p.stringPropertyNames()) {
+            String[] f = p.getProperty(key).split(",");
+            if (f.length < 4) continue;
+            try {
+                Stats s = new Stats();
+                s.hits = Long.parseLong(f[0]);
+                s.misses = Long.parseLong(f[1]);
+                s.timeouts = Long.parseLong(f[2]);
+                s.missNanos = Long.parseLong(f[3]);
+                stats.put(key, s);
+            } catch (NumberFormatException ignored) {}
+        }
+    }
+}
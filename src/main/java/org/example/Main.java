@@ -1,16 +1,14 @@
 package org.example;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
 import org.openqa.selenium.*;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
-import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Serializable;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -24,159 +22,144 @@ public class Main {
     private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
     public static void main(String[] args) {
-        WebDriverManager.chromedriver().setup();
-        WebDriver driver = new ChromeDriver();
-
-        WebDriverWait wait = new WebDriverWait(driver, WAIT_TIME);
-        wait.pollingEvery(POLL);
+        MetricsServer.startFromProperties();
+        SearchJob job = SearchJob.defaultJob();
+        String runId = RunTrace.newRunId();
 
+        // Cache first: a fresh hit never starts Chrome
+        ResultCache cache = null;
         try {
-            driver.manage().window().maximize();
-            driver.get("https://www.booking.com/");
-
-            dismissOverlaysQuick(driver);
-            hardHideCommonOverlays(driver);
-
-            // Destination
-            WebElement destinationInput = wait.until(
-                    ExpectedConditions.presenceOfElementLocated(By.cssSelector("input[name='ss']"))
-            );
-            focusElement(driver, destinationInput);
-            clearAndType(driver, destinationInput, "Goa, India");
-
-            // Autocomplete (SHORT wait only)
-            try {
-                WebDriverWait shortWait = new WebDriverWait(driver, SHORT_WAIT);
-                shortWait.pollingEvery(POLL);
-
-                List<WebElement> options = shortWait.until(
-                        ExpectedConditions.visibilityOfAllElementsLocatedBy(
-                                By.cssSelector("li[data-testid='autocomplete-result']")
-                        )
-                );
-
-                boolean clicked = false;
-                for (WebElement op : options) {
-                    if (op.getText().toLowerCase().contains("goa")) {
-                        jsClick(driver, op);
-                        clicked = true;
-                        break;
+            cache = ResultCache.fromProperties();
+            if (!ResultCache.forceRefresh()) {
+                long t0 = System.nanoTime();
+                Optional<SearchOutcome> cached = cache.get(job);
+                if (cached.isPresent()) {
+                    System.out.println("Cache hit for " + job.destination() + " (" + (System.nanoTime() - t0) / 1_000_000 + " ms)");
+                    try (ResultSink sink = ResultSink.fromPropertiesOrConsole(runId)) {
+                        List<HotelCard> hotels = cached.get().hotels();
+                        printHotels(hotels, sink);
+                        if (!hotels.isEmpty()) printRooms(hotels.get(0), cached.get().rooms(), sink);
+                        if (!(sink instanceof ConsoleSink)) System.out.println(sink.stats());
                     }
+                    System.out.println(cache.stats());
+                    return;
                 }
-                if (!clicked) destinationInput.sendKeys(Keys.ENTER);
-
-            } catch (TimeoutException ignored) {
-                destinationInput.sendKeys(Keys.ENTER);
             }
+        } catch (IOException e) {
+            System.out.println("Result cache unavailable: " + e.getMessage());
+        }
 
-            // Dates
-            LocalDate today = LocalDate.now();
-            LocalDate checkIn = today.plusDays(10);
-            LocalDate checkOut = today.plusDays(13);
-
-            openCalendarFast(driver, wait);
-            switchToCalendarTabFast(driver);
-            pickDateFast(driver, wait, checkIn);
-            pickDateFast(driver, wait, checkOut);
-
-            // Search
-            WebElement searchBtn = wait.until(ExpectedConditions.elementToBeClickable(
-                    By.cssSelector("button[type='submit'][data-testid='searchbox-submit-button'], button[type='submit']")
-            ));
-            jsClick(driver, searchBtn);
-
-            // Wait results
-            wait.until(ExpectedConditions.visibilityOfElementLocated(
-                    By.cssSelector("div[data-testid='property-card']")
-            ));
-
-            // ---------------- APPLY FILTERS ----------------
-            // 4 stars and above
-            clickFilterIfPresent(driver, wait,
-                    By.cssSelector("input[name='class=4'], input[name='class=5']"),
-                    By.xpath("//div[@data-filters-group='class']//span[contains(.,'4 stars')]"),
-                    By.xpath("//div[@data-filters-group='class']//span[contains(.,'4')]")
-            );
-
-            // Breakfast included
-            clickFilterIfPresent(driver, wait,
-                    By.cssSelector("input[name='mealplan=1']"),
-                    By.xpath("//div[contains(@data-testid,'filters-group')]//span[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'breakfast')]"),
-                    By.xpath("//span[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'breakfast included')]")
-            );
+        long startup = System.nanoTime();
+        Drivers.Counted counted = Drivers.create(Drivers.Profile.fromProperty());
+        WebDriver driver = counted.driver();
+        CallCounter calls = counted.calls();
+        long driverMs = (System.nanoTime() - startup) / 1_000_000;
+
+        WebDriverWait wait = newWait(driver);
+        RunTrace trace = RunTrace.start(runId, calls);
+        // Hotels and rooms are written out as they are extracted (-Dbooking.output, see ResultSink)
+        ResultSink sink = ResultSink.fromPropertiesOrConsole(runId);
+        if (NetworkCapture.enabled()) {
+            try { NetworkCapture.install(driver); } catch (Exception e) { System.out.println("Network capture unavailable: " + e.getMessage()); }
+        }
 
-            // Free cancellation
-            clickFilterIfPresent(driver, wait,
-                    By.cssSelector("input[name='fc=1']"),
-                    By.xpath("//div[contains(@data-testid,'filters-group')]//span[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'free cancellation')]"),
-                    By.xpath("//span[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'free cancellation')]")
-            );
+        // Warm start: cookies / consent / localStorage from the last good run, before the first page load
+        Optional<SessionSnapshot> session = Optional.empty();
+        if (SessionSnapshot.enabled()) {
+            try (RunTrace.Step step = trace.step("session-restore")) {
+                try {
+                    session = SessionSnapshot.load(SessionSnapshot.file());
+                    session.ifPresent(s -> s.restore(driver));
+                    step.outcome(session.isPresent() ? "warm" : "cold");
+                    session.ifPresent(s -> System.out.println("Session restored: " + s));
+                } catch (Throwable e) {
+                    step.failed(e);
+                    throw e;
+                }
+            } catch (Exception e) {
+                System.out.println("Session restore failed, starting cold: " + e.getMessage());
+                session = Optional.empty();
+            }
+        }
+        OverlayGuard.install(driver);
 
-            wait.until(ExpectedConditions.visibilityOfElementLocated(By.cssSelector("div[data-testid='property-card']")));
+        try {
+            openResults(driver, wait, job, Navigation.fromProperty());
+            System.out.println("Startup [" + (session.isPresent() ? "warm" : "cold") + "]: "
+                    + (System.nanoTime() - startup) / 1_000_000 + " ms to results (driver " + driverMs + " ms)");
+            PageStats.report(driver, "results");
 
             // PRINT RESULTS WITH FLAGS
-            List<WebElement> hotels = driver.findElements(By.cssSelector("div[data-testid='property-card']"));
-            System.out.println("Hotels Found (after filters attempt): " + hotels.size());
-
-            for (WebElement hotel : hotels) {
-                String name = getTextSafe(hotel, By.cssSelector("div[data-testid='title']"), "N/A");
-                String price = getTextSafe(hotel, By.cssSelector("span[data-testid='price-and-discounted-price']"), "Price not visible");
-                String rating = getTextSafe(hotel,
-                        By.cssSelector("div[aria-label*='Scored'], div[data-testid='review-score']"),
-                        "Rating not available"
-                );
-                String img = getAttrSafe(hotel, By.cssSelector("img"), "src", "Image not found");
-
-                String cardText = "";
-                try { cardText = hotel.getText().toLowerCase(); } catch (Exception ignored) {}
-
-                boolean breakfastIncluded = cardText.contains("breakfast included") || cardText.contains("breakfast");
-                boolean freeCancellation = cardText.contains("free cancellation");
-
-                System.out.println("Hotel: " + name);
-                System.out.println("Price: " + price);
-                System.out.println("Rating: " + rating);
-                System.out.println("Breakfast Included: " + (breakfastIncluded ? "YES" : "NO/NOT SHOWN"));
-                System.out.println("Free Cancellation: " + (freeCancellation ? "YES" : "NO/NOT SHOWN"));
-                System.out.println("Image: " + img);
-                System.out.println("----------------------------------");
-            }
+            List<HotelCard> hotels = CardExtractor.extract(driver, calls, CardExtractor.Mode.fromProperty());
+            printHotels(hotels, sink);
+            if (SessionSnapshot.enabled() && session.isEmpty() && !hotels.isEmpty()) saveSession(driver);
 
 
             // Validate Filtered Results (>= 3)
 
-            int countAfterFilters = driver.findElements(By.cssSelector("div[data-testid='property-card']")).size();
+            int countAfterFilters = hotels.size();
             if (countAfterFilters >= 3) {
                 System.out.println("Validation PASSED: at least 3 hotels after filters. Count=" + countAfterFilters);
             } else {
                 System.out.println("Validation FAILED: less than 3 hotels after filters. Count=" + countAfterFilters);
             }
 
+            // -Dbooking.allDetails=true: rooms for every filtered hotel, fetched concurrently in lean drivers
+            Map<HotelCard, List<RoomInfo>> roomsByHotel = new LinkedHashMap<>();
+            if (Boolean.getBoolean("booking.allDetails")) {
+                try (RunTrace.Step step = trace.step("detail-fan-out")) {
+                    try {
+                        List<DetailFanOut.HotelDetail> details = DetailFanOut.fetchAll(hotels, DetailFanOut.Config.fromProperties(),
+                                d -> printDetail(d, sink));
+                        for (DetailFanOut.HotelDetail d : details) if (d.ok()) roomsByHotel.put(d.hotel(), d.rooms());
+                    } catch (Throwable e) {
+                        step.failed(e);
+                        throw e;
+                    }
+                }
+            }
+
             // Select First Hotel -> handle new tab/window
             String parentWindow = driver.getWindowHandle();
 
-            WebElement firstHotelLink = wait.until(ExpectedConditions.elementToBeClickable(
-                    By.cssSelector("div[data-testid='property-card'] a[data-testid='title-link'], div[data-testid='property-card'] a")
-            ));
+            try (RunTrace.Step step = trace.step("open-first-hotel")) {
+                try {
+                    WebElement firstHotelLink = wait.until(ExpectedConditions.elementToBeClickable(
+                            By.cssSelector("div[data-testid='property-card'] a[data-testid='title-link'], div[data-testid='property-card'] a")
+                    ));
 
-            // open in new tab reliably (instead of jsClick)
-            openInNewTab(driver, firstHotelLink);
+                    // open in new tab reliably (instead of jsClick)
+                    openInNewTab(driver, firstHotelLink);
 
-            // switch to new tab if opened
-            switchToNewWindow(driver, parentWindow);
+                    // switch to new tab if opened
+                    switchToNewWindow(driver, parentWindow);
+                } catch (Throwable e) {
+                    step.failed(e);
+                    throw e;
+                }
+            }
 
             // 8) On Hotel Detail Page:
             //    - Fetch room types and prices (FIXED)
             //    - Scroll bottom and validate Reviews or Policies
             //    - Screenshot proof
             wait.until(ExpectedConditions.presenceOfElementLocated(By.tagName("body")));
-            Thread.sleep(800);
+            // New tab: hook its later documents; requests this one started before the hook are not counted
+            DomSettle.install(driver);
+            DomSettle.await(driver, "detail-page", Duration.ofSeconds(3));
+            PageStats.report(driver, "detail");
+            if (NetworkCapture.enabled()) {
+                try {
+                    NetworkCapture.ensureInstalled(driver);
+                    if (CardExtractor.Mode.fromProperty() == CardExtractor.Mode.COMPARE) NetworkCapture.compareRooms(driver);
+                } catch (Exception ignored) {}
+            }
 
             System.out.println("\n=========== HOTEL DETAIL PAGE ===========");
             System.out.println("URL: " + driver.getCurrentUrl());
 
-            dismissOverlaysQuick(driver);
-            hardHideCommonOverlays(driver);
+            OverlayGuard.install(driver);
+            handleOverlays(driver);
 
             // GO TO AVAILABILITY / ROOM TABLE (important!)
             goToAvailabilitySection(driver, wait);
@@ -185,27 +168,52 @@ public class Main {
             List<RoomInfo> rooms = extractRoomsAndPrices(driver);
             if (rooms.isEmpty()) {
                 System.out.println("Rooms not detected. Taking debug screenshot...");
-                takeScreenshot(driver, "rooms_not_found.png");
-                System.out.println("Screenshot saved: rooms_not_found.png");
+                screenshot(driver, "rooms-not-found");
             } else {
-                System.out.println("Rooms Found: " + rooms.size());
-                for (RoomInfo r : rooms) {
-                    System.out.println("Room: " + r.roomType);
-                    System.out.println("Price: " + r.price);
-                    System.out.println("------------------------------");
+                HotelCard opened = hotels.isEmpty()
+                        ? new HotelCard(driver.getTitle(), "", "", "", false, false, driver.getCurrentUrl()) : hotels.get(0);
+                printRooms(opened, rooms, sink);
+            }
+
+            // A run that found no rooms is not a full outcome; the next run should retry the detail page
+            if (cache != null && !hotels.isEmpty() && !rooms.isEmpty()) cache.put(job, new SearchOutcome(hotels, rooms));
+
+            // Diff against the previous run of this search; only changes are printed
+            if (PriceHistoryStore.enabled() && !hotels.isEmpty()) {
+                if (!rooms.isEmpty()) roomsByHotel.putIfAbsent(hotels.get(0), rooms);
+                try (RunTrace.Step step = trace.step("price-history");
+                     PriceHistoryStore history = PriceHistoryStore.open(job)) {
+                    try {
+                        PriceHistoryStore.print(history.record(hotels, roomsByHotel));
+                    } catch (Throwable e) {
+                        step.failed(e);
+                        throw e;
+                    }
+                } catch (IOException e) {
+                    System.out.println("Price history unavailable: " + e.getMessage());
                 }
             }
 
             // Scroll to bottom and validate Reviews or Policies section
-            ((JavascriptExecutor) driver).executeScript("window.scrollTo(0, document.body.scrollHeight);");
-            Thread.sleep(1200);
-
-            boolean reviewsVisible = isPresentDisplayed(driver,
-                    By.cssSelector("#hotel_reviews, [data-testid*='reviews'], [id*='reviews']")
-            );
-            boolean policiesVisible = isPresentDisplayed(driver,
-                    By.cssSelector("#hotel_policy, #hotelPolicies, [data-testid*='policies'], [id*='policy']")
-            );
+            boolean reviewsVisible, policiesVisible;
+            try (RunTrace.Step step = trace.step("reviews-policies")) {
+                try {
+                    DomSettle.arm(driver);
+                    ((JavascriptExecutor) driver).executeScript("window.scrollTo(0, document.body.scrollHeight);");
+                    DomSettle.await(driver, "scroll-bottom", Duration.ofSeconds(3));
+
+                    reviewsVisible = isPresentDisplayed(driver,
+                            By.cssSelector("#hotel_reviews, [data-testid*='reviews'], [id*='reviews']")
+                    );
+                    policiesVisible = isPresentDisplayed(driver,
+                            By.cssSelector("#hotel_policy, #hotelPolicies, [data-testid*='policies'], [id*='policy']")
+                    );
+                    step.outcome(reviewsVisible || policiesVisible ? "hit" : "miss");
+                } catch (Throwable e) {
+                    step.failed(e);
+                    throw e;
+                }
+            }
 
             if (reviewsVisible || policiesVisible) {
                 System.out.println("Reviews/Policies section is visible.");
@@ -214,29 +222,221 @@ public class Main {
             }
 
             // Screenshot proof
-            takeScreenshot(driver, "final_step.png");
-            System.out.println("Screenshot saved: final_step.png");
+            screenshot(driver, "final-step");
+            System.out.println("WebDriver calls this run: " + calls.get());
+            if (cache != null) System.out.println(cache.stats());
 
         } catch (Exception e) {
             System.out.println("Test Failed: " + e.getMessage());
-            try {
-                takeScreenshot(driver, "error.png");
-                System.out.println("Screenshot saved: error.png");
-            } catch (Exception ignored) {}
+            screenshot(driver, "error");
         } finally {
             driver.quit();
+            trace.finish();
+            try {
+                sink.close();
+                if (!(sink instanceof ConsoleSink)) System.out.println(sink.stats());
+            } catch (UncheckedIOException e) {
+                System.out.println("Result output not completed: " + e.getMessage());
+            }
+            ArtifactPipeline artifacts = ArtifactPipeline.sharedIfStarted();
+            if (artifacts != null) {
+                artifacts.close();
+                System.out.println(artifacts.stats());
+            }
+            LocatorRegistry.shared().save();
+            System.out.println(LocatorRegistry.shared().report());
+            if (Boolean.getBoolean("booking.traceSummary")) {
+                try { RunTrace.summarize(RunTrace.traceDir()); } catch (IOException ignored) {}
+            }
+        }
+    }
+
+    static void printHotels(List<HotelCard> hotels, ResultSink sink) {
+        System.out.println("Hotels Found (after filters attempt): " + hotels.size());
+        for (HotelCard hotel : hotels) sink.hotel(hotel);
+    }
+
+    static void printRooms(HotelCard hotel, List<RoomInfo> rooms, ResultSink sink) {
+        System.out.println("Rooms Found: " + rooms.size());
+        sink.rooms(hotel, rooms);
+    }
+
+    // Called from the fan-out workers as each hotel completes
+    static synchronized void printDetail(DetailFanOut.HotelDetail d, ResultSink sink) {
+        System.out.println("Hotel: " + d.hotel().name() + " (attempts: " + d.attempts() + ")");
+        if (d.ok()) printRooms(d.hotel(), d.rooms(), sink);
+        else System.out.println("Rooms not fetched: " + d.error());
+        System.out.println("==================================");
+    }
+
+    static WebDriverWait newWait(WebDriver driver) {
+        WebDriverWait wait = new WebDriverWait(driver, WAIT_TIME);
+        wait.pollingEvery(POLL);
+        return wait;
+    }
+
+    // How to reach the results page: DIRECT builds the results URL (falls back to FORM), COMPARE times both
+    enum Navigation {
+        DIRECT, FORM, COMPARE;
+
+        static Navigation fromProperty() {
+            String v = System.getProperty("booking.nav", "direct");
+            try {
+                return Navigation.valueOf(v.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.out.println("Unknown booking.nav=" + v + ", using direct");
+                return DIRECT;
+            }
+        }
+    }
+
+    static void openResults(WebDriver driver, WebDriverWait wait, SearchJob job, Navigation nav) {
+        try (RunTrace.Step step = RunTrace.current().step("open-results")) {
+            try {
+                step.outcome(openResultsTimed(driver, wait, job, nav));
+            } catch (Throwable e) {
+                step.failed(e);
+                throw e;
+            }
+        }
+    }
+
+    // Returns the trace outcome: "form", "direct" or "fallback"
+    private static String openResultsTimed(WebDriver driver, WebDriverWait wait, SearchJob job, Navigation nav) {
+        if (nav == Navigation.FORM) {
+            long t0 = System.nanoTime();
+            runSearch(driver, wait, job);
+            System.out.println("Navigation [form]: " + (System.nanoTime() - t0) / 1_000_000 + " ms");
+            return "form";
+        }
+
+        long formMs = -1;
+        if (nav == Navigation.COMPARE) {
+            long t0 = System.nanoTime();
+            runSearch(driver, wait, job);
+            formMs = (System.nanoTime() - t0) / 1_000_000;
+            System.out.println("Navigation [form]: " + formMs + " ms");
+        }
+
+        long t0 = System.nanoTime();
+        boolean direct = openResultsDirect(driver, job);
+        long directMs = (System.nanoTime() - t0) / 1_000_000;
+        System.out.println("Navigation [direct]: " + directMs + " ms" + (direct ? "" : " (no property cards)"));
+
+        if (!direct) {
+            System.out.println("Direct results URL failed, falling back to the search form");
+            long f0 = System.nanoTime();
+            runSearch(driver, wait, job);
+            System.out.println("Navigation [form fallback]: " + (System.nanoTime() - f0) / 1_000_000 + " ms");
+            return "fallback";
+        }
+        if (formMs > 0) {
+            System.out.println(String.format("Navigation benchmark: direct=%d ms, form=%d ms (%.1fx)",
+                    directMs, formMs, directMs == 0 ? 0.0 : (double) formMs / directMs));
+        }
+        return "direct";
+    }
+
+    // Single driver.get to the filtered results; true when property cards showed up
+    static boolean openResultsDirect(WebDriver driver, SearchJob job) {
+        driver.get(SearchUrlBuilder.build(job));
+        handleOverlays(driver);
+        try {
+            newWait(driver).until(ExpectedConditions.visibilityOfElementLocated(
+                    By.cssSelector("div[data-testid='property-card']")
+            ));
+            return true;
+        } catch (TimeoutException e) {
+            Metrics.timeout("results-cards");
+            return false;
+        }
+    }
+
+    // Home page -> destination -> dates -> search -> filters, ending on a results page with property cards
+    static void runSearch(WebDriver driver, WebDriverWait wait, SearchJob job) {
+        driver.get("https://www.booking.com/");
+
+        handleOverlays(driver);
+
+        // Destination
+        WebElement destinationInput = wait.until(
+                ExpectedConditions.presenceOfElementLocated(By.cssSelector("input[name='ss']"))
+        );
+        focusElement(driver, destinationInput);
+        clearAndType(driver, destinationInput, job.destination());
+
+        // Autocomplete (SHORT wait only)
+        try {
+            WebDriverWait shortWait = new WebDriverWait(driver, SHORT_WAIT);
+            shortWait.pollingEvery(POLL);
+
+            List<WebElement> options = shortWait.until(
+                    ExpectedConditions.visibilityOfAllElementsLocatedBy(
+                            By.cssSelector("li[data-testid='autocomplete-result']")
+                    )
+            );
+
+            boolean clicked = false;
+            for (WebElement op : options) {
+                if (op.getText().toLowerCase().contains(job.autocompleteHint())) {
+                    jsClick(driver, op);
+                    clicked = true;
+                    break;
+                }
+            }
+            if (!clicked) destinationInput.sendKeys(Keys.ENTER);
+
+        } catch (TimeoutException ignored) {
+            destinationInput.sendKeys(Keys.ENTER);
+        }
+
+        // Dates
+        openCalendarFast(driver, wait);
+        switchToCalendarTabFast(driver);
+        pickDates(driver, wait, job.checkIn(), job.checkOut());
+
+        // Search
+        WebElement searchBtn = wait.until(ExpectedConditions.elementToBeClickable(
+                By.cssSelector("button[type='submit'][data-testid='searchbox-submit-button'], button[type='submit']")
+        ));
+        jsClick(driver, searchBtn);
+
+        // Wait results
+        wait.until(ExpectedConditions.visibilityOfElementLocated(
+                By.cssSelector("div[data-testid='property-card']")
+        ));
+
+        // ---------------- APPLY FILTERS ----------------
+        for (SearchFilter filter : job.filters()) {
+            clickFilterIfPresent(driver, wait, "filter:" + filter.name(), filter.locators());
         }
+
+        wait.until(ExpectedConditions.visibilityOfElementLocated(By.cssSelector("div[data-testid='property-card']")));
     }
 
     // ---------------- FIXED ROOM EXTRACTION ----------------
 
     private static void goToAvailabilitySection(WebDriver driver, WebDriverWait wait) {
-        // Try clicking a "See availability" / "Reserve" button if present
-        clickAnyIfPresent(driver,
-                By.xpath("//a[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'see availability')]"),
-                By.xpath("//button[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'see availability')]"),
-                By.xpath("//a[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'reserve')]"),
-                By.xpath("//button[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),\"i'll reserve\")]"),
+        try (RunTrace.Step step = RunTrace.current().step("go-to-availability")) {
+            try {
+                step.outcome(goToAvailabilitySectionInner(driver, wait));
+            } catch (Throwable e) {
+                step.failed(e);
+                throw e;
+            }
+        }
+    }
+
+    private static String goToAvailabilitySectionInner(WebDriver driver, WebDriverWait wait) {
+        // Try clicking a "See availability" / "Reserve" button if present: the page's own CTAs (as a link or
+        // a button) in either group, any button mentioning "reserve" only when none of them is there
+        clickAnyIfPresent(driver, "availability-cta",
+                LocatorRegistry.anyOf(
+                        By.xpath("//a[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'see availability')]"),
+                        By.xpath("//button[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'see availability')]")),
+                LocatorRegistry.anyOf(
+                        By.xpath("//a[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'reserve')]"),
+                        By.xpath("//button[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),\"i'll reserve\")]")),
                 By.xpath("//button[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'reserve')]")
         );
 
@@ -248,19 +448,18 @@ public class Main {
         // Scroll a bit and wait for "Room type" header or a table section
         for (int i = 0; i < 8; i++) {
             try {
-                hardHideCommonOverlays(driver);
-
                 List<WebElement> roomTypeHeaders = driver.findElements(
                         By.xpath("//*[normalize-space()='Room type' or contains(normalize-space(),'Room type')]")
                 );
                 if (!roomTypeHeaders.isEmpty()) {
                     ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView({block:'center'});", roomTypeHeaders.get(0));
-                    return;
+                    return i == 0 ? "hit" : "hit-after-scroll";
                 }
 
                 // Sometimes content loads only after scroll
+                DomSettle.arm(driver);
                 ((JavascriptExecutor) driver).executeScript("window.scrollBy(0, 900);");
-                Thread.sleep(400);
+                DomSettle.await(driver, "availability-scroll", Duration.ofSeconds(1));
             } catch (Exception ignored) {}
         }
 
@@ -269,10 +468,46 @@ public class Main {
             wait.until(ExpectedConditions.presenceOfElementLocated(
                     By.xpath("//*[contains(.,'Room type') and (self::div or self::table or self::section)]")
             ));
-        } catch (Exception ignored) {}
+            return "fallback";
+        } catch (Exception ignored) {
+            return "miss";
+        }
     }
 
-    private static List<RoomInfo> extractRoomsAndPrices(WebDriver driver) {
+    static List<RoomInfo> extractRoomsAndPrices(WebDriver driver) {
+        try (RunTrace.Step step = RunTrace.current().step("extract-rooms")) {
+            try {
+                List<RoomInfo> rooms = extractRoomsAndPricesInner(driver, step);
+                Metrics.rooms("browser", rooms.size());
+                return rooms;
+            } catch (Throwable e) {
+                step.failed(e);
+                throw e;
+            }
+        }
+    }
+
+    private static List<RoomInfo> extractRoomsAndPricesInner(WebDriver driver, RunTrace.Step step) {
+        // Rates from the captured availability JSON, when network extraction is selected
+        if (NetworkCapture.preferred()) {
+            try {
+                List<RoomInfo> rooms = NetworkCapture.rooms(driver);
+                if (!rooms.isEmpty()) return rooms;
+            } catch (Exception ignored) {}
+        }
+        // Single in-browser pass over the availability table / room cards
+        try {
+            List<RoomInfo> rooms = RoomTableExtractor.extract(driver);
+            if (!rooms.isEmpty()) return rooms;
+        } catch (Exception e) {
+            System.out.println("Room table walker failed (" + e.getMessage() + "), using XPath fallback");
+        }
+        List<RoomInfo> rooms = extractRoomsAndPricesLegacy(driver);
+        step.outcome(rooms.isEmpty() ? "miss" : "fallback");
+        return rooms;
+    }
+
+    static List<RoomInfo> extractRoomsAndPricesLegacy(WebDriver driver) {
         // Strategy:
         // 1) Find the availability container by locating the "Room type" header
         // 2) From that container, collect room-type text + nearest price "₹"
@@ -284,8 +519,9 @@ public class Main {
                 By.xpath("//*[normalize-space()='Room type' or contains(normalize-space(),'Room type')]")
         );
         if (!headers.isEmpty()) {
-            // go up to a big container that likely contains the whole table/cards
-            container = closest(headers.get(0),
+            // go up to a big container that likely contains the whole table/cards; nested ancestors, so the
+            // order is precedence and none of them is an anyOf alternative
+            container = closest(headers.get(0), "availability-container",
                     By.xpath("ancestor::section[1]"),
                     By.xpath("ancestor::div[1]"),
                     By.xpath("ancestor::div[2]"),
@@ -299,7 +535,6 @@ public class Main {
         // These cover BOTH your screenshots: blue room links + room headers
         List<WebElement> roomNameEls = container.findElements(By.xpath(
                 ".//a[normalize-space()!='' and (contains(@href,'#') or contains(@href,'room') or contains(@href,'h') )]" +
-                        "[contains(@class,'hprt') or contains(@class,'room') or contains(@class,'bui') or contains(@style,'color') or true()]" +
                         "| .//h3[normalize-space()!='']" +
                         "| .//h2[normalize-space()!='']"
         ));
@@ -319,7 +554,8 @@ public class Main {
 
             if (seen.contains(name)) continue;
 
-            WebElement rowOrCard = closest(nameEl,
+            // The row first: on a table page the nearest div with a price is the whole table, not the row
+            WebElement rowOrCard = closest(nameEl, "room-row",
                     By.xpath("ancestor::tr[1]"),
                     By.xpath("ancestor::div[contains(.,'₹')][1]"),
                     By.xpath("ancestor::div[1]"),
@@ -338,9 +574,10 @@ public class Main {
 
                 // Also try Booking price testids/classes (sometimes text not directly '₹' in same node)
                 if (price.isBlank() || price.equalsIgnoreCase("N/A")) {
-                    price = safeTextFrom(rowOrCard,
-                            By.cssSelector("span[data-testid='price-and-discounted-price']"),
-                            By.cssSelector("span[data-testid='price']"),
+                    price = safeTextFrom(rowOrCard, "room-price",
+                            LocatorRegistry.anyOf(
+                                    By.cssSelector("span[data-testid='price-and-discounted-price']"),
+                                    By.cssSelector("span[data-testid='price']")),
                             By.cssSelector("span[class*='prco']"),
                             By.cssSelector("div[data-testid*='price']")
                     );
@@ -357,10 +594,17 @@ public class Main {
         return out;
     }
 
-    private static String normalizePrice(String s) {
+    // Display text from the first currency marker (₹, €, US$, CHF, ...) up to "tax"; PriceParser does the numbers
+    static String normalizePrice(String s) {
         if (s == null) return "";
         String t = s.replace("\n", " ").replaceAll("\\s+", " ").trim();
-        int idx = t.indexOf("₹");
+        int idx = PriceParser.currencyStart(t);
+        if (idx >= 0 && t.substring(idx).chars().noneMatch(Character::isDigit)) {
+            // suffix symbol ("1.234,56 €"): start at the number in front of it
+            int start = idx;
+            while (start > 0 && (Character.isDigit(t.charAt(start - 1)) || " .,'".indexOf(t.charAt(start - 1)) >= 0)) start--;
+            idx = start;
+        }
         if (idx >= 0) {
             String sub = t.substring(idx).trim();
             // stop at double spaces or "tax" if present
@@ -371,13 +615,25 @@ public class Main {
         return t;
     }
 
-    private static WebElement closest(WebElement start, By... candidates) {
-        for (By by : candidates) {
+    private static WebElement closest(WebElement start, String target, By... candidates) {
+        LocatorRegistry registry = LocatorRegistry.shared();
+        By[] ordered = registry.order(target, candidates);
+        for (int i = 0; i < ordered.length; i++) {
+            By by = ordered[i];
+            long t0 = System.nanoTime();
+            Exception error = null;
             try {
                 List<WebElement> els = start.findElements(by);
-                if (!els.isEmpty()) return els.get(0);
-            } catch (Exception ignored) {}
+                if (!els.isEmpty()) {
+                    registry.hit(target, by, candidates, i + 1, System.nanoTime() - t0);
+                    return els.get(0);
+                }
+            } catch (Exception e) {
+                error = e;
+            }
+            registry.miss(target, by, System.nanoTime() - t0, error);
         }
+        registry.exhausted();
         return null;
     }
 
@@ -389,36 +645,91 @@ public class Main {
         }
     }
 
-    private static String safeTextFrom(WebElement root, By... locators) {
-        for (By by : locators) {
+    private static String safeTextFrom(WebElement root, String target, By... locators) {
+        LocatorRegistry registry = LocatorRegistry.shared();
+        By[] ordered = registry.order(target, locators);
+        for (int i = 0; i < ordered.length; i++) {
+            By by = ordered[i];
+            long t0 = System.nanoTime();
+            Exception error = null;
             try {
                 List<WebElement> els = root.findElements(by);
                 if (!els.isEmpty()) {
                     String t = els.get(0).getText();
-                    if (t != null && !t.trim().isBlank()) return t.trim();
+                    if (t != null && !t.trim().isBlank()) {
+                        registry.hit(target, by, locators, i + 1, System.nanoTime() - t0);
+                        return t.trim();
+                    }
                 }
-            } catch (Exception ignored) {}
+            } catch (Exception e) {
+                error = e;
+            }
+            registry.miss(target, by, System.nanoTime() - t0, error);
         }
+        registry.exhausted();
         return "";
     }
 
-    private static class RoomInfo {
-        String roomType;
-        String price;
+    // Immutable; every field repeats across rates and hotels, so all of them go through the shared Interner
+    static final class RoomInfo implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final String roomType;
+        final String price;
+        final String occupancy;
+        final String mealPlan;
+        final String cancellation;
         RoomInfo(String roomType, String price) {
-            this.roomType = roomType;
+            this(roomType, price, "", "", "");
+        }
+        RoomInfo(String roomType, String price, String occupancy, String mealPlan, String cancellation) {
+            // Prices are close to unique per rate, so only the low-cardinality texts are pooled
+            Interner in = Interner.shared();
+            this.roomType = in.intern(roomType);
             this.price = price;
+            this.occupancy = in.intern(occupancy);
+            this.mealPlan = in.intern(mealPlan);
+            this.cancellation = in.intern(cancellation);
+        }
+
+        boolean freeCancellation() {
+            return cancellation != null && cancellation.toLowerCase().contains("free cancellation");
+        }
+
+        // Deserialization (ResultCache) bypasses the constructor
+        private Object readResolve() {
+            return new RoomInfo(roomType, price, occupancy, mealPlan, cancellation);
         }
     }
 
     // ---------------- FILTER CLICK HELPERS ----------------
 
-    private static void clickFilterIfPresent(WebDriver driver, WebDriverWait wait, By... locators) {
-        for (By by : locators) {
+    private static void clickFilterIfPresent(WebDriver driver, WebDriverWait wait, String target, By... locators) {
+        try (RunTrace.Step step = RunTrace.current().step(target)) {
+            try {
+                if (clickFirstFilterMatch(driver, target, locators)) return;
+                step.outcome("miss");
+            } catch (Throwable e) {
+                step.failed(e);
+                throw e;
+            }
+        }
+        System.out.println("Filter not found for locators: " + locators.length);
+    }
+
+    private static boolean clickFirstFilterMatch(WebDriver driver, String target, By... locators) {
+        LocatorRegistry registry = LocatorRegistry.shared();
+        By[] ordered = registry.order(target, locators);
+        for (int i = 0; i < ordered.length; i++) {
+            By by = ordered[i];
+            long t0 = System.nanoTime();
+            Exception error = null;
             try {
                 List<WebElement> els = driver.findElements(by);
                 if (!els.isEmpty()) {
+                    long found = System.nanoTime() - t0;
                     WebElement el = els.get(0);
+                    DomSettle.arm(driver);
 
                     if ("input".equalsIgnoreCase(el.getTagName())) {
                         try {
@@ -436,39 +747,86 @@ public class Main {
                         jsClick(driver, el);
                     }
 
+                    // only a click that went through counts; a throw above is recorded as a miss
+                    registry.hit(target, by, locators, i + 1, found);
                     waitSmallDomUpdate(driver);
-                    return;
+                    return true;
                 }
-            } catch (Exception ignored) {}
+            } catch (Exception e) {
+                error = e;
+            }
+            registry.miss(target, by, System.nanoTime() - t0, error);
         }
-        System.out.println("Filter not found for locators: " + locators.length);
+        registry.exhausted();
+        return false;
     }
 
     private static void waitSmallDomUpdate(WebDriver driver) {
-        try { Thread.sleep(700); } catch (InterruptedException ignored) {}
+        DomSettle.await(driver, "filter", Duration.ofSeconds(2));
     }
 
     // ---------------- FAST OVERLAY HANDLING ----------------
 
+    // OverlayGuard clears overlays as they appear; the sweeps below only run when one is still showing
+    private static void handleOverlays(WebDriver driver) {
+        try (RunTrace.Step step = RunTrace.current().step("overlays")) {
+            try {
+                if (!OverlayGuard.blocking(driver)) {
+                    step.outcome("clear");
+                    return;
+                }
+                dismissOverlaysQuick(driver);
+                hardHideCommonOverlays(driver);
+                step.outcome("swept");
+            } catch (Throwable e) {
+                step.failed(e);
+                throw e;
+            }
+        }
+    }
+
+    private static void saveSession(WebDriver driver) {
+        try {
+            Optional<SessionSnapshot> snapshot = SessionSnapshot.capture(driver);
+            if (snapshot.isPresent()) {
+                snapshot.get().save(SessionSnapshot.file());
+                System.out.println("Session saved for the next run: " + snapshot.get());
+            }
+        } catch (Exception e) {
+            System.out.println("Session not saved: " + e.getMessage());
+        }
+    }
+
     private static void dismissOverlaysQuick(WebDriver driver) {
-        clickIfPresent(driver, By.id("onetrust-accept-btn-handler"));
-        clickIfPresent(driver, By.cssSelector("button[data-testid='cookie-policy-dialog-accept-button']"));
-        clickIfPresent(driver, By.cssSelector("button[aria-label='Dismiss']"));
-        clickIfPresent(driver, By.cssSelector("button[aria-label='Close']"));
-        try { new Actions(driver).moveByOffset(5, 5).click().perform(); } catch (Exception ignored) {}
+        try (RunTrace.Step step = RunTrace.current().step("dismiss-overlays")) {
+            try {
+                clickIfPresent(driver, By.id("onetrust-accept-btn-handler"));
+                clickIfPresent(driver, By.cssSelector("button[data-testid='cookie-policy-dialog-accept-button']"));
+                clickIfPresent(driver, By.cssSelector("button[aria-label='Dismiss']"));
+                clickIfPresent(driver, By.cssSelector("button[aria-label='Close']"));
+            } catch (Throwable e) {
+                step.failed(e);
+                throw e;
+            }
+        }
     }
 
     private static void hardHideCommonOverlays(WebDriver driver) {
-        try {
-            JavascriptExecutor js = (JavascriptExecutor) driver;
-            js.executeScript(
-                    "document.querySelectorAll(" +
-                            "'div[role=\"dialog\"], div[role=\"alertdialog\"], " +
-                            "div[class*=\"backdrop\"], div[class*=\"overlay\"], div[class*=\"modal\"], " +
-                            "div[aria-modal=\"true\"], div[data-testid*=\"modal\"], div[data-testid*=\"overlay\"], " +
-                            "div.bbe73dce14'" +
-                            ").forEach(e => { e.style.display='none'; e.style.visibility='hidden'; });"
-            );
+        try (RunTrace.Step step = RunTrace.current().step("hide-overlays")) {
+            try {
+                JavascriptExecutor js = (JavascriptExecutor) driver;
+                js.executeScript(
+                        "document.querySelectorAll(" +
+                                "'div[role=\"dialog\"], div[role=\"alertdialog\"], " +
+                                "div[class*=\"backdrop\"], div[class*=\"overlay\"], div[class*=\"modal\"], " +
+                                "div[aria-modal=\"true\"], div[data-testid*=\"modal\"], div[data-testid*=\"overlay\"], " +
+                                "div.bbe73dce14'" +
+                                ").forEach(e => { e.style.display='none'; e.style.visibility='hidden'; });"
+                );
+            } catch (Throwable e) {
+                step.failed(e);
+                throw e;
+            }
         } catch (Exception ignored) {}
     }
 
@@ -503,17 +861,29 @@ public class Main {
         } catch (Exception ignored) {}
     }
 
-    private static void clickAnyIfPresent(WebDriver driver, By... locators) {
-        for (By by : locators) {
+    private static void clickAnyIfPresent(WebDriver driver, String target, By... locators) {
+        LocatorRegistry registry = LocatorRegistry.shared();
+        By[] ordered = registry.order(target, locators);
+        for (int i = 0; i < ordered.length; i++) {
+            By by = ordered[i];
+            long t0 = System.nanoTime();
+            Exception error = null;
             try {
                 List<WebElement> els = driver.findElements(by);
                 if (!els.isEmpty() && els.get(0).isDisplayed()) {
+                    long found = System.nanoTime() - t0;
+                    DomSettle.arm(driver);
                     jsClick(driver, els.get(0));
-                    Thread.sleep(400);
+                    registry.hit(target, by, locators, i + 1, found);
+                    DomSettle.await(driver, "click", Duration.ofSeconds(1));
                     return;
                 }
-            } catch (Exception ignored) {}
+            } catch (Exception e) {
+                error = e;
+            }
+            registry.miss(target, by, System.nanoTime() - t0, error);
         }
+        registry.exhausted();
     }
 
     private static void openInNewTab(WebDriver driver, WebElement el) {
@@ -529,16 +899,22 @@ public class Main {
     // ---------------- FAST CALENDAR ----------------
 
     private static void openCalendarFast(WebDriver driver, WebDriverWait wait) {
-        dismissOverlaysQuick(driver);
-        hardHideCommonOverlays(driver);
+        try (RunTrace.Step step = RunTrace.current().step("open-calendar")) {
+            try {
+                handleOverlays(driver);
 
-        By opener = By.cssSelector("span[data-testid='date-display-field-start'], button[data-testid='date-display-field-start']");
-        WebElement el = wait.until(ExpectedConditions.presenceOfElementLocated(opener));
-        jsClick(driver, el);
+                By opener = By.cssSelector("span[data-testid='date-display-field-start'], button[data-testid='date-display-field-start']");
+                WebElement el = wait.until(ExpectedConditions.presenceOfElementLocated(opener));
+                jsClick(driver, el);
 
-        wait.until(ExpectedConditions.visibilityOfElementLocated(
-                By.cssSelector("div[role='dialog'], [data-testid='searchbox-datepicker-calendar']")
-        ));
+                wait.until(ExpectedConditions.visibilityOfElementLocated(
+                        By.cssSelector("div[role='dialog'], [data-testid='searchbox-datepicker-calendar']")
+                ));
+            } catch (Throwable e) {
+                step.failed(e);
+                throw e;
+            }
+        }
     }
 
     private static void switchToCalendarTabFast(WebDriver driver) {
@@ -548,18 +924,47 @@ public class Main {
         } catch (Exception ignored) {}
     }
 
+    // One scripted jump for both dates; month-by-month clicking for whatever the jump did not pick, or for
+    // both with -Dbooking.datePick=click. A calendar that closed on the way is reopened and both dates redone.
+    private static void pickDates(WebDriver driver, WebDriverWait wait, LocalDate checkIn, LocalDate checkOut) {
+        boolean checkInPicked = false;
+        if (DateRangePicker.Mode.fromProperty() == DateRangePicker.Mode.JUMP) {
+            DateRangePicker.Result jump = DateRangePicker.pick(driver, checkIn, checkOut, Duration.ofSeconds(10));
+            if (jump.ok()) return;
+            checkInPicked = jump.checkInPicked();
+            if (!isPresentDisplayed(driver, By.cssSelector("[data-testid='searchbox-datepicker-calendar'], div[role='dialog']"))) {
+                openCalendarFast(driver, wait);
+                switchToCalendarTabFast(driver);
+                checkInPicked = false;
+            }
+        }
+        if (!checkInPicked) pickDateFast(driver, wait, checkIn);
+        pickDateFast(driver, wait, checkOut);
+    }
+
     private static void pickDateFast(WebDriver driver, WebDriverWait wait, LocalDate date) {
+        try (RunTrace.Step step = RunTrace.current().step("pick-date")) {
+            try {
+                int months = pickDateFastInner(driver, wait, date);
+                step.outcome(months == 0 ? "hit" : "next-month-x" + months);
+            } catch (Throwable e) {
+                step.failed(e);
+                throw e;
+            }
+        }
+    }
+
+    // Returns how many times "Next month" had to be clicked
+    private static int pickDateFastInner(WebDriver driver, WebDriverWait wait, LocalDate date) {
         String target = date.format(DATE);
 
         for (int i = 0; i < 10; i++) {
-            hardHideCommonOverlays(driver);
-
             List<WebElement> day = driver.findElements(
                     By.cssSelector("span[data-date='" + target + "'], td[data-date='" + target + "']")
             );
             if (!day.isEmpty()) {
                 jsClick(driver, day.get(0));
-                return;
+                return i;
             }
 
             List<WebElement> next = driver.findElements(
@@ -580,16 +985,29 @@ public class Main {
     // ---------------- WINDOW + CHECKS + SCREENSHOT ----------------
 
     private static void switchToNewWindow(WebDriver driver, String parentWindow) {
-        for (int i = 0; i < 25; i++) {
-            for (String handle : driver.getWindowHandles()) {
-                if (!handle.equals(parentWindow)) {
+        long t0 = System.nanoTime();
+        try (RunTrace.Step step = RunTrace.current().step("switch-window")) {
+            try {
+                try {
+                    WebDriverWait windowWait = new WebDriverWait(driver, Duration.ofSeconds(5));
+                    windowWait.pollingEvery(POLL);
+                    String handle = windowWait.until(d -> d.getWindowHandles().stream()
+                            .filter(h -> !h.equals(parentWindow))
+                            .findFirst()
+                            .orElse(null));
                     driver.switchTo().window(handle);
-                    return;
+                    System.out.println("New window after " + (System.nanoTime() - t0) / 1_000_000 + " ms");
+                } catch (TimeoutException e) {
+                    step.outcome("miss");
+                    Metrics.timeout("switch-window");
+                    System.out.println("No new window after " + (System.nanoTime() - t0) / 1_000_000 + " ms, staying on parent");
+                    driver.switchTo().window(parentWindow);
                 }
+            } catch (Throwable e) {
+                step.failed(e);
+                throw e;
             }
-            try { Thread.sleep(200); } catch (InterruptedException ignored) {}
         }
-        driver.switchTo().window(parentWindow);
     }
 
     private static boolean isPresentDisplayed(WebDriver driver, By by) {
@@ -601,19 +1019,20 @@ public class Main {
         }
     }
 
-    private static void takeScreenshot(WebDriver driver, String fileName) throws Exception {
-        File src = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-        Files.copy(src.toPath(), Path.of(fileName), StandardCopyOption.REPLACE_EXISTING);
+    // Queued for the background writer; the flow does not wait for the file
+    static void screenshot(WebDriver driver, String step) {
+        Path file = ArtifactPipeline.shared().capture(driver, step);
+        if (file != null) System.out.println("Screenshot queued: " + file);
     }
 
     // ---------------- SAFE GETTERS ----------------
 
-    private static String getTextSafe(WebElement parent, By by, String fallback) {
+    static String getTextSafe(WebElement parent, By by, String fallback) {
         try { return parent.findElement(by).getText().trim(); }
         catch (Exception e) { return fallback; }
     }
 
-    private static String getAttrSafe(WebElement parent, By by, String attr, String fallback) {
+    static String getAttrSafe(WebElement parent, By by, String attr, String fallback) {
         try {
             String v = parent.findElement(by).getAttribute(attr);
             return (v == null || v.isBlank()) ? fallback : v;
@@ -0,0 +1,85 @@
+package org.example;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The crawl's metrics in one place, so call sites stay one line and the progress page (MetricsServer)
+// knows what to read. Sources are "browser" and "static" (StaticHtmlExtractor).
+final class Metrics {
+
+    private static final MetricsRegistry R = MetricsRegistry.shared();
+
+    static final MetricsRegistry.Counter WEBDRIVER_CALLS =
+            R.counter("booking_webdriver_calls_total", "WebDriver commands sent to a browser");
+    static final MetricsRegistry.Counter JOBS_PLANNED =
+            R.counter("booking_jobs_planned_total", "Jobs submitted to SearchEngine / BatchRunner");
+    static final MetricsRegistry.Counter DRIVERS_STARTED =
+            R.counter("booking_drivers_started_total", "Browser sessions started by driver pools");
+    static final MetricsRegistry.Counter DETAIL_RETRIES =
+            R.counter("booking_detail_retries_total", "Detail pages queued again after a failure");
+    static final MetricsRegistry.Histogram DRIVER_WAIT =
+            R.timer("booking_driver_acquire_seconds", "Time spent waiting for a driver pool permit");
+
+    private static final AtomicInteger DRIVERS_IN_USE = new AtomicInteger();
+    private static final Map<String, AtomicInteger> ACTIVE_STEPS = new ConcurrentHashMap<>();
+
+    static {
+        R.gauge("booking_drivers_in_use", "Drivers currently leased from a pool", DRIVERS_IN_USE::get);
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        R.gauge("booking_jvm_heap_used_bytes", "Used JVM heap", () -> memory.getHeapMemoryUsage().getUsed());
+        R.gauge("booking_jvm_threads", "Live JVM threads", () -> ManagementFactory.getThreadMXBean().getThreadCount());
+    }
+
+    private Metrics() {}
+
+    static void pages(String source, long n) {
+        R.counter("booking_pages_loaded_total", "Results and detail pages loaded", "source", source).add(n);
+    }
+
+    static void cards(String source, long n) {
+        R.counter("booking_cards_extracted_total", "Property cards extracted", "source", source).add(n);
+    }
+
+    static void rooms(String source, long n) {
+        R.counter("booking_rooms_extracted_total", "Room rates extracted", "source", source).add(n);
+    }
+
+    static void job(String status) {
+        R.counter("booking_jobs_total", "Finished jobs by status", "status", status).inc();
+    }
+
+    static void timeout(String where) {
+        R.counter("booking_timeouts_total", "Waits that gave up", "where", where).inc();
+    }
+
+    static void slept(String where, long millis) {
+        R.timer("booking_sleep_seconds", "Deliberate sleeps (retry backoff)", "where", where).observe(millis / 1000.0);
+    }
+
+    static void driverLeased() {
+        DRIVERS_IN_USE.incrementAndGet();
+    }
+
+    static void driverReturned(String reason) {
+        DRIVERS_IN_USE.decrementAndGet();
+        if (reason != null) R.counter("booking_drivers_recycled_total", "Drivers quit by a pool", "reason", reason).inc();
+    }
+
+    // RunTrace steps: how many are running right now (a stuck wait shows up here), how long they took, how they ended
+    static void stepStarted(String step) {
+        ACTIVE_STEPS.computeIfAbsent(step, s -> {
+            AtomicInteger active = new AtomicInteger();
+            R.gauge("booking_steps_active", "RunTrace steps in progress", active::get, "step", s);
+            return active;
+        }).incrementAndGet();
+    }
+
+    static void stepFinished(String step, String outcome, long nanos) {
+        ACTIVE_STEPS.get(step).decrementAndGet();
+        R.timer("booking_step_seconds", "RunTrace step durations", "step", step).observeNanos(nanos);
+        R.counter("booking_step_outcomes_total", "RunTrace steps by outcome", "step", step, "outcome", outcome).inc();
+    }
+}
@@ -0,0 +1,163 @@
+package org.example;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+// In-process metrics of a running crawl: counters, gauges and histograms keyed by name + label pairs,
+// rendered in the Prometheus text format (MetricsServer serves them). Recording is lock-free (LongAdder),
+// so hot paths such as CallCounter can count every WebDriver command. Label values must come from a
+// small fixed set (step names, statuses), never from URLs or hotel names.
+public final class MetricsRegistry {
+
+    // Seconds; from a quick script call up to a stuck WebDriverWait
+    public static final double[] SECONDS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60};
+
+    private static final MetricsRegistry SHARED = new MetricsRegistry();
+
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    public static MetricsRegistry shared() {
+        return SHARED;
+    }
+
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void inc() { value.increment(); }
+        public void add(long n) { value.add(n); }
+        public long get() { return value.sum(); }
+    }
+
+    public static final class Histogram {
+        private final double[] bounds;
+        private final LongAdder[] buckets;
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder sum = new DoubleAdder();
+
+        Histogram(double[] bounds) {
+            this.bounds = bounds;
+            this.buckets = new LongAdder[bounds.length];
+            for (int i = 0; i < bounds.length; i++) buckets[i] = new LongAdder();
+        }
+
+        public void observe(double v) {
+            for (int i = 0; i < bounds.length; i++) {
+                if (v <= bounds[i]) {
+                    buckets[i].increment();
+                    break;
+                }
+            }
+            count.increment();
+            sum.add(v);
+        }
+
+        public void observeNanos(long nanos) {
+            observe(nanos / 1e9);
+        }
+
+        public long count() { return count.sum(); }
+        public double sum() { return sum.sum(); }
+    }
+
+    private enum Type { COUNTER, GAUGE, HISTOGRAM }
+
+    private static final class Family {
+        final String name, help;
+        final Type type;
+        final Map<String, Object> series = new ConcurrentHashMap<>(); // rendered labels -> metric
+
+        Family(String name, String help, Type type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+    }
+
+    // labels: name/value pairs, e.g. counter("booking_jobs_total", "...", "status", "ok")
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, Type.COUNTER).series.computeIfAbsent(labels(labels), k -> new Counter());
+    }
+
+    public Histogram timer(String name, String help, String... labels) {
+        return histogram(name, help, SECONDS, labels);
+    }
+
+    public Histogram histogram(String name, String help, double[] bounds, String... labels) {
+        return (Histogram) family(name, help, Type.HISTOGRAM).series.computeIfAbsent(labels(labels), k -> new Histogram(bounds));
+    }
+
+    // Read at scrape time; registering the same name + labels again replaces the supplier
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, help, Type.GAUGE).series.put(labels(labels), value);
+    }
+
+    private Family family(String name, String help, Type type) {
+        Family f = families.computeIfAbsent(name, n -> new Family(n, help, type));
+        if (f.type != type) throw new IllegalArgumentException(name + " is already a " + f.type.name().toLowerCase());
+        return f;
+    }
+
+    // Prometheus text exposition format 0.0.4
+    public String scrape() {
+        StringBuilder out = new StringBuilder(8192);
+        for (Family f : families.values()) {
+            out.append("# HELP ").append(f.name).append(' ').append(f.help).append('\n')
+                    .append("# TYPE ").append(f.name).append(' ').append(f.type.name().toLowerCase()).append('\n');
+            for (Map.Entry<String, Object> e : new ConcurrentSkipListMap<>(f.series).entrySet()) {
+                String labels = e.getKey();
+                switch (f.type) {
+                    case COUNTER -> sample(out, f.name, labels, ((Counter) e.getValue()).get());
+                    case GAUGE -> sample(out, f.name, labels, ((DoubleSupplier) e.getValue()).getAsDouble());
+                    case HISTOGRAM -> {
+                        Histogram h = (Histogram) e.getValue();
+                        long cumulative = 0;
+                        for (int i = 0; i < h.bounds.length; i++) {
+                            cumulative += h.buckets[i].sum();
+                            sample(out, f.name + "_bucket", with(labels, "le=\"" + h.bounds[i] + "\""), cumulative);
+                        }
+                        long count = h.count();
+                        sample(out, f.name + "_bucket", with(labels, "le=\"+Inf\""), count);
+                        sample(out, f.name + "_sum", labels, h.sum());
+                        sample(out, f.name + "_count", labels, count);
+                    }
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (!labels.isEmpty()) out.append('{').append(labels).append('}');
+        out.append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value)) out.append((long) value);
+        else out.append(value);
+        out.append('\n');
+    }
+
+    private static String with(String labels, String extra) {
+        return labels.isEmpty() ? extra : labels + "," + extra;
+    }
+
+    private static String labels(String[] pairs) {
+        if (pairs.length % 2 != 0) throw new IllegalArgumentException("labels must be name/value pairs");
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < pairs.length; i += 2) {
+            if (i > 0) sb.append(',');
+            sb.append(pairs[i]).append("=\"");
+            String v = pairs[i + 1] == null ? "" : pairs[i + 1];
+            for (int j = 0; j < v.length(); j++) {
+                char c = v.charAt(j);
+                if (c == '\\' || c == '"') sb.append('\\').append(c);
+                else if (c == '\n') sb.append("\\n");
+                else sb.append(c);
+            }
+            sb.append('"');
+        }
+        return sb.toString();
+    }
+}
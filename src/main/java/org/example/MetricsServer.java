@@ -0,0 +1,140 @@
+package org.example;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+// Local HTTP view of a running crawl: /metrics is MetricsRegistry in Prometheus text format, / is a live
+// progress page that polls it every 2 s (jobs, pages/min, cards, rooms, WebDriver calls/s, timeouts, steps
+// in progress and their mean time). Loopback only.
+//   -Dbooking.metricsPort (unset = off, 0 = any free port)
+public final class MetricsServer implements AutoCloseable {
+
+    private static MetricsServer shared;
+
+    private final HttpServer server;
+
+    public MetricsServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/metrics", ex -> send(ex, "text/plain; version=0.0.4; charset=utf-8", MetricsRegistry.shared().scrape()));
+        server.createContext("/", ex -> send(ex, "text/html; charset=utf-8", PAGE));
+        server.setExecutor(null);
+        // HttpServer's dispatcher inherits the starting thread's daemon flag; from a daemon thread it never
+        // keeps a finished crawl's JVM alive, so no entry point has to close it
+        Thread starter = Threads.factory("metrics-server", Threads.Mode.PLATFORM).newThread(server::start);
+        starter.start();
+        try {
+            starter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Started once per JVM by each entry point; a port that is taken only costs the dashboard
+    public static synchronized void startFromProperties() {
+        Integer port = Integer.getInteger("booking.metricsPort");
+        if (port == null || shared != null) return;
+        try {
+            shared = new MetricsServer(port);
+            System.out.println("Metrics: " + shared.url() + " (Prometheus: " + shared.url() + "metrics)");
+        } catch (IOException e) {
+            System.out.println("Metrics endpoint unavailable on port " + port + ": " + e.getMessage());
+        }
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    private static void send(HttpExchange ex, String type, String body) throws IOException {
+        try (ex) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            ex.getResponseHeaders().set("Content-Type", type);
+            ex.getResponseHeaders().set("Cache-Control", "no-store");
+            ex.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = ex.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private static final String PAGE = """
+            <!doctype html>
+            <html><head><meta charset="utf-8"><title>booking crawl</title>
+            <style>
+              body { font: 14px system-ui, sans-serif; margin: 24px; color: #222 }
+              table { border-collapse: collapse; margin-bottom: 20px }
+              td, th { padding: 3px 14px 3px 0; text-align: left } td.n { text-align: right; font-variant-numeric: tabular-nums }
+              .warn { color: #b00 } small { color: #888 }
+            </style></head>
+            <body>
+            <h2>Crawl progress <small id="at"></small></h2>
+            <table id="totals"></table>
+            <h3>Steps</h3>
+            <table id="steps"><tr><th>step</th><th>running</th><th>done</th><th>mean ms</th><th>not ok</th></tr></table>
+            <script>
+            let prev = null, prevAt = 0;
+            const parse = text => {
+              const m = {};
+              for (const line of text.split('\\n')) {
+                if (!line || line[0] === '#') continue;
+                const i = line.lastIndexOf(' ');
+                m[line.slice(0, i)] = parseFloat(line.slice(i + 1));
+              }
+              return m;
+            };
+            const sum = (m, prefix, filter) => Object.keys(m)
+              .filter(k => (k === prefix || k.startsWith(prefix + '{')) && (!filter || k.includes(filter)))
+              .reduce((s, k) => s + m[k], 0);
+            const label = (k, name) => { const r = k.match(new RegExp(name + '="([^"]*)"')); return r ? r[1] : ''; };
+            const fmt = v => Number.isInteger(v) ? v.toLocaleString() : v.toFixed(1);
+            async function tick() {
+              const m = parse(await (await fetch('/metrics')).text());
+              const now = Date.now(), dt = prev ? (now - prevAt) / 1000 : 0;
+              const rate = (name, per) => prev && dt > 0 ? (sum(m, name) - sum(prev, name)) / dt * per : 0;
+              const done = sum(m, 'booking_jobs_total'), planned = sum(m, 'booking_jobs_planned_total');
+              const rows = [
+                ['jobs', fmt(done) + (planned ? ' / ' + fmt(planned) : ''), 'failed ' + fmt(sum(m, 'booking_jobs_total', 'status="error"') + sum(m, 'booking_jobs_total', 'status="failed"'))],
+                ['pages', fmt(sum(m, 'booking_pages_loaded_total')), fmt(rate('booking_pages_loaded_total', 60)) + ' /min'],
+                ['cards', fmt(sum(m, 'booking_cards_extracted_total')), fmt(rate('booking_cards_extracted_total', 60)) + ' /min'],
+                ['rooms', fmt(sum(m, 'booking_rooms_extracted_total')), fmt(rate('booking_rooms_extracted_total', 60)) + ' /min'],
+                ['WebDriver calls', fmt(sum(m, 'booking_webdriver_calls_total')), fmt(rate('booking_webdriver_calls_total', 1)) + ' /s'],
+                ['timeouts', fmt(sum(m, 'booking_timeouts_total')), fmt(rate('booking_timeouts_total', 60)) + ' /min'],
+                ['drivers', fmt(sum(m, 'booking_drivers_in_use')) + ' in use', fmt(sum(m, 'booking_drivers_started_total')) + ' started'],
+                ['driver wait', fmt(1000 * sum(m, 'booking_driver_acquire_seconds_sum') / Math.max(1, sum(m, 'booking_driver_acquire_seconds_count'))) + ' ms mean', ''],
+                ['heap', fmt(sum(m, 'booking_jvm_heap_used_bytes') / 1048576) + ' MB', fmt(sum(m, 'booking_jvm_threads')) + ' threads'],
+              ];
+              document.getElementById('totals').innerHTML = rows
+                .map(r => '<tr><th>' + r[0] + '</th><td class="n">' + r[1] + '</td><td>' + r[2] + '</td></tr>').join('');
+              const steps = {};
+              for (const k of Object.keys(m)) {
+                const s = label(k, 'step');
+                if (!s) continue;
+                const e = steps[s] = steps[s] || { active: 0, count: 0, sum: 0, bad: 0 };
+                if (k.startsWith('booking_steps_active')) e.active = m[k];
+                else if (k.startsWith('booking_step_seconds_count')) e.count = m[k];
+                else if (k.startsWith('booking_step_seconds_sum')) e.sum = m[k];
+                else if (k.startsWith('booking_step_outcomes_total') && label(k, 'outcome') !== 'ok') e.bad += m[k];
+              }
+              document.getElementById('steps').innerHTML = '<tr><th>step</th><th>running</th><th>done</th><th>mean ms</th><th>not ok</th></tr>'
+                + Object.entries(steps).sort((a, b) => b[1].sum - a[1].sum).map(([s, e]) =>
+                  '<tr' + (e.active > 0 ? ' class="warn"' : '') + '><td>' + s + '</td><td class="n">' + e.active + '</td><td class="n">' + fmt(e.count)
+                  + '</td><td class="n">' + fmt(e.count ? 1000 * e.sum / e.count : 0) + '</td><td class="n">' + fmt(e.bad) + '</td></tr>').join('');
+              document.getElementById('at').textContent = new Date().toLocaleTimeString();
+              prev = m; prevAt = now;
+            }
+            tick(); setInterval(() => tick().catch(() => {}), 2000);
+            </script>
+            </body></html>
+            """;
+}
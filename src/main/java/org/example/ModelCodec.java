@@ -0,0 +1,246 @@
+package org.example;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Binary stream of RoomRate observations: "BKOBS" 0 0 1, then tagged records
+//   'Q' query : str destination, varint checkIn epoch day, varint nights, varint filter bits, varint adults, varint rooms
+//   'H' hotel : str name, str price, str rating, url image, byte flags, url url
+//   'R' rate  : varint query id, varint hotel id, str roomType, zlong price, zlong original, zlong taxes,
+//               str currency, byte persons, byte flags, str mealPlan, str cancellation
+// A query or hotel is written once, just before the first rate that refers to it, and by id after that.
+// Strings are dictionary-coded as they go: varint 0 = literal (length + UTF-8), 1 = literal that takes the
+// next id, n >= 2 = the string with id n - 2. The dictionary stops growing at MAX_DICT entries. URLs are
+// split after the last '/', so a CDN or site prefix is a dictionary hit and only the file name is text.
+// A repeated rate costs ~15 bytes; the reader hands back one String per dictionary entry.
+public final class ModelCodec {
+
+    static final byte[] MAGIC = {'B', 'K', 'O', 'B', 'S', 0, 0, 1};
+    static final int MAX_DICT = 1 << 20;
+
+    private ModelCodec() {}
+
+    public static void write(Path file, Iterable<RoomRate> rates) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        try (Writer out = new Writer(Files.newOutputStream(file))) {
+            for (RoomRate r : rates) out.write(r);
+        }
+    }
+
+    public static long read(Path file, Consumer<RoomRate> consumer) throws IOException {
+        long n = 0;
+        try (Reader in = new Reader(Files.newInputStream(file))) {
+            for (RoomRate r; (r = in.next()) != null; n++) consumer.accept(r);
+        }
+        return n;
+    }
+
+    public static final class Writer implements Closeable {
+        private final DataOutputStream out;
+        private final Map<String, Integer> strings = new HashMap<>();
+        private final Map<SearchJob, Integer> queries = new HashMap<>();
+        private final Map<HotelCard, Integer> hotels = new HashMap<>();
+
+        public Writer(OutputStream out) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+            this.out.write(MAGIC);
+        }
+
+        public void write(RoomRate r) throws IOException {
+            int q = queryId(r.query());
+            int h = hotelId(r.hotel());
+            out.writeByte('R');
+            varint(q);
+            varint(h);
+            string(r.roomType());
+            zlong(r.priceMinor());
+            zlong(r.originalMinor());
+            zlong(r.taxesMinor());
+            string(r.currency());
+            out.writeByte(r.persons());
+            out.writeByte(r.flags());
+            string(r.mealPlan());
+            string(r.cancellation());
+        }
+
+        public long size() {
+            return out.size();
+        }
+
+        private int queryId(SearchJob q) throws IOException {
+            Integer id = queries.get(q);
+            if (id != null) return id;
+            out.writeByte('Q');
+            string(q.destination());
+            varint(q.checkIn().toEpochDay());
+            varint(q.checkOut().toEpochDay() - q.checkIn().toEpochDay());
+            long bits = 0;
+            for (SearchFilter f : q.filters()) bits |= 1L << f.ordinal();
+            varint(bits);
+            varint(q.adults());
+            varint(q.rooms());
+            queries.put(q, queries.size());
+            return queries.size() - 1;
+        }
+
+        private int hotelId(HotelCard c) throws IOException {
+            Integer id = hotels.get(c);
+            if (id != null) return id;
+            out.writeByte('H');
+            string(c.name());
+            string(c.price());
+            string(c.rating());
+            url(c.imageUrl());
+            out.writeByte(c.flags());
+            url(c.url());
+            hotels.put(c, hotels.size());
+            return hotels.size() - 1;
+        }
+
+        private void url(String url) throws IOException {
+            String u = url == null ? "" : url;
+            int cut = u.lastIndexOf('/') + 1;
+            string(u.substring(0, cut));
+            string(u.substring(cut));
+        }
+
+        private void string(String s) throws IOException {
+            String v = s == null ? "" : s;
+            Integer id = strings.get(v);
+            if (id != null) {
+                varint(id + 2L);
+                return;
+            }
+            boolean add = strings.size() < MAX_DICT;
+            if (add) strings.put(v, strings.size());
+            byte[] b = v.getBytes(StandardCharsets.UTF_8);
+            varint(add ? 1 : 0);
+            varint(b.length);
+            out.write(b);
+        }
+
+        private void zlong(long v) throws IOException {
+            varint((v << 1) ^ (v >> 63));
+        }
+
+        private void varint(long v) throws IOException {
+            while ((v & ~0x7FL) != 0) {
+                out.writeByte((int) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            out.writeByte((int) v);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    public static final class Reader implements Closeable {
+        private static final SearchFilter[] FILTERS = SearchFilter.values();
+
+        private final DataInputStream in;
+        private final List<String> strings = new ArrayList<>();
+        private final List<SearchJob> queries = new ArrayList<>();
+        private final List<HotelCard> hotels = new ArrayList<>();
+
+        public Reader(InputStream in) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+            byte[] magic = new byte[MAGIC.length];
+            this.in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) throw new IOException("not a room-rate stream");
+        }
+
+        // null at the end of the stream
+        public RoomRate next() throws IOException {
+            while (true) {
+                int tag;
+                try {
+                    tag = in.readUnsignedByte();
+                } catch (EOFException e) {
+                    return null;
+                }
+                switch (tag) {
+                    case 'Q' -> queries.add(query());
+                    case 'H' -> hotels.add(hotel());
+                    case 'R' -> {
+                        return new RoomRate(queries.get((int) varint()), hotels.get((int) varint()), string(),
+                                zlong(), zlong(), zlong(), string(), in.readByte(), in.readByte(), string(), string());
+                    }
+                    default -> throw new IOException("unknown record tag " + tag);
+                }
+            }
+        }
+
+        private SearchJob query() throws IOException {
+            String destination = string();
+            LocalDate checkIn = LocalDate.ofEpochDay(varint());
+            LocalDate checkOut = checkIn.plusDays(varint());
+            long bits = varint();
+            Set<SearchFilter> filters = EnumSet.noneOf(SearchFilter.class);
+            for (SearchFilter f : FILTERS) if ((bits & (1L << f.ordinal())) != 0) filters.add(f);
+            return new SearchJob(destination, checkIn, checkOut, filters, (int) varint(), (int) varint());
+        }
+
+        private HotelCard hotel() throws IOException {
+            String name = string(), price = string(), rating = string(), image = url();
+            int flags = in.readByte();
+            return new HotelCard(name, price, rating, image, (flags & HotelCard.BREAKFAST) != 0,
+                    (flags & HotelCard.FREE_CANCELLATION) != 0, url());
+        }
+
+        private String url() throws IOException {
+            return string().concat(string());
+        }
+
+        private String string() throws IOException {
+            long code = varint();
+            if (code >= 2) return strings.get((int) (code - 2));
+            byte[] b = new byte[(int) varint()];
+            in.readFully(b);
+            String s = new String(b, StandardCharsets.UTF_8);
+            if (code == 1) strings.add(s);
+            return s;
+        }
+
+        private long zlong() throws IOException {
+            long v = varint();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        private long varint() throws IOException {
+            long v = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = in.readUnsignedByte();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return v;
+                if (shift > 56) throw new IOException("varint too long");
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
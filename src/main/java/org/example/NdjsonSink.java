@@ -0,0 +1,68 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+// One JSON object per line, typed: prices as minor units + currency next to the original text, rating in
+// tenths, flags as booleans. Rooms are one line each and carry the hotel's property key.
+//   {"type":"hotel","key":"https://.../hotel/in/x.html","name":"X","price":"₹ 13,700","priceMinor":1370000,"currency":"INR",...}
+//   {"type":"room","hotel":"https://.../hotel/in/x.html","roomType":"Deluxe Double Room","priceMinor":1370000,...}
+final class NdjsonSink extends ChannelSink {
+
+    private final StringBuilder line = new StringBuilder(512);
+
+    NdjsonSink(Path file, int bufferBytes, Duration flushEvery) throws IOException {
+        super(file, "ndjson", bufferBytes, flushEvery);
+    }
+
+    @Override
+    void writeHotel(HotelCard h) throws IOException {
+        Price p = PriceParser.parse(h.price());
+        int rating = h.ratingTenths();
+        line.setLength(0);
+        field("{\"type\":\"hotel\",\"key\":", h.propertyKey());
+        field(",\"name\":", h.name());
+        field(",\"price\":", h.price());
+        price(p);
+        field(",\"rating\":", h.rating());
+        line.append(",\"ratingTenths\":").append(rating < 0 ? "null" : String.valueOf(rating))
+                .append(",\"breakfast\":").append(h.breakfastIncluded())
+                .append(",\"freeCancellation\":").append(h.freeCancellation());
+        field(",\"image\":", h.imageUrl());
+        field(",\"url\":", h.url());
+        put(line.append("}\n"));
+    }
+
+    @Override
+    void writeRooms(HotelCard hotel, List<Main.RoomInfo> rooms) throws IOException {
+        String key = hotel.propertyKey();
+        for (Main.RoomInfo r : rooms) {
+            line.setLength(0);
+            field("{\"type\":\"room\",\"hotel\":", key);
+            field(",\"roomType\":", r.roomType);
+            field(",\"price\":", r.price);
+            price(PriceParser.parse(r.price));
+            field(",\"occupancy\":", r.occupancy);
+            field(",\"mealPlan\":", r.mealPlan);
+            field(",\"cancellation\":", r.cancellation);
+            put(line.append("}\n"));
+        }
+    }
+
+    private void field(String prefix, String value) {
+        Json.quote(line.append(prefix), value);
+    }
+
+    private void price(Price p) {
+        if (!p.known()) {
+            line.append(",\"priceMinor\":null,\"currency\":null");
+            return;
+        }
+        line.append(",\"priceMinor\":").append(p.amountMinor())
+                .append(",\"currency\":\"").append(p.currency()).append('"');
+        if (p.discounted()) line.append(",\"originalMinor\":").append(p.originalMinor());
+        if (p.taxesMinor() >= 0) line.append(",\"taxesMinor\":").append(p.taxesMinor());
+    }
+}
@@ -0,0 +1,351 @@
+package org.example;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+// Reads hotels and room rates from the JSON/GraphQL payloads the pages fetch themselves, instead of the DOM.
+// A hook installed with CDP Page.addScriptToEvaluateOnNewDocument runs before any page script and keeps the
+// text of every JSON fetch/XHR response in window.__bkNet; one executeScript later drains those plus any
+// embedded <script type="application/json"> state. The payload trees are walked by key name (displayName,
+// reviewScore, amountPerStay, roomName, blocks, ...) so no single GraphQL schema is hard-coded.
+// -Dbooking.extract=network reads hotels and rooms from the payloads (falling back to the DOM when nothing usable
+// was captured); =compare still reads the DOM and only logs how the two differ.
+// -Dbooking.networkCapture=true|false switches the hook itself; it defaults to on for those two modes only.
+public class NetworkCapture {
+
+    private static final String HOOK =
+            "(() => {" +
+            "  if (window.__bkNet) return;" +
+            "  const store = window.__bkNet = { items: [], bytes: 0 };" +
+            "  const MAX = 16 * 1024 * 1024;" +
+            "  const wanted = (url, type) => /json/i.test(type || '') || /graphql/i.test(url || '');" +
+            "  const keep = (url, text) => {" +
+            "    if (!text || store.bytes + text.length > MAX) return;" +
+            "    store.items.push({ url: String(url), body: text }); store.bytes += text.length;" +
+            "  };" +
+            "  if (window.fetch) {" +
+            "    const f = window.fetch;" +
+            "    window.fetch = function () {" +
+            "      return f.apply(this, arguments).then(res => {" +
+            "        try {" +
+            "          if (wanted(res.url, res.headers.get('content-type')))" +
+            "            res.clone().text().then(t => keep(res.url, t)).catch(() => {});" +
+            "        } catch (e) {}" +
+            "        return res;" +
+            "      });" +
+            "    };" +
+            "  }" +
+            "  const open = XMLHttpRequest.prototype.open;" +
+            "  XMLHttpRequest.prototype.open = function (m, u) { this.__bkUrl = u; return open.apply(this, arguments); };" +
+            "  const send = XMLHttpRequest.prototype.send;" +
+            "  XMLHttpRequest.prototype.send = function () {" +
+            "    this.addEventListener('load', () => {" +
+            "      try {" +
+            "        if ((this.responseType === '' || this.responseType === 'text')" +
+            "            && wanted(this.__bkUrl, this.getResponseHeader('content-type'))) keep(this.__bkUrl, this.responseText);" +
+            "      } catch (e) {}" +
+            "    });" +
+            "    return send.apply(this, arguments);" +
+            "  };" +
+            "})();";
+
+    private static final String DRAIN =
+            "const out = window.__bkNet ? window.__bkNet.items.slice() : [];" +
+            "document.querySelectorAll(\"script[type='application/json'], script[type='application/ld+json'], script[data-capla-store-data]\")" +
+            "  .forEach(s => out.push({ url: 'inline', body: s.textContent }));" +
+            "return { hooked: !!window.__bkNet, origin: location.origin, items: out };";
+
+    // Keys that hold an object's display value when it is wrapped ({"text": ...}, {"amount": ...}, ...)
+    private static final String[] VALUE_KEYS = {"text", "amount", "formatted", "value", "score", "label", "absoluteUrl", "url", "relativeUrl"};
+
+    private static final Set<String> NAME_KEYS = Set.of("displayName", "name", "title", "hotelName");
+    private static final Set<String> ROOM_NAME_KEYS = Set.of("roomName", "roomType", "room_name", "roomTypeName");
+    private static final Set<String> HOTEL_HINT_KEYS = Set.of("basicPropertyData", "pageName", "reviewScore", "hotelId", "propertyId", "hotel_id");
+
+    public record Captured(boolean hooked, String origin, List<Object> payloads, long bytes) {}
+
+    public static boolean enabled() {
+        String v = System.getProperty("booking.networkCapture");
+        if (v != null) return Boolean.parseBoolean(v.trim());
+        CardExtractor.Mode mode = CardExtractor.Mode.fromProperty();
+        return mode == CardExtractor.Mode.NETWORK || mode == CardExtractor.Mode.COMPARE;
+    }
+
+    // Whether extraction should take the captured payloads over the DOM; compare mode only logs them.
+    public static boolean preferred() {
+        return enabled() && CardExtractor.Mode.fromProperty() == CardExtractor.Mode.NETWORK;
+    }
+
+    // Registers the hook for every future document in the current tab. Without CDP it can only hook the
+    // page that is already loaded, which misses whatever that page fetched during load.
+    public static boolean install(WebDriver driver) {
+        if (Drivers.unwrap(driver) instanceof HasCdp cdp) {
+            cdp.executeCdpCommand("Page.enable", Map.of());
+            cdp.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", Map.of("source", HOOK));
+            return true;
+        }
+        ((JavascriptExecutor) driver).executeScript(HOOK);
+        return false;
+    }
+
+    // The CDP hook is per tab: a tab opened after install() (e.g. the hotel detail tab) gets it here,
+    // at the price of one reload.
+    public static void ensureInstalled(WebDriver driver) {
+        Object hooked = ((JavascriptExecutor) driver).executeScript("return !!window.__bkNet;");
+        if (Boolean.TRUE.equals(hooked)) return;
+        if (install(driver)) {
+            DomSettle.install(driver);
+            driver.navigate().refresh();
+            DomSettle.await(driver, "network-reload", Duration.ofSeconds(5));
+        }
+    }
+
+    public static Captured drain(WebDriver driver) {
+        Object raw = ((JavascriptExecutor) driver).executeScript(DRAIN);
+        List<Object> payloads = new ArrayList<>();
+        long bytes = 0;
+        boolean hooked = false;
+        String origin = "";
+        if (raw instanceof Map<?, ?> m) {
+            hooked = Boolean.TRUE.equals(m.get("hooked"));
+            origin = m.get("origin") instanceof String s ? s : "";
+            if (m.get("items") instanceof List<?> items) {
+                for (Object item : items) {
+                    if (!(item instanceof Map<?, ?> it) || !(it.get("body") instanceof String body)) continue;
+                    bytes += body.length();
+                    try {
+                        payloads.add(Json.parse(body));
+                    } catch (IllegalArgumentException ignored) {
+                        // not JSON after all (or truncated): skip
+                    }
+                }
+            }
+        }
+        return new Captured(hooked, origin, payloads, bytes);
+    }
+
+    public static List<HotelCard> hotels(WebDriver driver) {
+        Captured c = drain(driver);
+        return hotels(c.payloads(), c.origin());
+    }
+
+    public static List<Main.RoomInfo> rooms(WebDriver driver) {
+        return rooms(drain(driver).payloads());
+    }
+
+    // ---------------- PAYLOAD WALKING ----------------
+
+    static List<HotelCard> hotels(List<Object> payloads, String origin) {
+        List<Map<?, ?>> nodes = new ArrayList<>();
+        for (Object p : payloads) collect(p, NetworkCapture::looksLikeHotel, nodes);
+
+        List<HotelCard> out = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (Map<?, ?> h : nodes) {
+            HotelCard card = new HotelCard(
+                    orElse(text(find(h, 1, NAME_KEYS)), "N/A"),
+                    orElse(text(find(h, 4, Set.of("amountPerStay", "displayPrice", "grossPrice", "finalPrice", "price"))), "Price not visible"),
+                    orElse(text(find(h, 3, Set.of("reviewScore", "reviewScoreValue", "rating", "score"))), "Rating not available"),
+                    orElse(text(find(find(h, 3, Set.of("photos", "photo", "mainPhoto", "image", "images")), 4,
+                            Set.of("absoluteUrl", "highResUrl", "url", "src", "relativeUrl"))), "Image not found"),
+                    mentions(find(h, 3, Set.of("mealPlanIncluded", "mealPlan", "breakfastIncluded")), "breakfast"),
+                    mentions(find(h, 3, Set.of("showFreeCancellation", "freeCancellation", "isFreeCancellable")), "free cancellation"),
+                    propertyUrl(h, origin)
+            );
+            // the same property often appears in several payloads (search + map markers)
+            if (seen.add(card.propertyKey())) out.add(card);
+        }
+        return out;
+    }
+
+    static List<Main.RoomInfo> rooms(List<Object> payloads) {
+        List<Map<?, ?>> nodes = new ArrayList<>();
+        for (Object p : payloads) collect(p, m -> firstKey(m, ROOM_NAME_KEYS) != null, nodes);
+
+        List<Main.RoomInfo> out = new ArrayList<>();
+        for (Map<?, ?> room : nodes) {
+            String name = text(room.get(firstKey(room, ROOM_NAME_KEYS)));
+            if (name == null || name.isBlank()) continue;
+            List<Map<?, ?>> rates = new ArrayList<>();
+            if (find(room, 1, Set.of("blocks", "rates", "offers", "options")) instanceof List<?> list) {
+                for (Object o : list) if (o instanceof Map<?, ?> rate) rates.add(rate);
+            }
+            if (rates.isEmpty()) rates.add(room);
+            for (Map<?, ?> rate : rates) {
+                String price = text(find(rate, 3, Set.of("finalPrice", "grossPrice", "displayPrice", "price", "amount")));
+                if (price == null) continue;
+                Object persons = find(rate, 2, Set.of("maxPersons", "max_persons", "maxOccupancy", "occupancy"));
+                out.add(new Main.RoomInfo(name, price,
+                        persons instanceof Number n ? "Max. people: " + n : orElse(text(persons), ""),
+                        orElse(text(find(rate, 2, Set.of("mealPlan", "mealplan", "meal"))), ""),
+                        orElse(text(find(rate, 2, Set.of("cancellationPolicy", "cancellation", "policy"))), "")));
+            }
+        }
+        return out;
+    }
+
+    private static boolean looksLikeHotel(Map<?, ?> m) {
+        Object name = find(m, 1, NAME_KEYS);
+        if (text(name) == null) return false;
+        return find(m, 1, HOTEL_HINT_KEYS) != null && find(m, 4, Set.of("amountPerStay", "displayPrice", "grossPrice", "price")) != null;
+    }
+
+    // Depth-first over the tree; a matching node is taken whole and not searched further
+    private static void collect(Object node, Predicate<Map<?, ?>> match, List<Map<?, ?>> out) {
+        if (node instanceof Map<?, ?> m) {
+            if (match.test(m)) {
+                out.add(m);
+                return;
+            }
+            for (Object v : m.values()) collect(v, match, out);
+        } else if (node instanceof List<?> list) {
+            for (Object v : list) collect(v, match, out);
+        }
+    }
+
+    // Breadth-first: the shallowest non-null value stored under any of keys, within maxDepth levels
+    static Object find(Object root, int maxDepth, Set<String> keys) {
+        if (root == null) return null;
+        ArrayDeque<Object> level = new ArrayDeque<>();
+        level.add(root);
+        for (int depth = 0; depth < maxDepth && !level.isEmpty(); depth++) {
+            ArrayDeque<Object> next = new ArrayDeque<>();
+            for (Object node : level) {
+                if (node instanceof Map<?, ?> m) {
+                    for (Map.Entry<?, ?> e : m.entrySet()) {
+                        if (e.getValue() != null && keys.contains(String.valueOf(e.getKey()))) return e.getValue();
+                    }
+                    next.addAll(m.values().stream().filter(v -> v instanceof Map || v instanceof List).toList());
+                } else if (node instanceof List<?> list) {
+                    for (Object v : list) if (v instanceof Map || v instanceof List) next.add(v);
+                }
+            }
+            level = next;
+        }
+        return null;
+    }
+
+    // Display string for a scalar or a wrapper object ({"text": "..."}, {"amount": "₹ 9,500"}, {"score": 8.3})
+    static String text(Object v) {
+        if (v == null) return null;
+        if (v instanceof String s) return s.isBlank() ? null : s.trim();
+        if (v instanceof Double d) return d == Math.rint(d) ? String.valueOf(d.longValue()) : String.valueOf(d);
+        if (v instanceof Number || v instanceof Boolean) return String.valueOf(v);
+        if (v instanceof List<?> list) return list.isEmpty() ? null : text(list.get(0));
+        if (v instanceof Map<?, ?> m) {
+            for (String k : VALUE_KEYS) {
+                Object inner = m.get(k);
+                if (inner != null && !(inner instanceof Map) && !(inner instanceof List)) return text(inner);
+            }
+            for (String k : VALUE_KEYS) {
+                String inner = text(find(m, 3, Set.of(k)));
+                if (inner != null) return inner;
+            }
+        }
+        return null;
+    }
+
+    private static boolean mentions(Object v, String phrase) {
+        if (v == null) return false;
+        if (v instanceof Boolean b) return b;
+        if (v instanceof Map<?, ?> m) {
+            String s = m.values().stream().map(String::valueOf).collect(Collectors.joining(" "));
+            return s.toLowerCase(Locale.ROOT).replace('_', ' ').contains(phrase);
+        }
+        return String.valueOf(v).toLowerCase(Locale.ROOT).replace('_', ' ').contains(phrase);
+    }
+
+    private static String propertyUrl(Map<?, ?> h, String origin) {
+        String url = text(find(h, 2, Set.of("url", "propertyUrl", "hotelUrl", "link")));
+        if (url == null) {
+            Object pageName = find(h, 3, Set.of("pageName"));
+            Object cc = find(h, 4, Set.of("countryCode", "cc1"));
+            if (pageName instanceof String p && cc instanceof String c) {
+                url = "/hotel/" + c.toLowerCase(Locale.ROOT) + "/" + p + ".html";
+            }
+        }
+        if (url == null) return "";
+        try {
+            return origin.isEmpty() ? url : URI.create(origin + "/").resolve(url).toString();
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    private static String firstKey(Map<?, ?> m, Set<String> keys) {
+        for (Object k : m.keySet()) if (keys.contains(String.valueOf(k)) && text(m.get(k)) != null) return String.valueOf(k);
+        return null;
+    }
+
+    private static String orElse(String v, String fallback) {
+        return v == null ? fallback : v;
+    }
+
+    // ---------------- COMPARISON ----------------
+
+    // How many records carry each field (placeholders like "N/A" count as missing)
+    static String coverage(List<HotelCard> cards) {
+        Function<Function<HotelCard, Object>, Long> count = f -> cards.stream().filter(c -> present(f.apply(c))).count();
+        return "name=" + count.apply(HotelCard::name) + " price=" + count.apply(HotelCard::price)
+                + " rating=" + count.apply(HotelCard::rating) + " image=" + count.apply(HotelCard::imageUrl)
+                + " url=" + count.apply(HotelCard::url)
+                + " breakfast=" + cards.stream().filter(HotelCard::breakfastIncluded).count()
+                + " freeCancel=" + cards.stream().filter(HotelCard::freeCancellation).count()
+                + " (of " + cards.size() + ")";
+    }
+
+    static String roomCoverage(List<Main.RoomInfo> rooms) {
+        Function<Function<Main.RoomInfo, Object>, Long> count = f -> rooms.stream().filter(r -> present(f.apply(r))).count();
+        return "type=" + count.apply(r -> r.roomType) + " price=" + count.apply(r -> r.price)
+                + " occupancy=" + count.apply(r -> r.occupancy) + " meal=" + count.apply(r -> r.mealPlan)
+                + " cancellation=" + count.apply(r -> r.cancellation) + " (of " + rooms.size() + ")";
+    }
+
+    private static boolean present(Object v) {
+        if (!(v instanceof String s)) return v != null;
+        return !s.isBlank() && !Set.of("N/A", "Price not visible", "Rating not available", "Image not found").contains(s);
+    }
+
+    // Network vs DOM on the page that is loaded now: time, WebDriver calls, field coverage, overlap
+    public static void compareCards(WebDriver driver, CallCounter calls) {
+        long c0 = calls.get(), t0 = System.nanoTime();
+        List<HotelCard> net = hotels(driver);
+        long netMs = (System.nanoTime() - t0) / 1_000_000, netCalls = calls.get() - c0;
+
+        c0 = calls.get();
+        t0 = System.nanoTime();
+        List<HotelCard> dom = CardExtractor.extractBatch(driver);
+        long domMs = (System.nanoTime() - t0) / 1_000_000, domCalls = calls.get() - c0;
+
+        Set<String> domKeys = dom.stream().map(HotelCard::propertyKey).collect(Collectors.toSet());
+        long both = net.stream().filter(h -> domKeys.contains(h.propertyKey())).count();
+        System.out.println("Cards [network]: " + netMs + " ms, " + netCalls + " calls, " + coverage(net));
+        System.out.println("Cards [dom]:     " + domMs + " ms, " + domCalls + " calls, " + coverage(dom));
+        System.out.println("Cards in both: " + both + (domMs > 0 ? String.format(", network/dom time %.2fx", netMs / (double) domMs) : ""));
+    }
+
+    public static void compareRooms(WebDriver driver) {
+        long t0 = System.nanoTime();
+        List<Main.RoomInfo> net = rooms(driver);
+        long netMs = (System.nanoTime() - t0) / 1_000_000;
+        t0 = System.nanoTime();
+        List<Main.RoomInfo> dom = RoomTableExtractor.extract(driver);
+        long domMs = (System.nanoTime() - t0) / 1_000_000;
+        System.out.println("Rooms [network]: " + netMs + " ms, " + roomCoverage(net));
+        System.out.println("Rooms [dom]:     " + domMs + " ms, " + roomCoverage(dom));
+    }
+}
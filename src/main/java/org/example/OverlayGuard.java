@@ -0,0 +1,93 @@
+package org.example;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.List;
+import java.util.Map;
+
+// MutationObserver in the page that clears overlays as they are inserted: accepts the cookie banner,
+// presses the close button of sign-in / genius modals, and hides a modal backdrop only if nothing can
+// close it. The date picker is a dialog too and is left alone. Java asks blocking() before falling back
+// to Main's blanket sweep, so that only runs when something is actually in the way.
+public final class OverlayGuard {
+
+    private OverlayGuard() {}
+
+    static final String SCRIPT =
+            "(function(){" +
+            "  if (window.__bkGuard) return;" +
+            "  const g = window.__bkGuard = {handled: 0, hidden: 0};" +
+            "  const ACCEPT = '#onetrust-accept-btn-handler, button[data-testid=\"cookie-policy-dialog-accept-button\"]';" +
+            "  const MODAL = 'div[role=\"dialog\"], div[role=\"alertdialog\"], div[aria-modal=\"true\"], div[data-testid*=\"modal\"]';" +
+            "  const CLOSE = 'button[aria-label*=\"Dismiss\"], button[aria-label=\"Close\"], button[data-testid*=\"close\"]';" +
+            "  const KEEP = '[data-testid=\"searchbox-datepicker-calendar\"], [data-testid*=\"datepicker\"], [data-testid*=\"searchbox\"]';" +
+            "  const shown = e => e.offsetParent !== null || getComputedStyle(e).position === 'fixed';" +
+            "  function sweep() {" +
+            "    const accept = document.querySelector(ACCEPT);" +
+            "    if (accept && shown(accept)) { accept.click(); g.handled++; }" +
+            "    document.querySelectorAll(MODAL).forEach(m => {" +
+            "      if (!shown(m) || m.querySelector(KEEP) || m.closest(KEEP)) return;" +
+            "      const close = m.querySelector(CLOSE);" +
+            "      if (close) { close.click(); g.handled++; }" +
+            "      else if (m.getAttribute('aria-modal') === 'true') { m.style.display = 'none'; g.hidden++; }" +
+            "    });" +
+            "  }" +
+            "  let queued = false;" +
+            "  function schedule() { if (!queued) { queued = true; setTimeout(() => { queued = false; sweep(); }, 30); } }" +
+            "  function start() {" +
+            "    new MutationObserver(muts => { for (const m of muts) if (m.addedNodes.length) { schedule(); return; } })" +
+            "      .observe(document.documentElement, {childList: true, subtree: true});" +
+            "    sweep();" +
+            "  }" +
+            "  if (document.documentElement) start(); else document.addEventListener('DOMContentLoaded', start);" +
+            "})();";
+
+    // Still in the way after the observer had its turn: a visible banner or a modal other than the date picker
+    private static final String BLOCKING =
+            "const shown = e => e.offsetParent !== null || getComputedStyle(e).position === 'fixed';" +
+            "const KEEP = '[data-testid=\"searchbox-datepicker-calendar\"], [data-testid*=\"datepicker\"], [data-testid*=\"searchbox\"]';" +
+            "const banner = document.querySelector('#onetrust-banner-sdk, #onetrust-accept-btn-handler, " +
+            "button[data-testid=\"cookie-policy-dialog-accept-button\"]');" +
+            "if (banner && shown(banner)) return true;" +
+            "return Array.from(document.querySelectorAll('div[aria-modal=\"true\"], div[role=\"alertdialog\"]'))" +
+            "  .some(m => shown(m) && !m.querySelector(KEEP) && !m.closest(KEEP));";
+
+    // For every later document of this tab (CDP), plus the current one
+    public static void install(WebDriver driver) {
+        try {
+            if (Drivers.unwrap(driver) instanceof HasCdp cdp) {
+                cdp.executeCdpCommand("Page.enable", Map.of());
+                cdp.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", Map.of("source", SCRIPT));
+            }
+        } catch (Exception ignored) {}
+        ensure(driver);
+    }
+
+    // New tabs and drivers without CDP: inject into the current document (no-op when already there)
+    public static void ensure(WebDriver driver) {
+        try { ((JavascriptExecutor) driver).executeScript(SCRIPT); } catch (Exception ignored) {}
+    }
+
+    public static boolean blocking(WebDriver driver) {
+        try {
+            ensure(driver);
+            return Boolean.TRUE.equals(((JavascriptExecutor) driver).executeScript(BLOCKING));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // Overlays the observer handled on this page: [clicked, hidden]
+    public static long[] counts(WebDriver driver) {
+        try {
+            Object r = ((JavascriptExecutor) driver).executeScript(
+                    "const g = window.__bkGuard; return g ? [g.handled, g.hidden] : [0, 0];");
+            if (r instanceof List<?> l && l.size() == 2) {
+                return new long[]{((Number) l.get(0)).longValue(), ((Number) l.get(1)).longValue()};
+            }
+        } catch (Exception ignored) {}
+        return new long[]{0, 0};
+    }
+}
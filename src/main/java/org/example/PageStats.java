@@ -0,0 +1,160 @@
+package org.example;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+import org.openqa.selenium.logging.LoggingPreferences;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+// Bytes and load time for the current page. Bytes are what came over the network for the tab's current
+// document: the sum of CDP Network.loadingFinished encodedDataLength, read from Chrome's performance log
+// (logNetwork, on for the lean profile), which covers cross-origin resources too (0 for cache hits and blocked
+// requests). Drivers without that log fall back to the Performance API's transferSize, which is 0 for cross-origin resources
+// that send no Timing-Allow-Origin, so it undercounts (networkLog=false). Timings come from the Performance API.
+public record PageStats(long transferBytes, int resources, long domContentLoadedMs, long loadMs, boolean networkLog) {
+
+    private static final String SCRIPT =
+            "const nav = performance.getEntriesByType('navigation')[0];" +
+            "const res = performance.getEntriesByType('resource');" +
+            "let bytes = nav ? (nav.transferSize || 0) : 0;" +
+            "for (const r of res) bytes += r.transferSize || 0;" +
+            "return { bytes: bytes, resources: res.length," +
+            "  dcl: nav ? Math.round(nav.domContentLoadedEventEnd) : -1," +
+            "  load: nav ? Math.round(nav.loadEventEnd || performance.now()) : -1 };";
+
+    // Per driver started with logNetwork options: window handle (= CDP target id) -> [bytes, responses] since
+    // that tab's last top-level navigation. The performance log is drained on every read, so totals for other
+    // tabs are kept until they report. A driver's entry goes when it quits (FORGET_ON_QUIT).
+    private static final Map<WebDriver, Map<String, long[]>> TABS = new ConcurrentHashMap<>();
+
+    // Drivers.create adds this to the drivers it registers with logging()
+    static final WebDriverListener FORGET_ON_QUIT = new WebDriverListener() {
+        @Override
+        public void afterQuit(WebDriver driver) {
+            forget(driver);
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            if (method.getName().equals("quit") && target instanceof WebDriver driver) forget(driver);
+        }
+    };
+
+    // Network events in Chrome's "performance" log; read by collect() once the driver is registered
+    static void logNetwork(ChromeOptions options) {
+        LoggingPreferences prefs = new LoggingPreferences();
+        prefs.enable(LogType.PERFORMANCE, Level.ALL);
+        options.setCapability(ChromeOptions.LOGGING_PREFS, prefs);
+    }
+
+    static void logging(WebDriver driver) {
+        TABS.put(Drivers.unwrap(driver), new ConcurrentHashMap<>());
+    }
+
+    static void forget(WebDriver driver) {
+        TABS.remove(Drivers.unwrap(driver));
+    }
+
+    public static PageStats collect(WebDriver driver) {
+        long[] network = networkTotals(driver);
+        try {
+            Object raw = ((JavascriptExecutor) driver).executeScript(SCRIPT);
+            if (raw instanceof Map<?, ?> m) {
+                return network == null
+                        ? new PageStats(asLong(m.get("bytes")), (int) asLong(m.get("resources")), asLong(m.get("dcl")), asLong(m.get("load")), false)
+                        : new PageStats(network[0], (int) network[1], asLong(m.get("dcl")), asLong(m.get("load")), true);
+            }
+        } catch (Exception ignored) {}
+        return new PageStats(-1, -1, -1, -1, false);
+    }
+
+    // null when the driver keeps no performance log
+    @SuppressWarnings("unchecked")
+    private static long[] networkTotals(WebDriver driver) {
+        Map<String, long[]> tabs = TABS.get(Drivers.unwrap(driver));
+        if (tabs == null) return null;
+        String tab;
+        Iterable<LogEntry> entries;
+        try {
+            tab = driver.getWindowHandle();
+            entries = driver.manage().logs().get(LogType.PERFORMANCE);
+        } catch (Exception e) {
+            return null;
+        }
+        for (LogEntry entry : entries) {
+            try {
+                Map<String, Object> outer = (Map<String, Object>) Json.parse(entry.getMessage());
+                Map<String, Object> message = (Map<String, Object>) outer.get("message");
+                Map<String, Object> params = (Map<String, Object>) message.get("params");
+                String webview = String.valueOf(outer.get("webview"));
+                switch (String.valueOf(message.get("method"))) {
+                    // A main-frame document request (its frame id is the target id) starts a new page
+                    case "Network.requestWillBeSent" -> {
+                        if ("Document".equals(params.get("type")) && webview.equals(params.get("frameId"))) {
+                            tabs.put(webview, new long[2]);
+                        }
+                    }
+                    case "Network.loadingFinished" -> {
+                        long[] t = tabs.computeIfAbsent(webview, k -> new long[2]);
+                        t[0] += params.get("encodedDataLength") instanceof Number n ? n.longValue() : 0;
+                        t[1]++;
+                    }
+                    default -> {}
+                }
+            } catch (RuntimeException ignored) {
+                // not a Network event we understand
+            }
+        }
+        return tabs.getOrDefault(tab, new long[2]).clone();
+    }
+
+    // e.g. "Page [results] lean: 412 KB in 38 resources, DOMContentLoaded 820 ms, load 1430 ms"
+    public static PageStats report(WebDriver driver, String label) {
+        PageStats s = collect(driver);
+        System.out.println("Page [" + label + "] " + Drivers.Profile.fromProperty().name().toLowerCase() + ": "
+                + s.transferBytes() / 1024 + " KB in " + s.resources() + " resources"
+                + (s.networkLog() ? "" : " (Performance API, same-origin bytes only)") + ", DOMContentLoaded "
+                + s.domContentLoadedMs() + " ms, load " + s.loadMs() + " ms");
+        return s;
+    }
+
+    // Same URL, fresh full and lean drivers, N loads each: PageStats <url> [loads]. Both keep the network log,
+    // so the byte counts compare like for like.
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: PageStats <url> [loads]");
+            return;
+        }
+        int loads = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        for (Drivers.Profile profile : new Drivers.Profile[]{Drivers.Profile.HEADLESS, Drivers.Profile.LEAN}) {
+            Drivers.Counted counted = Drivers.create(profile, true);
+            try {
+                long bytes = 0, load = 0, wall = 0;
+                for (int i = 0; i < loads; i++) {
+                    long t0 = System.nanoTime();
+                    counted.driver().get(args[0]);
+                    wall += (System.nanoTime() - t0) / 1_000_000;
+                    PageStats s = collect(counted.driver());
+                    bytes += s.transferBytes();
+                    load += s.loadMs();
+                }
+                System.out.println(String.format("%-8s avg %6d KB, load %5d ms, driver.get %5d ms",
+                        profile.name().toLowerCase(), bytes / loads / 1024, load / loads, wall / loads));
+            } finally {
+                counted.driver().quit();
+            }
+        }
+    }
+
+    private static long asLong(Object v) {
+        return v instanceof Number n ? n.longValue() : -1;
+    }
+}
@@ -0,0 +1,44 @@
+package org.example;
+
+import java.math.BigDecimal;
+
+// A parsed price: amounts are longs in the currency's minor units (paise, cents; yen have none).
+// originalMinor is the struck-through price before discount (== amountMinor when there is none),
+// taxesMinor the "+₹ 1,644 taxes and charges" surcharge (-1 when not shown).
+public record Price(long amountMinor, long originalMinor, String currency, boolean taxesIncluded, long taxesMinor) {
+
+    public static final Price UNKNOWN = new Price(-1, -1, "XXX", false, -1);
+
+    public boolean known() {
+        return amountMinor >= 0;
+    }
+
+    public boolean discounted() {
+        return originalMinor > amountMinor;
+    }
+
+    public BigDecimal amount() {
+        return BigDecimal.valueOf(amountMinor, PriceParser.fractionDigits(currency));
+    }
+
+    public BigDecimal original() {
+        return BigDecimal.valueOf(originalMinor, PriceParser.fractionDigits(currency));
+    }
+
+    // e.g. "INR 13700.00 (was 15100.00, +1644.00 taxes)"
+    @Override
+    public String toString() {
+        if (!known()) return "?";
+        int fd = PriceParser.fractionDigits(currency);
+        StringBuilder sb = new StringBuilder(currency).append(' ').append(amount().toPlainString());
+        if (discounted() || taxesMinor >= 0 || taxesIncluded) {
+            sb.append(" (");
+            if (discounted()) sb.append("was ").append(original().toPlainString());
+            if (taxesMinor >= 0) sb.append(discounted() ? ", " : "").append('+')
+                    .append(BigDecimal.valueOf(taxesMinor, fd).toPlainString()).append(" taxes");
+            else if (taxesIncluded) sb.append(discounted() ? ", " : "").append("taxes included");
+            sb.append(')');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,463 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.IntPredicate;
+
+// Price history per search (one directory per SearchJob.cacheKey under -Dbooking.historyDir, default
+// .booking-history), so only prices for the same stay are compared:
+//   observations.log  memory-mapped, append-only, 64-byte header + fixed 32-byte records:
+//                     epochMillis(8) run(4) key(4) priceMinor(8) currency|flags<<24 (4) previous record of key(4)
+//   keys.txt          append-only dictionary, line n = "label<TAB>key" for key id n
+//   index.bin         per key: last price, last run, last record; rebuilt from the log tail if it lags
+//   store.lock        held (FileChannel.lock) while a run is recorded
+// Writing a run appends its records, then bumps the header count (the commit point). The per-key
+// back-pointers make one key's series O(its observations) instead of a scan of the whole log.
+// Several processes may record into one store: under the lock each first reads the keys and records the
+// others appended, so key ids stay line numbers of keys.txt and no run overwrites another's records.
+public class PriceHistoryStore implements AutoCloseable {
+
+    private static final int MAGIC = 0x424b5048; // "BKPH"
+    private static final int VERSION = 1;
+    private static final int HEADER = 64;
+    private static final int RECORD = 32;
+    private static final int FLAG_ROOM = 1, FLAG_DISCOUNTED = 2, FLAG_TAXES_INCLUDED = 4;
+
+    public enum Kind { NEW, DROPPED, PRICE }
+
+    public record Change(Kind kind, String label, boolean room, Price before, Price after) {
+        @Override
+        public String toString() {
+            String what = (room ? "  rate " : "hotel ") + label;
+            return switch (kind) {
+                case NEW -> String.format("NEW      %s: %s", what, after);
+                case DROPPED -> String.format("DROPPED  %s (was %s)", what, before);
+                case PRICE -> before.currency().equals(after.currency())
+                        ? String.format("PRICE    %s: %s -> %s (%+.1f%%)", what, before.amount().toPlainString(),
+                                after, 100.0 * (after.amountMinor() - before.amountMinor()) / Math.max(1, before.amountMinor()))
+                        // amounts in different currencies do not compare
+                        : String.format("PRICE    %s: %s -> %s (currency changed)", what, before, after);
+            };
+        }
+    }
+
+    public record Diff(int run, int hotels, int rates, List<Change> changes) {
+        public long count(Kind kind) {
+            return changes.stream().filter(c -> c.kind() == kind).count();
+        }
+    }
+
+    public record Observation(long epochMillis, int run, Price price) {}
+
+    // One monitor per store directory: a FileLock is per process, so stores in one JVM queue here first
+    private static final Map<Path, Object> GUARDS = new ConcurrentHashMap<>();
+
+    private final Path dir;
+    private final Object guard;
+    private final FileChannel lockFile;
+    private final FileChannel log;
+    private MappedByteBuffer map;
+    private long count;
+    private int lastRun;
+
+    // dictionary
+    private long keysRead; // bytes of keys.txt loaded
+    private final List<String> labels = new ArrayList<>();
+    private final List<String> keys = new ArrayList<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private int[] parent = new int[16]; // room key -> its hotel key, -1 for hotels
+
+    // index
+    private long[] lastPrice = new long[16];
+    private int[] lastRunOf = new int[16];
+    private int[] lastRecord = new int[16];
+
+    public PriceHistoryStore(Path dir) throws IOException {
+        this.dir = dir;
+        Files.createDirectories(dir);
+        guard = GUARDS.computeIfAbsent(dir.toAbsolutePath().normalize(), k -> new Object());
+        lockFile = FileChannel.open(dir.resolve("store.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        log = FileChannel.open(dir.resolve("observations.log"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        synchronized (guard) {
+            try {
+                FileLock lock = lockFile.lock();
+                loadKeys();
+                long size = Math.max(log.size(), HEADER + 1024L * RECORD);
+                map = log.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                if (map.getInt(0) == MAGIC) {
+                    if (map.getInt(4) != VERSION) throw new IOException("Unsupported history version " + map.getInt(4) + " in " + dir);
+                    count = map.getLong(8);
+                    lastRun = map.getInt(16);
+                } else {
+                    map.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, 0).putInt(16, 0);
+                    map.force();
+                }
+                loadIndex();
+                lock.release();
+            } catch (IOException | RuntimeException e) {
+                lockFile.close(); // releases the lock
+                log.close();
+                throw e;
+            }
+        }
+    }
+
+    // -Dbooking.historyDir (default .booking-history), one subdirectory per search
+    public static PriceHistoryStore open(SearchJob job) throws IOException {
+        Path base = Path.of(System.getProperty("booking.historyDir", ".booking-history"));
+        return new PriceHistoryStore(base.resolve(scopeName(job)));
+    }
+
+    // -Dbooking.history=false turns recording off
+    public static boolean enabled() {
+        return !"false".equalsIgnoreCase(System.getProperty("booking.history"));
+    }
+
+    // Records one run and returns what changed since the previous one. Rooms are keyed by hotel, so a
+    // rate only counts as dropped when its hotel's rooms were fetched in this run too.
+    public synchronized Diff record(List<HotelCard> hotels, Map<HotelCard, List<Main.RoomInfo>> roomsByHotel) throws IOException {
+        synchronized (guard) {
+            FileLock lock = lockFile.lock();
+            try {
+                refresh();
+                return recordLocked(hotels, roomsByHotel);
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    private Diff recordLocked(List<HotelCard> hotels, Map<HotelCard, List<Main.RoomInfo>> roomsByHotel) throws IOException {
+        int run = lastRun + 1;
+        long now = System.currentTimeMillis();
+        List<Change> changes = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        Set<Integer> hotelsWithRooms = new HashSet<>();
+        int rates = 0;
+
+        Map<String, HotelCard> unique = new LinkedHashMap<>();
+        for (HotelCard h : hotels) unique.putIfAbsent(h.propertyKey(), h);
+        Set<String> listed = new HashSet<>(unique.keySet());
+        for (HotelCard h : roomsByHotel.keySet()) unique.putIfAbsent(h.propertyKey(), h);
+
+        for (HotelCard h : unique.values()) {
+            int hotelId = keyId("H\t" + h.propertyKey(), h.name(), -1);
+            if (listed.contains(h.propertyKey())) {
+                observe(run, now, hotelId, PriceParser.parse(h.price()), false, seen, changes);
+            }
+            List<Main.RoomInfo> rooms = roomsByHotel.getOrDefault(h, List.of());
+            if (!rooms.isEmpty()) hotelsWithRooms.add(hotelId);
+            for (Main.RoomInfo r : rooms) {
+                String key = "R\t" + h.propertyKey() + "\t" + r.roomType + "\t" + r.occupancy + "\t" + r.mealPlan + "\t" + r.cancellation;
+                String label = h.name() + " / " + r.roomType + (r.mealPlan.isBlank() ? "" : " (" + r.mealPlan + ")");
+                int roomId = keyId(key, label, hotelId);
+                if (seen.contains(roomId)) continue; // identical rate listed twice
+                observe(run, now, roomId, PriceParser.parse(r.price), true, seen, changes);
+                rates++;
+            }
+        }
+
+        // Dropped: seen in the previous run, not in this one
+        for (int id = 0; id < keys.size(); id++) {
+            if (lastRunOf[id] != lastRun || lastRun == 0 || seen.contains(id)) continue;
+            boolean room = parent[id] >= 0;
+            if (room && !hotelsWithRooms.contains(parent[id])) continue;
+            changes.add(new Change(Kind.DROPPED, labels.get(id), room, priceAt(lastRecord[id]), null));
+        }
+
+        commit(run);
+        return new Diff(run, (int) seen.stream().filter(id -> parent[id] < 0).count(), rates, changes);
+    }
+
+    private void observe(int run, long now, int id, Price price, boolean room, Set<Integer> seen, List<Change> changes) {
+        seen.add(id);
+        boolean known = lastRunOf[id] > 0;
+        if (!known || lastRunOf[id] < lastRun) {
+            changes.add(new Change(Kind.NEW, labels.get(id), room, null, price));
+        } else if (price.known()) {
+            Price before = priceAt(lastRecord[id]);
+            if (before.known() && (before.amountMinor() != price.amountMinor() || !before.currency().equals(price.currency()))) {
+                changes.add(new Change(Kind.PRICE, labels.get(id), room, before, price));
+            }
+        }
+        append(now, run, id, price, room);
+    }
+
+    private void append(long now, int run, int id, Price price, boolean room) {
+        long index = count;
+        long pos = HEADER + index * RECORD;
+        ensureCapacity(pos + RECORD);
+        int flags = (room ? FLAG_ROOM : 0) | (price.discounted() ? FLAG_DISCOUNTED : 0) | (price.taxesIncluded() ? FLAG_TAXES_INCLUDED : 0);
+        int currency = keyId("C\t" + price.currency(), price.currency(), -1);
+        map.putLong((int) pos, now)
+                .putInt((int) pos + 8, run)
+                .putInt((int) pos + 12, id)
+                .putLong((int) pos + 16, price.amountMinor())
+                .putInt((int) pos + 24, (flags << 24) | currency)
+                .putInt((int) pos + 28, lastRunOf[id] > 0 ? lastRecord[id] : -1);
+        lastPrice[id] = price.amountMinor();
+        lastRunOf[id] = run;
+        lastRecord[id] = (int) index;
+        count++;
+    }
+
+    private void commit(int run) throws IOException {
+        lastRun = run;
+        // records first, then the count that makes them visible
+        map.force();
+        map.putLong(8, count).putInt(16, lastRun);
+        map.force();
+        saveIndex();
+    }
+
+    // ---------------- READS ----------------
+
+    // Every observation of one key, oldest first, by following the back-pointers
+    public synchronized List<Observation> series(String key) {
+        Integer id = ids.get(key);
+        List<Observation> out = new ArrayList<>();
+        if (id == null || lastRunOf[id] == 0) return out;
+        for (int rec = lastRecord[id]; rec >= 0; rec = map.getInt(HEADER + rec * RECORD + 28)) {
+            int pos = HEADER + rec * RECORD;
+            out.add(new Observation(map.getLong(pos), map.getInt(pos + 8), priceAt(rec)));
+        }
+        Collections.reverse(out);
+        return out;
+    }
+
+    // Sequential pass over the whole log; returns records visited (for scan-speed checks)
+    public synchronized long scan(IntPredicate keyFilter, BiConsumer<String, Observation> sink) {
+        for (long rec = 0; rec < count; rec++) {
+            int pos = (int) (HEADER + rec * RECORD);
+            int id = map.getInt(pos + 12);
+            if (keyFilter.test(id)) sink.accept(labels.get(id), new Observation(map.getLong(pos), map.getInt(pos + 8), priceAt((int) rec)));
+        }
+        return count;
+    }
+
+    public synchronized long observations() { return count; }
+    public synchronized int runs() { return lastRun; }
+    public synchronized int keys() { return keys.size(); }
+
+    public synchronized List<String> keysMatching(String labelPart) {
+        List<String> out = new ArrayList<>();
+        String needle = labelPart.toLowerCase();
+        for (int i = 0; i < keys.size(); i++) {
+            if (!keys.get(i).startsWith("C\t") && labels.get(i).toLowerCase().contains(needle)) out.add(keys.get(i));
+        }
+        return out;
+    }
+
+    public String label(String key) {
+        Integer id = ids.get(key);
+        return id == null ? key : labels.get(id);
+    }
+
+    private Price priceAt(int rec) {
+        int pos = HEADER + rec * RECORD;
+        int cf = map.getInt(pos + 24);
+        int flags = cf >>> 24;
+        String currency = labels.get(cf & 0xFFFFFF);
+        long amount = map.getLong(pos + 16);
+        // the original amount is not kept per observation; only whether there was a discount
+        return new Price(amount, amount, currency, (flags & FLAG_TAXES_INCLUDED) != 0, -1);
+    }
+
+    // ---------------- STORAGE ----------------
+
+    private void ensureCapacity(long needed) {
+        if (needed <= map.capacity()) return;
+        long size = map.capacity();
+        while (size < needed) size = Math.min(Integer.MAX_VALUE, size * 2);
+        if (needed > size) throw new IllegalStateException("History log is full (2 GB): " + dir);
+        try {
+            map = log.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot grow history log " + dir + ": " + e.getMessage(), e);
+        }
+    }
+
+    private int keyId(String key, String label, int parentId) {
+        Integer id = ids.get(key);
+        if (id != null) return id;
+        String clean = label == null ? "" : label.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+        String line = clean + "\t" + key.replace('\n', ' ').replace('\r', ' ') + "\n";
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        try {
+            // under the store lock, and refresh() has read the file to its end: this line is key id keys.size()
+            Files.write(dir.resolve("keys.txt"), bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            keysRead += bytes.length;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot append to history dictionary: " + e.getMessage(), e);
+        }
+        return addKey(key, clean, parentId);
+    }
+
+    private int addKey(String key, String label, int parentId) {
+        int id = keys.size();
+        keys.add(key);
+        labels.add(label);
+        ids.put(key, id);
+        parent = Columns.ensure(parent, id);
+        parent[id] = parentId;
+        lastPrice = Columns.ensure(lastPrice, id);
+        lastRunOf = Columns.ensure(lastRunOf, id);
+        lastRecord = Columns.ensure(lastRecord, id);
+        return id;
+    }
+
+    // Lines of keys.txt past keysRead; a line without its newline yet is left for the next call
+    private void loadKeys() throws IOException {
+        Path file = dir.resolve("keys.txt");
+        if (!Files.exists(file)) return;
+        byte[] bytes;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size <= keysRead) return;
+            ByteBuffer b = ByteBuffer.allocate((int) (size - keysRead));
+            while (b.hasRemaining() && ch.read(b, keysRead + b.position()) >= 0) {}
+            bytes = Arrays.copyOf(b.array(), b.position());
+        }
+        int complete = 0;
+        for (int i = bytes.length - 1; i >= 0; i--) {
+            if (bytes[i] == '\n') {
+                complete = i + 1;
+                break;
+            }
+        }
+        keysRead += complete;
+        String text = new String(bytes, 0, complete, StandardCharsets.UTF_8);
+        for (String line : text.split("\n")) {
+            int tab = line.indexOf('\t');
+            if (tab < 0) continue;
+            String key = line.substring(tab + 1);
+            int parentId = -1;
+            if (key.startsWith("R\t")) {
+                int end = key.indexOf('\t', 2);
+                Integer p = ids.get("H\t" + key.substring(2, end < 0 ? key.length() : end));
+                parentId = p == null ? -1 : p;
+            }
+            addKey(key, line.substring(0, tab), parentId);
+        }
+    }
+
+    private void loadIndex() throws IOException {
+        Arrays.fill(lastRecord, -1);
+        long covered = 0;
+        Path file = dir.resolve("index.bin");
+        if (Files.exists(file)) {
+            ByteBuffer b = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (b.remaining() >= 16 && b.getInt() == MAGIC) {
+                covered = b.getLong();
+                int n = b.getInt();
+                for (int id = 0; id < n && id < keys.size() && b.remaining() >= 16; id++) {
+                    lastPrice[id] = b.getLong();
+                    lastRunOf[id] = b.getInt();
+                    lastRecord[id] = b.getInt();
+                }
+            }
+        }
+        if (covered > count) covered = 0; // index from a log that was replaced: rebuild
+        // replay whatever the index has not seen (crash between log commit and index save)
+        replay(covered, count);
+    }
+
+    private void replay(long from, long to) {
+        for (long rec = from; rec < to; rec++) {
+            int pos = (int) (HEADER + rec * RECORD);
+            int id = map.getInt(pos + 12);
+            if (id >= keys.size()) continue;
+            lastPrice[id] = map.getLong(pos + 16);
+            lastRunOf[id] = map.getInt(pos + 8);
+            lastRecord[id] = (int) rec;
+        }
+    }
+
+    // Under the lock: picks up keys and runs that other processes recorded since this store last looked
+    private void refresh() throws IOException {
+        loadKeys();
+        if (log.size() > map.capacity()) map = log.map(FileChannel.MapMode.READ_WRITE, 0, log.size());
+        long committed = map.getLong(8);
+        if (committed > count) {
+            replay(count, committed);
+            count = committed;
+            lastRun = map.getInt(16);
+        }
+    }
+
+    private void saveIndex() throws IOException {
+        int n = keys.size();
+        ByteBuffer b = ByteBuffer.allocate(16 + 16 * n);
+        b.putInt(MAGIC).putLong(count).putInt(n);
+        for (int id = 0; id < n; id++) b.putLong(lastPrice[id]).putInt(lastRunOf[id]).putInt(lastRecord[id]);
+        Path tmp = dir.resolve("index.bin.tmp");
+        Files.write(tmp, b.array());
+        Files.move(tmp, dir.resolve("index.bin"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String scopeName(SearchJob job) {
+        try {
+            byte[] d = MessageDigest.getInstance("SHA-256").digest(job.cacheKey().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(d, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        log.close();
+        lockFile.close();
+    }
+
+    public static void print(Diff diff) {
+        System.out.println("History run " + diff.run() + ": " + diff.hotels() + " hotels, " + diff.rates() + " rates; "
+                + diff.count(Kind.NEW) + " new, " + diff.count(Kind.DROPPED) + " dropped, " + diff.count(Kind.PRICE) + " price moves");
+        for (Change c : diff.changes()) System.out.println(c);
+    }
+
+    // Usage: PriceHistoryStore ["Goa, India;2026-11-01;2026-11-04;..."] [label substring]
+    public static void main(String[] args) throws IOException {
+        SearchJob job = args.length > 0 ? SearchJob.parse(args[0]) : SearchJob.defaultJob();
+        try (PriceHistoryStore store = open(job)) {
+            long t0 = System.nanoTime();
+            long[] visited = {0};
+            store.scan(id -> true, (label, o) -> visited[0]++);
+            long ms = Math.max(1, (System.nanoTime() - t0) / 1_000_000);
+            System.out.println("History for " + job.cacheKey() + ": " + store.runs() + " runs, " + store.keys() + " keys, "
+                    + store.observations() + " observations (full scan " + ms + " ms)");
+            if (args.length > 1) {
+                for (String key : store.keysMatching(args[1])) {
+                    System.out.println(store.label(key));
+                    for (Observation o : store.series(key)) {
+                        System.out.println("  run " + o.run() + " " + Instant.ofEpochMilli(o.epochMillis()) + " " + o.price());
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package org.example;
+
+import java.util.Currency;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Turns card / room price text into a Price without regexes or intermediate strings:
+//   "₹ 15,100 ₹ 13,700 +₹ 1,644 taxes and charges"  -> INR 13700.00 was 15100.00, taxes 1644.00
+//   "1.234,56 €", "CHF 1'234.50", "US$1,234", "₹ 1,23,456", "12 345 Kč", "¥ 12,000", "KWD 12.345"
+// Grouping vs decimal separator is decided per number: the last of mixed '.'/',' is the decimal mark,
+// a single separator followed by exactly three digits is grouping (unless the currency has three
+// fraction digits), otherwise it is decimal. Ambiguous symbols ("$", "kr") resolve to
+// -Dbooking.currency when that is a matching currency, else USD / SEK.
+// A number with no currency marker counts only as a surcharge ("+ 1,644 taxes"), as the whole text, after
+// a price word ("Total: 13,700") or after "was" (the original price, as Price.toString writes it). A
+// surcharge or "was" amount takes the currency of the marked price; otherwise a bare number takes
+// -Dbooking.currency (XXX when unset). "2 adults" is not a price.
+public final class PriceParser {
+
+    private PriceParser() {}
+
+    private static final int MAX_AMOUNTS = 8;
+
+    // Longest markers first so "US$" wins over "$" and "JP¥" over "¥"
+    private static final String[][] MARKERS = {
+            {"руб.", "RUB"}, {"US$", "USD"}, {"AU$", "AUD"}, {"CA$", "CAD"}, {"NZ$", "NZD"}, {"SG$", "SGD"},
+            {"HK$", "HKD"}, {"MX$", "MXN"}, {"NT$", "TWD"}, {"JP¥", "JPY"}, {"CN¥", "CNY"}, {"Rs.", "INR"},
+            {"lei", "RON"}, {"A$", "AUD"}, {"C$", "CAD"}, {"S$", "SGD"}, {"R$", "BRL"}, {"Rs", "INR"},
+            {"zł", "PLN"}, {"Kč", "CZK"}, {"Ft", "HUF"}, {"TL", "TRY"}, {"RM", "MYR"}, {"Rp", "IDR"},
+            {"kr", null}, {"₹", "INR"}, {"€", "EUR"}, {"£", "GBP"}, {"¥", "JPY"}, {"₩", "KRW"}, {"฿", "THB"},
+            {"₫", "VND"}, {"₺", "TRY"}, {"₱", "PHP"}, {"₪", "ILS"}, {"₽", "RUB"}, {"₴", "UAH"}, {"$", null},
+    };
+
+    private static final ConcurrentHashMap<String, Integer> FRACTION_DIGITS = new ConcurrentHashMap<>();
+
+    private static final String DEFAULT_CURRENCY = System.getProperty("booking.currency", "");
+
+    public static Price parse(String text) {
+        return parse(text, DEFAULT_CURRENCY);
+    }
+
+    // fallbackCurrency applies to bare numbers and ambiguous symbols; "" means unknown (XXX)
+    public static Price parse(String text, String fallbackCurrency) {
+        if (text == null || text.isEmpty()) return Price.UNKNOWN;
+        int n = text.length();
+
+        int[] starts = new int[MAX_AMOUNTS], ends = new int[MAX_AMOUNTS];
+        String[] currencies = new String[MAX_AMOUNTS];
+        boolean[] tax = new boolean[MAX_AMOUNTS], was = new boolean[MAX_AMOUNTS];
+        int count = 0;
+
+        int i = 0;
+        while (i < n && count < MAX_AMOUNTS) {
+            if (!isDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            if (i > 0 && Character.isLetter(text.charAt(i - 1)) && !markerEndsAt(text, i)) {
+                // part of a word ("B2B", "A380"), not an amount
+                while (i < n && isDigit(text.charAt(i))) i++;
+                continue;
+            }
+            int end = scanNumber(text, i);
+
+            int before = skipSpacesBack(text, i);
+            int markerLen = markerLengthEndingAt(text, before);
+            String currency = markerLen > 0 ? markerCurrency(text, before - markerLen, markerLen, fallbackCurrency) : null;
+            int lead = markerLen > 0 ? skipSpacesBack(text, before - markerLen) : before;
+            if (currency == null) {
+                int after = skipSpaces(text, end);
+                int len = markerLengthStartingAt(text, after);
+                if (len > 0) currency = markerCurrency(text, after, len, fallbackCurrency);
+            }
+
+            boolean charge = (lead > 0 && text.charAt(lead - 1) == '+') || nextWordIsCharge(text, end);
+            boolean original = currency == null && !charge && followsWord(text, lead, "was");
+            if (currency == null && !charge && !original && !priceContext(text, lead, end)) {
+                // a count ("2 adults", "3 nights"), not an amount
+                i = end;
+                continue;
+            }
+            starts[count] = i;
+            ends[count] = end;
+            currencies[count] = currency;
+            tax[count] = charge;
+            was[count] = original;
+            count++;
+            i = end;
+        }
+        if (count == 0) return Price.UNKNOWN;
+
+        // Marked amounts win over bare ones
+        String currency = null;
+        for (int k = 0; k < count; k++) {
+            if (!tax[k] && currencies[k] != null) {
+                currency = currencies[k];
+                break;
+            }
+        }
+        boolean bareOnly = currency == null;
+        if (bareOnly) currency = fallbackOrUnknown(fallbackCurrency);
+        // Minor units only now: a bare surcharge or "was" amount uses the marked price's fraction digits
+        int fd = fractionDigits(currency);
+        long first = -1, last = -1, before = -1, taxes = -1;
+        for (int k = 0; k < count; k++) {
+            boolean sameCurrency = currencies[k] == null || currency.equals(currencies[k]);
+            if (!sameCurrency) continue;
+            long minor = toMinor(text, starts[k], ends[k], fd);
+            if (tax[k]) {
+                taxes = Math.max(taxes, 0) + minor;
+            } else if (was[k]) {
+                before = Math.max(before, minor);
+            } else if (bareOnly || currencies[k] != null) {
+                if (first < 0) first = minor;
+                last = minor;
+            }
+        }
+        if (last < 0) return Price.UNKNOWN;
+        return new Price(last, Math.max(Math.max(first, last), before), currency, taxes < 0 && taxesIncluded(text), taxes);
+    }
+
+    // Index of the first currency marker in text, or -1
+    public static int currencyStart(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (markerLengthStartingAt(text, i) > 0) return i;
+        }
+        return -1;
+    }
+
+    static int fractionDigits(String currency) {
+        return FRACTION_DIGITS.computeIfAbsent(currency, c -> {
+            try {
+                int fd = Currency.getInstance(c).getDefaultFractionDigits();
+                return fd < 0 ? 2 : fd;
+            } catch (IllegalArgumentException e) {
+                return 2;
+            }
+        });
+    }
+
+    // ---------------- NUMBERS ----------------
+
+    private static int scanNumber(String s, int i) {
+        int n = s.length();
+        int j = i, lastDigit = i, group = 0;
+        while (j < n) {
+            char c = s.charAt(j);
+            if (isDigit(c)) {
+                lastDigit = j;
+                group++;
+                j++;
+            } else if ((c == ',' || c == '.' || c == '\'' || c == '’') && j + 1 < n && isDigit(s.charAt(j + 1))) {
+                group = 0;
+                j++;
+            } else if (isSpace(c) && group <= 3 && threeDigitGroupAt(s, j + 1)) {
+                // "12 345 €": a space only groups when exactly three digits follow
+                group = 0;
+                j++;
+            } else {
+                break;
+            }
+        }
+        return lastDigit + 1;
+    }
+
+    private static boolean threeDigitGroupAt(String s, int i) {
+        if (i + 3 > s.length()) return false;
+        for (int k = i; k < i + 3; k++) if (!isDigit(s.charAt(k))) return false;
+        return i + 3 == s.length() || !isDigit(s.charAt(i + 3));
+    }
+
+    private static long toMinor(String s, int start, int end, int fractionDigits) {
+        int dots = 0, commas = 0, lastSep = -1;
+        char lastSepChar = 0;
+        for (int k = start; k < end; k++) {
+            char c = s.charAt(k);
+            if (c == '.' || c == ',') {
+                if (c == '.') dots++;
+                else commas++;
+                lastSep = k;
+                lastSepChar = c;
+            }
+        }
+
+        boolean decimal = false;
+        if (lastSep >= 0) {
+            int after = end - lastSep - 1;
+            int same = lastSepChar == '.' ? dots : commas;
+            if (dots > 0 && commas > 0) decimal = same == 1;
+            else decimal = same == 1 && (after != 3 || fractionDigits == 3);
+        }
+
+        long whole = 0;
+        int digits = 0;
+        int wholeEnd = decimal ? lastSep : end;
+        for (int k = start; k < wholeEnd; k++) {
+            char c = s.charAt(k);
+            if (isDigit(c) && digits < 15) {
+                whole = whole * 10 + (c - '0');
+                digits++;
+            }
+        }
+
+        long minor = whole;
+        for (int f = 0; f < fractionDigits; f++) minor *= 10;
+        if (decimal) {
+            long frac = 0;
+            int taken = 0;
+            for (int k = lastSep + 1; k < end && taken < fractionDigits; k++, taken++) frac = frac * 10 + (s.charAt(k) - '0');
+            for (; taken < fractionDigits; taken++) frac *= 10;
+            // round half up on the first dropped digit
+            int dropped = lastSep + 1 + fractionDigits;
+            if (dropped < end && s.charAt(dropped) >= '5') frac++;
+            minor += frac;
+        }
+        return minor;
+    }
+
+    // ---------------- CURRENCY MARKERS ----------------
+
+    private static int markerLengthEndingAt(String s, int end) {
+        for (String[] m : MARKERS) {
+            int start = end - m[0].length();
+            if (start >= 0 && s.startsWith(m[0], start) && boundaryBefore(s, start, m[0])) return m[0].length();
+        }
+        if (end >= 3 && isIsoCode(s, end - 3) && (end == 3 || !Character.isLetter(s.charAt(end - 4)))) return 3;
+        return 0;
+    }
+
+    private static int markerLengthStartingAt(String s, int start) {
+        if (start >= s.length()) return 0;
+        for (String[] m : MARKERS) {
+            if (s.startsWith(m[0], start) && boundaryBefore(s, start, m[0])) {
+                int end = start + m[0].length();
+                if (!Character.isLetter(m[0].charAt(m[0].length() - 1)) || end == s.length() || !Character.isLetter(s.charAt(end))) {
+                    return m[0].length();
+                }
+            }
+        }
+        if (isIsoCode(s, start) && (start == 0 || !Character.isLetter(s.charAt(start - 1)))
+                && (start + 3 == s.length() || !Character.isLetter(s.charAt(start + 3)))) return 3;
+        return 0;
+    }
+
+    // A number glued to a letter marker ("Rs500", "US$1,234") is still a price
+    private static boolean markerEndsAt(String s, int end) {
+        return markerLengthEndingAt(s, end) > 0;
+    }
+
+    // Letter markers ("Rs", "kr", "TL") must not be the tail of a longer word
+    private static boolean boundaryBefore(String s, int start, String marker) {
+        return !Character.isLetter(marker.charAt(0)) || start == 0 || !Character.isLetter(s.charAt(start - 1));
+    }
+
+    private static boolean isIsoCode(String s, int i) {
+        if (i < 0 || i + 3 > s.length()) return false;
+        int key = 0;
+        for (int k = i; k < i + 3; k++) {
+            char c = s.charAt(k);
+            if (c < 'A' || c > 'Z') return false;
+            key = key * 26 + (c - 'A');
+        }
+        return ISO_CODES[key];
+    }
+
+    // Every ISO 4217 code the JDK knows, indexed by its three letters (base 26); XXX excluded
+    private static final boolean[] ISO_CODES = new boolean[26 * 26 * 26];
+
+    static {
+        for (Currency c : Currency.getAvailableCurrencies()) {
+            String code = c.getCurrencyCode();
+            if (code.length() == 3 && !code.equals("XXX") && code.chars().allMatch(ch -> ch >= 'A' && ch <= 'Z')) {
+                ISO_CODES[((code.charAt(0) - 'A') * 26 + (code.charAt(1) - 'A')) * 26 + (code.charAt(2) - 'A')] = true;
+            }
+        }
+    }
+
+    private static boolean isIsoCode(String code) {
+        return code != null && code.length() == 3 && isIsoCode(code, 0);
+    }
+
+    private static String markerCurrency(String s, int start, int len, String fallback) {
+        for (String[] m : MARKERS) {
+            if (m[0].length() == len && s.startsWith(m[0], start)) {
+                if (m[1] != null) return m[1];
+                if (m[0].equals("kr")) {
+                    return fallback != null && (fallback.equals("SEK") || fallback.equals("NOK") || fallback.equals("DKK") || fallback.equals("ISK"))
+                            ? fallback : "SEK";
+                }
+                return fallback != null && fallback.endsWith("D") && isIsoCode(fallback) ? fallback : "USD";
+            }
+        }
+        return s.substring(start, start + len);
+    }
+
+    private static String fallbackOrUnknown(String fallback) {
+        return fallback == null || fallback.isEmpty() ? "XXX" : fallback;
+    }
+
+    // ---------------- CONTEXT ----------------
+
+    private static boolean nextWordIsCharge(String s, int end) {
+        int i = skipSpaces(s, end);
+        return s.regionMatches(true, i, "tax", 0, 3) || s.regionMatches(true, i, "fee", 0, 3)
+                || s.regionMatches(true, i, "charge", 0, 6);
+    }
+
+    // A number without a currency marker is only a price when it is all the text holds ("13700", a data
+    // attribute) or follows a price word ("Total: 13,700", "from 9,500")
+    private static boolean priceContext(String s, int lead, int end) {
+        if (lead == 0 && skipSpaces(s, end) == s.length()) return true;
+        for (String word : PRICE_WORDS) {
+            if (followsWord(s, lead, word)) return true;
+        }
+        return false;
+    }
+
+    // The text before lead ends with word, optionally followed by ':' ("Total: 13,700", "was 15100.00")
+    private static boolean followsWord(String s, int lead, String word) {
+        int k = lead > 0 && s.charAt(lead - 1) == ':' ? skipSpacesBack(s, lead - 1) : lead;
+        int start = k - word.length();
+        return start >= 0 && s.regionMatches(true, start, word, 0, word.length())
+                && (start == 0 || !Character.isLetter(s.charAt(start - 1)));
+    }
+
+    private static final String[] PRICE_WORDS = {"price", "total", "from", "cost", "amount"};
+
+    // "Includes taxes and charges", "incl. taxes", "taxes included", "including taxes"
+    private static boolean taxesIncluded(String s) {
+        int n = s.length();
+        for (int i = 0; i + 3 <= n; i++) {
+            if ((s.charAt(i) | 0x20) != 't' || (s.charAt(i + 1) | 0x20) != 'a' || (s.charAt(i + 2) | 0x20) != 'x') continue;
+            int from = Math.max(0, i - 12);
+            for (int k = from; k + 4 <= i; k++) {
+                if (s.regionMatches(true, k, "incl", 0, 4)) return true;
+            }
+            for (int k = i + 3, to = Math.min(n - 4, i + 24); k <= to; k++) {
+                if (s.regionMatches(true, k, "incl", 0, 4)) return true;
+            }
+        }
+        return false;
+    }
+
+    private static int skipSpaces(String s, int i) {
+        while (i < s.length() && isSpace(s.charAt(i))) i++;
+        return i;
+    }
+
+    private static int skipSpacesBack(String s, int i) {
+        while (i > 0 && isSpace(s.charAt(i - 1))) i--;
+        return i;
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\u00a0' || c == '\u202f' || c == '\u2009' || c == '\n' || c == '\t';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
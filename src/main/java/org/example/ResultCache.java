@@ -0,0 +1,201 @@
+package org.example;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// On-disk cache of SearchOutcomes keyed by the normalized SearchJob, so a repeated search within the TTL
+// never starts a browser. One file per entry: 8-byte expiry (epoch millis) followed by the serialized outcome.
+// Entries are evicted least-recently-used once the cache exceeds maxEntries or maxBytes; a file's
+// modification time doubles as its last-access time so the LRU order survives restarts.
+// Entries with only the results page (no rooms) live under the CARDS scope, so a hotels-only run never
+// answers a lookup that expects rooms. Reading only accepts the outcome's own classes and java.util
+// collections; any other class in a file fails the read and the entry is dropped.
+public class ResultCache {
+
+    private static final String SUFFIX = ".bin";
+
+    private static final ObjectInputFilter FILTER = ObjectInputFilter.Config.createFilter(
+            "maxdepth=8;maxarray=100000;org.example.SearchOutcome;org.example.HotelCard;org.example.Main$RoomInfo;"
+                    + "java.util.*;java.lang.Object;!*");
+
+    // Scope of SearchEngine's entries: hotels only, rooms always empty
+    public static final String CARDS = "cards";
+
+    private final Path dir;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final long maxBytes;
+
+    // file name -> size in bytes, in access order (eldest first)
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private long hits, misses, evictions, expired;
+
+    public ResultCache(Path dir, Duration ttl, int maxEntries, long maxBytes) throws IOException {
+        this.dir = dir;
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(dir);
+        loadIndex();
+    }
+
+    // -Dbooking.cacheDir (default .booking-cache), -Dbooking.cacheTtlMinutes (15),
+    // -Dbooking.cacheMaxEntries (500), -Dbooking.cacheMaxMb (256)
+    public static ResultCache fromProperties() throws IOException {
+        return new ResultCache(
+                Path.of(System.getProperty("booking.cacheDir", ".booking-cache")),
+                Duration.ofMinutes(Long.getLong("booking.cacheTtlMinutes", 15)),
+                Integer.getInteger("booking.cacheMaxEntries", 500),
+                Long.getLong("booking.cacheMaxMb", 256) * 1024 * 1024
+        );
+    }
+
+    // -Dbooking.refresh=true skips lookups (results are still written back)
+    public static boolean forceRefresh() {
+        return Boolean.getBoolean("booking.refresh");
+    }
+
+    public Optional<SearchOutcome> get(SearchJob job) {
+        return get(null, job);
+    }
+
+    // scope: null for full outcomes (hotels and rooms), or a name such as CARDS for partial ones
+    public synchronized Optional<SearchOutcome> get(String scope, SearchJob job) {
+        String name = fileName(scope, job);
+        if (!index.containsKey(name)) {
+            misses++;
+            return Optional.empty();
+        }
+
+        Path file = dir.resolve(name);
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            long expiresAt = ByteBuffer.wrap(bytes, 0, Long.BYTES).getLong();
+            if (System.currentTimeMillis() > expiresAt) {
+                expired++;
+                misses++;
+                remove(name);
+                return Optional.empty();
+            }
+            SearchOutcome outcome;
+            try (ObjectInputStream in = new ObjectInputStream(
+                    new ByteArrayInputStream(bytes, Long.BYTES, bytes.length - Long.BYTES))) {
+                in.setObjectInputFilter(FILTER);
+                outcome = (SearchOutcome) in.readObject();
+            }
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            hits++;
+            return Optional.of(outcome);
+        } catch (IOException | ClassNotFoundException | ClassCastException | IndexOutOfBoundsException e) {
+            // Corrupt or written by an incompatible build: treat as a miss and drop it
+            misses++;
+            remove(name);
+            return Optional.empty();
+        }
+    }
+
+    public void put(SearchJob job, SearchOutcome outcome) {
+        put(null, job, outcome);
+    }
+
+    public synchronized void put(String scope, SearchJob job, SearchOutcome outcome) {
+        String name = fileName(scope, job);
+        try {
+            ByteArrayOutputStream buf = new ByteArrayOutputStream();
+            buf.write(ByteBuffer.allocate(Long.BYTES).putLong(System.currentTimeMillis() + ttl.toMillis()).array());
+            try (ObjectOutputStream out = new ObjectOutputStream(buf)) {
+                out.writeObject(outcome);
+            }
+
+            Path tmp = dir.resolve(name + ".tmp");
+            Files.write(tmp, buf.toByteArray());
+            Files.move(tmp, dir.resolve(name), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            Long old = index.put(name, (long) buf.size());
+            totalBytes += buf.size() - (old == null ? 0 : old);
+            evictIfNeeded();
+        } catch (IOException e) {
+            System.out.println("Cache write failed for " + job.destination() + ": " + e.getMessage());
+        }
+    }
+
+    public synchronized String stats() {
+        return "Cache: hits=" + hits + " misses=" + misses + " expired=" + expired + " evictions=" + evictions
+                + " entries=" + index.size() + " bytes=" + totalBytes;
+    }
+
+    public synchronized long hits() { return hits; }
+    public synchronized long misses() { return misses; }
+    public synchronized long evictions() { return evictions; }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Long>> it = index.entrySet().iterator();
+        while ((index.size() > maxEntries || totalBytes > maxBytes) && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            it.remove();
+            totalBytes -= eldest.getValue();
+            evictions++;
+            try { Files.deleteIfExists(dir.resolve(eldest.getKey())); } catch (IOException ignored) {}
+        }
+    }
+
+    private void remove(String name) {
+        Long size = index.remove(name);
+        if (size != null) totalBytes -= size;
+        try { Files.deleteIfExists(dir.resolve(name)); } catch (IOException ignored) {}
+    }
+
+    private void loadIndex() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(p -> p.getFileName().toString().endsWith(SUFFIX))
+                    .sorted((a, b) -> lastModified(a).compareTo(lastModified(b)))
+                    .forEach(p -> {
+                        try {
+                            long size = Files.size(p);
+                            index.put(p.getFileName().toString(), size);
+                            totalBytes += size;
+                        } catch (IOException ignored) {}
+                    });
+        }
+        evictIfNeeded();
+    }
+
+    private static FileTime lastModified(Path p) {
+        try {
+            return Files.getLastModifiedTime(p);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static String fileName(String scope, SearchJob job) {
+        String key = scope == null ? job.cacheKey() : scope + "|" + job.cacheKey();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16) + SUFFIX;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+// Where extracted hotels and rooms go. Records are handed over as they are extracted (one hotel, or one
+// hotel's rooms, at a time) and the file sinks write them straight through a buffered FileChannel, so
+// nothing accumulates in memory however long a crawl runs. Implementations are thread-safe.
+//   -Dbooking.output (console | ndjson | csv | columnar)   -Dbooking.outputFile (results/<runId>.<ext>)
+//   -Dbooking.outputFlushMs (1000)  -Dbooking.outputBufferKb (64)  -Dbooking.outputBlockRows (1024, columnar)
+public interface ResultSink extends AutoCloseable {
+
+    enum Format {
+        CONSOLE(null), NDJSON("ndjson"), CSV("csv"), COLUMNAR("col");
+
+        final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        static Format fromProperty() {
+            String v = System.getProperty("booking.output", "console");
+            try {
+                return Format.valueOf(v.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.out.println("Unknown booking.output=" + v + ", using console");
+                return CONSOLE;
+            }
+        }
+    }
+
+    void hotel(HotelCard hotel);
+
+    // All rooms of one hotel; the hotel itself may or may not have been passed to hotel() before
+    void rooms(HotelCard hotel, List<Main.RoomInfo> rooms);
+
+    // Pushes buffered records to the file (the sinks also do this on their own every outputFlushMs)
+    void flush();
+
+    // e.g. "Output [ndjson]: 250 hotels, 1210 rooms, 612 KB -> results/run-1.ndjson"
+    String stats();
+
+    @Override
+    void close();
+
+    static ResultSink console() {
+        return new ConsoleSink();
+    }
+
+    static ResultSink open(Format format, Path file) throws IOException {
+        Duration flushEvery = Duration.ofMillis(Long.getLong("booking.outputFlushMs", 1000));
+        int buffer = Integer.getInteger("booking.outputBufferKb", 64) * 1024;
+        return switch (format) {
+            case CONSOLE -> new ConsoleSink();
+            case NDJSON -> new NdjsonSink(file, buffer, flushEvery);
+            case CSV -> new CsvSink(file, buffer, flushEvery);
+            case COLUMNAR -> new ColumnarSink(file, buffer, flushEvery, Integer.getInteger("booking.outputBlockRows", 1024));
+        };
+    }
+
+    static ResultSink fromProperties(String runId) throws IOException {
+        Format format = Format.fromProperty();
+        if (format == Format.CONSOLE) return console();
+        String file = System.getProperty("booking.outputFile");
+        return open(format, file != null ? Path.of(file) : Path.of("results", runId + "." + format.extension));
+    }
+
+    // For callers that must not fail on output: a sink that cannot be opened falls back to the console
+    static ResultSink fromPropertiesOrConsole(String runId) {
+        try {
+            return fromProperties(runId);
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("Result output unavailable (" + e.getMessage() + "), printing to the console");
+            return console();
+        }
+    }
+}
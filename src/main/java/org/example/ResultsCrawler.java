@@ -0,0 +1,183 @@
+package org.example;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Walks every results page (or "Load more results" batch) of a search and streams each hotel to a consumer.
+// Cards go through a bounded queue to a separate sink thread: when the sink is slow, the hand-off blocks the crawler
+// instead of letting parsed hotels pile up in memory.
+public class ResultsCrawler {
+
+    public record Stats(int pages, int emitted, int duplicates, long millis) {}
+
+    private static final HotelCard END = new HotelCard("", "", "", "", false, false, "");
+
+    private final WebDriver driver;
+    private final int maxPages;
+    private final int queueCapacity;
+
+    public ResultsCrawler(WebDriver driver, int maxPages, int queueCapacity) {
+        if (maxPages < 1) throw new IllegalArgumentException("maxPages must be >= 1");
+        if (queueCapacity < 1) throw new IllegalArgumentException("queueCapacity must be >= 1");
+        this.driver = driver;
+        this.maxPages = maxPages;
+        this.queueCapacity = queueCapacity;
+    }
+
+    // Expects the driver to already be on the first results page (see Main.openResults)
+    public Stats crawl(Consumer<HotelCard> sink) throws InterruptedException {
+        BlockingQueue<HotelCard> queue = new ArrayBlockingQueue<>(queueCapacity);
+        Throwable[] sinkError = new Throwable[1];
+
+        Thread writer = Threads.start("crawl-sink", () -> {
+            try {
+                for (HotelCard card = queue.take(); card != END; card = queue.take()) {
+                    sink.accept(card);
+                }
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable t) {
+                sinkError[0] = t;
+                queue.clear();
+            }
+        });
+
+        long t0 = System.nanoTime();
+        Set<String> seen = new HashSet<>();
+        int pages = 0, emitted = 0, duplicates = 0;
+        int consumed = 0; // cards already read from the current document
+        int rows = 0;     // cards read across all documents, the offset of the next unseen result
+        String firstPageUrl = driver.getCurrentUrl();
+
+        try {
+            while (pages < maxPages && writer.isAlive()) {
+                List<HotelCard> batch = CardExtractor.extract(driver, consumed);
+                consumed += batch.size();
+                rows += batch.size();
+                pages++;
+
+                int fresh = 0;
+                for (HotelCard card : batch) {
+                    if (!seen.add(card.propertyKey())) {
+                        duplicates++;
+                        continue;
+                    }
+                    if (!handOff(queue, card, writer)) break;
+                    fresh++;
+                }
+                emitted += fresh;
+                System.out.println("Crawl page " + pages + ": " + batch.size() + " cards, " + fresh + " new");
+
+                if (fresh == 0 && pages > 1) break;
+                if (pages >= maxPages) break;
+
+                if (loadMore()) continue;
+                if (clickNextPage()) {
+                    consumed = 0;
+                    continue;
+                }
+                if (!openOffsetPage(firstPageUrl, rows)) break;
+                consumed = 0;
+            }
+        } finally {
+            if (writer.isAlive()) queue.put(END);
+            writer.join();
+        }
+
+        if (sinkError[0] != null) throw new IllegalStateException("Sink failed during crawl", sinkError[0]);
+
+        Stats stats = new Stats(pages, emitted, duplicates, (System.nanoTime() - t0) / 1_000_000);
+        System.out.println("Crawl done: pages=" + stats.pages() + " hotels=" + stats.emitted()
+                + " duplicates=" + stats.duplicates() + " time=" + stats.millis() + " ms");
+        return stats;
+    }
+
+    // Blocks while the sink is behind; gives up only if the sink thread died
+    private static boolean handOff(BlockingQueue<HotelCard> queue, HotelCard card, Thread writer) throws InterruptedException {
+        while (!queue.offer(card, 100, TimeUnit.MILLISECONDS)) {
+            if (!writer.isAlive()) return false;
+        }
+        return true;
+    }
+
+    // Infinite-scroll layout: "Load more results" appends cards to the same document
+    private boolean loadMore() {
+        List<WebElement> buttons = driver.findElements(By.xpath(
+                "//button[.//span[contains(normalize-space(),'Load more results')] or contains(normalize-space(),'Load more results')]"
+        ));
+        if (buttons.isEmpty()) {
+            // Some variants only load the next batch on scroll
+            long before = cardCount();
+            DomSettle.arm(driver);
+            ((JavascriptExecutor) driver).executeScript("window.scrollTo(0, document.body.scrollHeight);");
+            DomSettle.awaitCards(driver, "crawl-scroll", Duration.ofSeconds(3));
+            return cardCount() > before;
+        }
+        DomSettle.arm(driver);
+        ((JavascriptExecutor) driver).executeScript("arguments[0].click();", buttons.get(0));
+        DomSettle.awaitCards(driver, "crawl-load-more", Duration.ofSeconds(5));
+        return true;
+    }
+
+    // Classic pagination: a "Next page" button that swaps the list
+    private boolean clickNextPage() {
+        List<WebElement> next = driver.findElements(By.cssSelector("button[aria-label='Next page'], a[aria-label='Next page']"));
+        if (next.isEmpty() || !next.get(0).isEnabled()) return false;
+        DomSettle.arm(driver);
+        ((JavascriptExecutor) driver).executeScript("arguments[0].click();", next.get(0));
+        DomSettle.await(driver, "crawl-next-page", Duration.ofSeconds(5));
+        return true;
+    }
+
+    // Last resort: the results URL accepts an offset parameter
+    private boolean openOffsetPage(String firstPageUrl, int offset) {
+        String base = firstPageUrl.replaceAll("([?&])offset=\\d+&?", "$1");
+        driver.get(base + (base.contains("?") ? "&" : "?") + "offset=" + offset);
+        try {
+            new WebDriverWait(driver, Duration.ofSeconds(10)).until(d -> cardCount() > 0);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private long cardCount() {
+        Object n = ((JavascriptExecutor) driver).executeScript(
+                "return document.querySelectorAll(\"" + CardExtractor.CARD_CSS + "\").length;");
+        return n instanceof Number num ? num.longValue() : 0;
+    }
+
+    // Usage: ResultsCrawler ["Goa, India;2026-11-01;2026-11-04;FOUR_STARS_PLUS"]
+    // -Dbooking.maxPages=N (default 10), -Dbooking.crawlQueue=N (default 100), -Dbooking.output (see ResultSink)
+    public static void main(String[] args) throws InterruptedException {
+        MetricsServer.startFromProperties();
+        SearchJob job = args.length > 0 ? SearchJob.parse(args[0]) : SearchJob.defaultJob();
+        Drivers.Counted counted = Drivers.headless();
+        try {
+            Main.openResults(counted.driver(), Main.newWait(counted.driver()), job, Main.Navigation.fromProperty());
+            ResultsCrawler crawler = new ResultsCrawler(counted.driver(),
+                    Integer.getInteger("booking.maxPages", 10),
+                    Integer.getInteger("booking.crawlQueue", 100));
+            // each hotel goes to the sink from the crawl-sink thread while the next page loads
+            try (ResultSink sink = ResultSink.fromPropertiesOrConsole(RunTrace.newRunId())) {
+                crawler.crawl(sink::hotel);
+                sink.flush();
+                System.out.println(sink.stats());
+            }
+        } finally {
+            counted.driver().quit();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.example;
+
+// One room-rate observation of a crawl: which search saw it, on which hotel, at what price. Immutable.
+// The query and hotel are shared references (one SearchJob / HotelCard per search / card, not per rate),
+// the text is interned and the price is parsed into minor units, so a rate is one ~64-byte object plus
+// nothing it owns alone; a RoomInfo holds five Strings of its own. ModelCodec writes these compactly.
+public record RoomRate(SearchJob query,
+                       HotelCard hotel,
+                       String roomType,
+                       long priceMinor,
+                       long originalMinor,
+                       long taxesMinor,
+                       String currency,
+                       byte persons,
+                       byte flags,
+                       String mealPlan,
+                       String cancellation) {
+
+    static final byte TAXES_INCLUDED = 1, FREE_CANCELLATION = 2;
+
+    public RoomRate {
+        Interner in = Interner.shared();
+        roomType = in.intern(roomType);
+        currency = in.intern(currency);
+        mealPlan = in.intern(mealPlan);
+        cancellation = in.intern(cancellation);
+    }
+
+    public static RoomRate of(SearchJob query, HotelCard hotel, Main.RoomInfo room) {
+        Price p = PriceParser.parse(room.price);
+        return new RoomRate(query, hotel, room.roomType, p.amountMinor(), p.originalMinor(), p.taxesMinor(), p.currency(),
+                (byte) persons(room.occupancy),
+                (byte) ((p.taxesIncluded() ? TAXES_INCLUDED : 0) | (room.freeCancellation() ? FREE_CANCELLATION : 0)),
+                room.mealPlan, room.cancellation);
+    }
+
+    public Price price() {
+        return new Price(priceMinor, originalMinor, currency, (flags & TAXES_INCLUDED) != 0, taxesMinor);
+    }
+
+    public boolean freeCancellation() {
+        return (flags & FREE_CANCELLATION) != 0;
+    }
+
+    // Back to the scraper's shape; the price text is the normalized one
+    public Main.RoomInfo room() {
+        Price p = price();
+        return new Main.RoomInfo(roomType, p.known() ? p.toString() : "Price not found",
+                persons > 0 ? "Max. people: " + persons : "", mealPlan, cancellation);
+    }
+
+    // "Max. people: 2", "Sleeps 3", "2 adults" -> first number, capped at 127; 0 when the rate did not state it
+    static int persons(String occupancy) {
+        if (occupancy == null) return 0;
+        int n = 0;
+        boolean seen = false;
+        for (int i = 0; i < occupancy.length(); i++) {
+            char c = occupancy.charAt(i);
+            if (c >= '0' && c <= '9') {
+                n = Math.min(127, n * 10 + (c - '0'));
+                seen = true;
+            } else if (seen) {
+                break;
+            }
+        }
+        return n;
+    }
+}
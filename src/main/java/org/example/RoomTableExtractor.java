@@ -0,0 +1,73 @@
+package org.example;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Reads the availability block in one executeScript. The script visits each row (table layout) or rate
+// option (room-card layout) exactly once, carrying the current room type across rowspans, and uses
+// textContent so the browser doesn't have to lay anything out. One RoomInfo per rate option, no cap.
+public class RoomTableExtractor {
+
+    private static final String SCRIPT =
+            "const clean = s => (s || '').replace(/\\s+/g, ' ').trim();" +
+            "const text = (root, sel) => { const e = root.querySelector(sel); return e ? clean(e.textContent) : ''; };" +
+            "const MONEY = /(?:[₹$€£¥]|\\b(?:INR|USD|EUR|GBP|AED|US\\$|Rs\\.?)\\s?)\\s?\\d/;" +
+            "const MEAL = /breakfast|dinner|lunch|meal|inclusive|room only/i;" +
+            "const CANCEL = /cancel|refund/i;" +
+            "const PRICE_SEL = \".prco-valign-middle-helper, [data-testid='price-and-discounted-price'], .bui-price-display__value, [class*='prco-']\";" +
+            "const rate = (room, scope) => {" +
+            "  let price = text(scope, PRICE_SEL);" +
+            "  if (!price) { const cell = Array.from(scope.querySelectorAll('td, div, span')).find(e => e.children.length === 0 && MONEY.test(e.textContent)); price = cell ? clean(cell.textContent) : ''; }" +
+            "  const occupancy = text(scope, \".hprt-occupancy-occupancy-info, [data-testid='occupancy'], [class*='occupancy']\");" +
+            "  const conds = Array.from(scope.querySelectorAll(\".hprt-conditions-bui li, [class*='conditions'] li, [data-testid='policies'] li\")).map(li => clean(li.textContent));" +
+            "  return { room: room, price: price, occupancy: occupancy," +
+            "           meal: conds.find(c => MEAL.test(c)) || '', cancellation: conds.find(c => CANCEL.test(c)) || '' };" +
+            "};" +
+            "const out = [];" +
+            "const table = document.querySelector('#hprt-table, table.hprt-table')" +
+            "  || Array.from(document.querySelectorAll('table')).find(t => /room type/i.test(t.tHead ? t.tHead.textContent : ''));" +
+            "if (table) {" +
+            "  let room = '';" +
+            "  for (const body of table.tBodies) for (const tr of body.rows) {" +
+            "    const name = text(tr, \".hprt-roomtype-link, .hprt-roomtype-icon-link, [data-testid='room-name'], th[scope='row']\");" +
+            "    if (name) room = name;" +
+            "    if (room) out.push(rate(room, tr));" +
+            "  }" +
+            "  return out;" +
+            "}" +
+            "for (const card of document.querySelectorAll(\"[data-testid='room-card'], [data-testid*='room-type-card']\")) {" +
+            "  const room = text(card, \"[data-testid='room-name'], h3, h2\");" +
+            "  if (!room) continue;" +
+            "  const options = card.querySelectorAll(\"[data-testid='rate-option']\");" +
+            "  if (options.length === 0) out.push(rate(room, card));" +
+            "  else for (const o of options) out.push(rate(room, o));" +
+            "}" +
+            "return out;";
+
+    public static List<Main.RoomInfo> extract(WebDriver driver) {
+        Object raw = ((JavascriptExecutor) driver).executeScript(SCRIPT);
+        List<Main.RoomInfo> out = new ArrayList<>();
+        if (!(raw instanceof List<?> rows)) return out;
+
+        for (Object row : rows) {
+            if (!(row instanceof Map<?, ?> m)) continue;
+            String price = Main.normalizePrice(str(m.get("price")));
+            out.add(new Main.RoomInfo(
+                    str(m.get("room")),
+                    price.isBlank() ? "Price not found" : price,
+                    str(m.get("occupancy")),
+                    str(m.get("meal")),
+                    str(m.get("cancellation"))
+            ));
+        }
+        return out;
+    }
+
+    private static String str(Object v) {
+        return v == null ? "" : v.toString().trim();
+    }
+}
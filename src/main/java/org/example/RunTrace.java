@@ -0,0 +1,234 @@
+package org.example;
+
+import org.openqa.selenium.By;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Per-run timing trace: wall time, WebDriver calls and outcome (ok/hit/miss/fallback/error) for every named
+// step and helper, plus per-locator hit/miss stats. A step records "ok" unless its body set another outcome;
+// a body that can throw calls failed(e) before rethrowing, so the step records "error". Bound to the current
+// thread, so helpers can record without threading it through every signature; when no run is active, recording is a no-op.
+// finish() writes <traceDir>/<runId>.json and appends the steps to <traceDir>/steps.tsv for summarize().
+public class RunTrace {
+
+    private static final ThreadLocal<RunTrace> CURRENT = new ThreadLocal<>();
+    private static final RunTrace NOOP = new RunTrace("noop", null);
+
+    private final String runId;
+    private final CallCounter calls;
+    private final long startNanos = System.nanoTime();
+    private final long startCalls;
+    private final Instant startedAt = Instant.now();
+    private final List<StepRecord> steps = Collections.synchronizedList(new ArrayList<>()); // TaskScope forks add too
+    private final Map<String, LocatorStats> locators = new LinkedHashMap<>();
+
+    private record StepRecord(String name, long startMs, long ms, long calls, String outcome) {}
+
+    private static final class LocatorStats {
+        final String target;
+        final String locator;
+        int hits, misses;
+        long hitNanos, missNanos;
+
+        LocatorStats(String target, String locator) {
+            this.target = target;
+            this.locator = locator;
+        }
+    }
+
+    public final class Step implements AutoCloseable {
+        private final String name;
+        private final long t0 = System.nanoTime();
+        private final long c0;
+        private String outcome = "ok";
+
+        private Step(String name) {
+            this.name = name;
+            this.c0 = calls == null ? 0 : calls.get();
+            Metrics.stepStarted(name);
+        }
+
+        public Step outcome(String outcome) {
+            this.outcome = outcome;
+            return this;
+        }
+
+        // An exception is leaving the body: catch (Throwable e) { step.failed(e); throw e; }
+        public void failed(Throwable e) {
+            outcome = "error";
+        }
+
+        @Override
+        public void close() {
+            long now = System.nanoTime();
+            Metrics.stepFinished(name, outcome, now - t0);
+            if (RunTrace.this == NOOP) return;
+            steps.add(new StepRecord(name, (t0 - startNanos) / 1_000_000, (now - t0) / 1_000_000,
+                    calls == null ? 0 : calls.get() - c0, outcome));
+        }
+    }
+
+    private RunTrace(String runId, CallCounter calls) {
+        this.runId = runId;
+        this.calls = calls;
+        this.startCalls = calls == null ? 0 : calls.get();
+    }
+
+    public static RunTrace start(String runId, CallCounter calls) {
+        RunTrace trace = new RunTrace(runId, calls);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    // Binds a trace to this thread (TaskScope sub-tasks); returns what was bound before, null = unbind
+    static RunTrace bind(RunTrace trace) {
+        RunTrace previous = CURRENT.get();
+        if (trace == null || trace == NOOP) CURRENT.remove();
+        else CURRENT.set(trace);
+        return previous;
+    }
+
+    public static RunTrace current() {
+        RunTrace t = CURRENT.get();
+        return t == null ? NOOP : t;
+    }
+
+    public static String newRunId() {
+        return "run-" + System.currentTimeMillis() + "-" + Thread.currentThread().getId();
+    }
+
+    public String runId() {
+        return runId;
+    }
+
+    public Step step(String name) {
+        return new Step(name);
+    }
+
+    // One findElements attempt for a logical target (e.g. "filter:BREAKFAST_INCLUDED")
+    public synchronized void locator(String target, By by, boolean hit, long nanos) {
+        if (this == NOOP) return;
+        LocatorStats s = locators.computeIfAbsent(target + "\u0000" + by, k -> new LocatorStats(target, by.toString()));
+        if (hit) {
+            s.hits++;
+            s.hitNanos += nanos;
+        } else {
+            s.misses++;
+            s.missNanos += nanos;
+        }
+    }
+
+    public static Path traceDir() {
+        return Path.of(System.getProperty("booking.traceDir", "traces"));
+    }
+
+    // Writes the JSON trace + appends steps.tsv, and unbinds the trace from this thread
+    public Path finish() {
+        CURRENT.remove();
+        if (this == NOOP) return null;
+        long totalMs = (System.nanoTime() - startNanos) / 1_000_000;
+        Path dir = traceDir();
+        try {
+            Files.createDirectories(dir);
+            Path json = dir.resolve(runId + ".json");
+            Files.writeString(json, toJson(totalMs), StandardCharsets.UTF_8);
+
+            StringBuilder tsv = new StringBuilder();
+            for (StepRecord s : steps) {
+                tsv.append(runId).append('\t').append(s.name()).append('\t').append(s.ms())
+                        .append('\t').append(s.calls()).append('\t').append(s.outcome()).append('\n');
+            }
+            Files.writeString(dir.resolve("steps.tsv"), tsv, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            System.out.println("Trace written: " + json);
+            return json;
+        } catch (IOException e) {
+            System.out.println("Trace write failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    String toJson(long totalMs) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n  \"runId\": ").append(Json.quote(runId))
+                .append(",\n  \"startedAt\": ").append(Json.quote(startedAt.toString()))
+                .append(",\n  \"totalMs\": ").append(totalMs)
+                .append(",\n  \"webDriverCalls\": ").append(calls == null ? 0 : calls.get() - startCalls)
+                .append(",\n  \"steps\": [");
+        for (int i = 0; i < steps.size(); i++) {
+            StepRecord s = steps.get(i);
+            sb.append(i == 0 ? "\n" : ",\n")
+                    .append("    {\"name\": ").append(Json.quote(s.name()))
+                    .append(", \"startMs\": ").append(s.startMs())
+                    .append(", \"ms\": ").append(s.ms())
+                    .append(", \"calls\": ").append(s.calls())
+                    .append(", \"outcome\": ").append(Json.quote(s.outcome())).append('}');
+        }
+        sb.append("\n  ],\n  \"locators\": [");
+        int i = 0;
+        for (LocatorStats s : locators.values()) {
+            sb.append(i++ == 0 ? "\n" : ",\n")
+                    .append("    {\"target\": ").append(Json.quote(s.target))
+                    .append(", \"locator\": ").append(Json.quote(s.locator))
+                    .append(", \"hits\": ").append(s.hits)
+                    .append(", \"misses\": ").append(s.misses)
+                    .append(", \"hitMs\": ").append(s.hitNanos / 1_000_000)
+                    .append(", \"missMs\": ").append(s.missNanos / 1_000_000).append('}');
+        }
+        return sb.append("\n  ]\n}\n").toString();
+    }
+
+    // Outcomes where the step did not do its job; the rest (ok, hit, warm, cold, jump-x2, ...) are normal results
+    static final Set<String> FAILURES = Set.of("error", "miss", "timeout", "fallback", "partial", "dropped");
+
+    // p50/p90/p99 per step across every run recorded in steps.tsv
+    public static void summarize(Path dir) throws IOException {
+        Path tsv = dir.resolve("steps.tsv");
+        if (!Files.exists(tsv)) {
+            System.out.println("No traces in " + dir);
+            return;
+        }
+
+        Map<String, List<long[]>> byStep = new TreeMap<>();
+        for (String line : Files.readAllLines(tsv, StandardCharsets.UTF_8)) {
+            String[] f = line.split("\t");
+            if (f.length < 5) continue;
+            byStep.computeIfAbsent(f[1], k -> new ArrayList<>())
+                    .add(new long[]{Long.parseLong(f[2]), Long.parseLong(f[3]), FAILURES.contains(f[4]) ? 1 : 0});
+        }
+
+        System.out.println(String.format("%-28s %6s %8s %8s %8s %8s %9s %8s",
+                "step", "n", "p50ms", "p90ms", "p99ms", "maxms", "avgCalls", "fail%"));
+        for (Map.Entry<String, List<long[]>> e : byStep.entrySet()) {
+            List<long[]> rows = e.getValue();
+            long[] ms = rows.stream().mapToLong(r -> r[0]).sorted().toArray();
+            double avgCalls = rows.stream().mapToLong(r -> r[1]).average().orElse(0);
+            double failed = 100.0 * rows.stream().mapToLong(r -> r[2]).sum() / rows.size();
+            System.out.println(String.format("%-28s %6d %8d %8d %8d %8d %9.1f %7.1f%%",
+                    e.getKey(), ms.length, percentile(ms, 50), percentile(ms, 90), percentile(ms, 99),
+                    ms[ms.length - 1], avgCalls, failed));
+        }
+    }
+
+    static long percentile(long[] sorted, int p) {
+        if (sorted.length == 0) return 0;
+        int idx = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))];
+    }
+
+    public static void main(String[] args) throws IOException {
+        summarize(args.length > 0 ? Path.of(args[0]) : traceDir());
+    }
+}
@@ -0,0 +1,221 @@
+package org.example;
+
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+// Runs many SearchJobs across a DriverPool of headless Chromes. With -Dbooking.threads=virtual each job
+// gets its own virtual thread (the pool's permits still bound the browsers). After the cards, a job's
+// sub-tasks run in a TaskScope: a results screenshot (-Dbooking.engineScreenshots=true) on the job's
+// own driver, and -Dbooking.engineDetails=N detail pages, each on a lean driver from a second pool
+// (-Dbooking.engineDetailDrivers, default 2) so jobs never wait on each other's search drivers.
+// With -Dbooking.staticHtml=true results and detail pages are tried without a browser first; a job whose
+// results page parses statically (and wants no screenshot) never takes a search driver.
+public class SearchEngine implements AutoCloseable {
+
+    // Rough resident size of one headless Chrome + chromedriver
+    private static final long BYTES_PER_DRIVER = 600L * 1024 * 1024;
+
+    private final DriverPool pool;
+    private final DriverPool detailPool;
+    private final ExecutorService executor;
+    private final int size;
+    private final ResultCache cache; // null = always scrape
+    private final int details = Integer.getInteger("booking.engineDetails", 0);
+    private final boolean screenshots = Boolean.getBoolean("booking.engineScreenshots");
+
+    public SearchEngine(int size, int maxJobsPerDriver) {
+        this(size, maxJobsPerDriver, null);
+    }
+
+    public SearchEngine(int size, int maxJobsPerDriver, ResultCache cache) {
+        this.size = size;
+        this.cache = cache;
+        this.pool = new DriverPool(size, maxJobsPerDriver, Drivers::headless);
+        this.detailPool = new DriverPool(Math.max(1, Integer.getInteger("booking.engineDetailDrivers", 2)), maxJobsPerDriver, Drivers::lean);
+        this.executor = Threads.executor("search-worker", size);
+    }
+
+    // One driver per core, capped by what physical memory can hold
+    public static int defaultSize() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        long ram = physicalMemoryBytes();
+        int byRam = ram > 0 ? (int) Math.max(1, ram / BYTES_PER_DRIVER) : cores;
+        return Math.max(1, Math.min(cores, byRam));
+    }
+
+    public List<SearchResult> run(List<SearchJob> jobs) throws InterruptedException {
+        List<Future<SearchResult>> futures = new ArrayList<>();
+        Metrics.JOBS_PLANNED.add(jobs.size());
+        for (SearchJob job : jobs) {
+            futures.add(executor.submit(() -> {
+                SearchResult r = runOne(job);
+                Metrics.job(r.ok() ? "ok" : "error");
+                return r;
+            }));
+        }
+
+        List<SearchResult> results = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).get());
+            } catch (ExecutionException e) {
+                results.add(new SearchResult(jobs.get(i), List.of(), 0, 0, String.valueOf(e.getCause())));
+                Metrics.job("error");
+            }
+        }
+        return results;
+    }
+
+    private SearchResult runOne(SearchJob job) throws InterruptedException {
+        long t0 = System.nanoTime();
+        if (cache != null && !ResultCache.forceRefresh()) {
+            Optional<SearchOutcome> cached = cache.get(ResultCache.CARDS, job);
+            if (cached.isPresent()) return new SearchResult(job, cached.get().hotels(), elapsedMs(t0), 0, null);
+        }
+
+        if (StaticHtmlExtractor.enabled() && !screenshots) {
+            Optional<List<HotelCard>> hotels = StaticHtmlExtractor.shared().tryCards(SearchUrlBuilder.build(job));
+            if (hotels.isPresent()) {
+                if (cache != null) cache.put(ResultCache.CARDS, job, new SearchOutcome(hotels.get(), List.of()));
+                List<DetailFanOut.HotelDetail> fetched = subTasks(job, null, hotels.get());
+                return new SearchResult(job, hotels.get(), elapsedMs(t0), 0, null, fetched);
+            }
+        }
+
+        DriverPool.Lease lease = pool.acquire();
+        long c0 = lease.calls().get();
+        boolean crashed = false;
+        RunTrace trace = RunTrace.start(RunTrace.newRunId(), lease.calls());
+        try {
+            WebDriverWait wait = Main.newWait(lease.driver());
+            Main.openResults(lease.driver(), wait, job, Main.Navigation.fromProperty());
+            List<HotelCard> hotels = CardExtractor.extract(lease.driver(), lease.calls(), CardExtractor.Mode.fromProperty());
+            if (cache != null && !hotels.isEmpty()) cache.put(ResultCache.CARDS, job, new SearchOutcome(hotels, List.of()));
+            List<DetailFanOut.HotelDetail> fetched = subTasks(job, lease, hotels);
+            return new SearchResult(job, hotels, elapsedMs(t0), lease.calls().get() - c0, null, fetched);
+        } catch (Exception e) {
+            crashed = !DriverPool.isAlive(lease.driver());
+            return new SearchResult(job, List.of(), elapsedMs(t0), lease.calls().get() - c0, e.getClass().getSimpleName() + ": " + e.getMessage());
+        } finally {
+            trace.finish();
+            pool.release(lease, crashed);
+        }
+    }
+
+    // Screenshot and detail pages side by side; a failed detail page is reported, not fatal to the job.
+    // lease is null when the cards came from static HTML (no screenshot then)
+    private List<DetailFanOut.HotelDetail> subTasks(SearchJob job, DriverPool.Lease lease, List<HotelCard> hotels)
+            throws InterruptedException {
+        if (!screenshots && details <= 0) return List.of();
+        List<Future<DetailFanOut.HotelDetail>> forks = new ArrayList<>();
+        try (TaskScope scope = new TaskScope("search-subtask")) {
+            if (screenshots) {
+                scope.fork(() -> ArtifactPipeline.shared().capture(lease.driver(), "results"));
+            }
+            for (HotelCard hotel : hotels.subList(0, Math.min(details, hotels.size()))) {
+                forks.add(scope.fork(() -> fetchDetail(hotel)));
+            }
+            scope.join();
+            if (scope.failure() != null) System.out.println("Sub-task failed for " + job.destination() + ": " + scope.failure());
+        }
+        List<DetailFanOut.HotelDetail> out = new ArrayList<>();
+        for (Future<DetailFanOut.HotelDetail> f : forks) {
+            if (f.isDone() && !f.isCancelled()) {
+                try { out.add(f.get()); } catch (ExecutionException ignored) {}
+            }
+        }
+        return out;
+    }
+
+    private DetailFanOut.HotelDetail fetchDetail(HotelCard hotel) throws InterruptedException {
+        Optional<List<Main.RoomInfo>> rooms = DetailFanOut.staticRooms(hotel);
+        if (rooms.isPresent()) return new DetailFanOut.HotelDetail(hotel, rooms.get(), 1, null);
+
+        DriverPool.Lease lease = detailPool.acquire();
+        boolean crashed = false;
+        try {
+            return new DetailFanOut.HotelDetail(hotel, DetailFanOut.loadOne(lease.driver(), hotel, Duration.ofSeconds(20)), 1, null);
+        } catch (RuntimeException e) {
+            crashed = !DriverPool.isAlive(lease.driver());
+            return new DetailFanOut.HotelDetail(hotel, List.of(), 1, e.getClass().getSimpleName() + ": " + e.getMessage());
+        } finally {
+            detailPool.release(lease, crashed);
+        }
+    }
+
+    public static void printSummary(List<SearchResult> results, long wallMs) {
+        int ok = 0, hotels = 0;
+        for (SearchResult r : results) {
+            System.out.println((r.ok() ? "OK   " : "FAIL ") + r.job().destination() + " " + r.job().checkIn() + ".." + r.job().checkOut()
+                    + " hotels=" + r.hotels().size()
+                    + (r.details().isEmpty() ? "" : " details=" + r.details().stream().filter(DetailFanOut.HotelDetail::ok).count() + "/" + r.details().size())
+                    + " time=" + r.millis() + "ms calls=" + r.webDriverCalls()
+                    + (r.ok() ? "" : " error=" + r.error()));
+            if (r.ok()) ok++;
+            hotels += r.hotels().size();
+        }
+        System.out.println("Jobs: " + results.size() + " ok=" + ok + " failed=" + (results.size() - ok)
+                + " hotels=" + hotels + " wall=" + wallMs + "ms");
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        System.out.println("Drivers started=" + pool.created() + " recycled=" + pool.recycled());
+        if (cache != null) System.out.println(cache.stats());
+        LocatorRegistry.shared().save();
+        System.out.println(LocatorRegistry.shared().report());
+        pool.close();
+        detailPool.close();
+        ArtifactPipeline artifacts = ArtifactPipeline.sharedIfStarted();
+        if (artifacts != null) {
+            artifacts.close();
+            System.out.println(artifacts.stats());
+        }
+    }
+
+    private static long elapsedMs(long t0) {
+        return (System.nanoTime() - t0) / 1_000_000;
+    }
+
+    private static long physicalMemoryBytes() {
+        try {
+            OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+            if (os instanceof com.sun.management.OperatingSystemMXBean sun) return sun.getTotalMemorySize();
+        } catch (Throwable ignored) {}
+        return -1;
+    }
+
+    // Usage: SearchEngine "Goa, India;2026-11-01;2026-11-04;FOUR_STARS_PLUS" "Jaipur;2026-12-01;2026-12-03" ...
+    // -Dbooking.poolSize=N and -Dbooking.jobsPerDriver=N override the defaults.
+    public static void main(String[] args) throws InterruptedException, IOException {
+        MetricsServer.startFromProperties();
+        List<SearchJob> jobs = new ArrayList<>();
+        for (String a : args) jobs.add(SearchJob.parse(a));
+        if (jobs.isEmpty()) jobs.add(SearchJob.defaultJob());
+
+        int size = Integer.getInteger("booking.poolSize", defaultSize());
+        int perDriver = Integer.getInteger("booking.jobsPerDriver", 20);
+
+        long t0 = System.nanoTime();
+        try (SearchEngine engine = new SearchEngine(Math.min(size, jobs.size()), perDriver, ResultCache.fromProperties())) {
+            System.out.println("Running " + jobs.size() + " jobs on " + engine.size() + " drivers, " + Threads.mode() + " threads");
+            List<SearchResult> results = engine.run(jobs);
+            printSummary(results, elapsedMs(t0));
+        }
+    }
+}
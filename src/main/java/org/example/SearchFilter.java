@@ -0,0 +1,49 @@
+package org.example;
+
+import org.openqa.selenium.By;
+
+import java.util.List;
+
+// Sidebar filters we know how to apply. The checkbox input and its label inside the filters group are the
+// same control, so they form an anyOf group that LocatorRegistry orders by hit rate; the page-wide text match
+// is a fallback and always goes last. codes are the nflt values used when the filter goes straight into the
+// results URL.
+public enum SearchFilter {
+
+    FOUR_STARS_PLUS(List.of("class=4", "class=5"),
+            LocatorRegistry.anyOf(
+                    By.cssSelector("input[name='class=4'], input[name='class=5']"),
+                    By.xpath("//div[@data-filters-group='class']//span[contains(.,'4 stars')]")),
+            By.xpath("//div[@data-filters-group='class']//span[contains(.,'4')]")
+    ),
+
+    BREAKFAST_INCLUDED(List.of("mealplan=1"),
+            LocatorRegistry.anyOf(
+                    By.cssSelector("input[name='mealplan=1']"),
+                    By.xpath("//div[contains(@data-testid,'filters-group')]//span[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'breakfast')]")),
+            By.xpath("//span[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'breakfast included')]")
+    ),
+
+    FREE_CANCELLATION(List.of("fc=1"),
+            LocatorRegistry.anyOf(
+                    By.cssSelector("input[name='fc=1']"),
+                    By.xpath("//div[contains(@data-testid,'filters-group')]//span[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'free cancellation')]")),
+            By.xpath("//span[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'free cancellation')]")
+    );
+
+    private final List<String> codes;
+    private final By[] locators;
+
+    SearchFilter(List<String> codes, By... locators) {
+        this.codes = codes;
+        this.locators = locators;
+    }
+
+    public List<String> codes() {
+        return codes;
+    }
+
+    public By[] locators() {
+        return locators.clone();
+    }
+}
@@ -0,0 +1,59 @@
+package org.example;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+// One destination x date window x filter combination.
+public record SearchJob(String destination, LocalDate checkIn, LocalDate checkOut, Set<SearchFilter> filters,
+                        int adults, int rooms) {
+
+    public SearchJob {
+        if (destination == null || destination.isBlank()) throw new IllegalArgumentException("destination is required");
+        if (!checkOut.isAfter(checkIn)) throw new IllegalArgumentException("checkOut must be after checkIn: " + checkIn + " / " + checkOut);
+        if (adults < 1 || rooms < 1) throw new IllegalArgumentException("adults and rooms must be >= 1");
+        filters = filters.isEmpty() ? Set.of() : Collections.unmodifiableSet(EnumSet.copyOf(filters));
+    }
+
+    public SearchJob(String destination, LocalDate checkIn, LocalDate checkOut, Set<SearchFilter> filters) {
+        this(destination, checkIn, checkOut, filters, 2, 1);
+    }
+
+    // The search Main has always run: Goa, 10 days out, 3 nights, every filter.
+    public static SearchJob defaultJob() {
+        LocalDate today = LocalDate.now();
+        return new SearchJob("Goa, India", today.plusDays(10), today.plusDays(13), EnumSet.allOf(SearchFilter.class));
+    }
+
+    // "Goa, India;2026-11-01;2026-11-04;FOUR_STARS_PLUS,FREE_CANCELLATION" (filters optional)
+    public static SearchJob parse(String spec) {
+        String[] parts = spec.split(";");
+        if (parts.length < 3) throw new IllegalArgumentException("Expected destination;checkIn;checkOut[;filters] but got: " + spec);
+
+        Set<SearchFilter> filters = EnumSet.noneOf(SearchFilter.class);
+        if (parts.length > 3 && !parts[3].isBlank()) {
+            Arrays.stream(parts[3].split(","))
+                    .map(f -> SearchFilter.valueOf(f.trim().toUpperCase()))
+                    .forEach(filters::add);
+        }
+        return new SearchJob(parts[0].trim(), LocalDate.parse(parts[1].trim()), LocalDate.parse(parts[2].trim()), filters);
+    }
+
+    // Same search => same key, regardless of destination casing/spacing or filter order
+    public String cacheKey() {
+        StringBuilder sb = new StringBuilder(destination.trim().toLowerCase().replaceAll("\\s+", " "))
+                .append('|').append(checkIn).append('|').append(checkOut)
+                .append('|').append(adults).append('|').append(rooms).append('|');
+        for (SearchFilter f : filters) { // EnumSet-backed, so always in declaration order
+            sb.append(f.name()).append(',');
+        }
+        return sb.toString();
+    }
+
+    // Lower-cased first token of the destination, used to pick the autocomplete entry
+    String autocompleteHint() {
+        return destination.split(",")[0].trim().toLowerCase();
+    }
+}
@@ -0,0 +1,13 @@
+package org.example;
+
+import java.io.Serializable;
+import java.util.List;
+
+// What one search produced: the result cards plus the rooms read from the first hotel's detail page.
+public record SearchOutcome(List<HotelCard> hotels, List<Main.RoomInfo> rooms) implements Serializable {
+
+    public SearchOutcome {
+        hotels = List.copyOf(hotels);
+        rooms = List.copyOf(rooms);
+    }
+}
@@ -0,0 +1,16 @@
+package org.example;
+
+import java.util.List;
+
+// Outcome of one SearchJob. error is null when the job succeeded; details only when the engine fetched them.
+public record SearchResult(SearchJob job, List<HotelCard> hotels, long millis, long webDriverCalls, String error,
+                           List<DetailFanOut.HotelDetail> details) {
+
+    public SearchResult(SearchJob job, List<HotelCard> hotels, long millis, long webDriverCalls, String error) {
+        this(job, hotels, millis, webDriverCalls, error, List.of());
+    }
+
+    public boolean ok() {
+        return error == null;
+    }
+}
@@ -0,0 +1,36 @@
+package org.example;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+// Builds the searchresults.html URL for a SearchJob so the form UI can be skipped entirely.
+public class SearchUrlBuilder {
+
+    static final String BASE = "https://www.booking.com/searchresults.html";
+
+    public static String build(SearchJob job) {
+        return build(BASE, job);
+    }
+
+    public static String build(String base, SearchJob job) {
+        List<String> codes = new ArrayList<>();
+        for (SearchFilter f : job.filters()) codes.addAll(f.codes());
+
+        StringBuilder url = new StringBuilder(base)
+                .append("?ss=").append(enc(job.destination()))
+                .append("&checkin=").append(job.checkIn().format(DateTimeFormatter.ISO_LOCAL_DATE))
+                .append("&checkout=").append(job.checkOut().format(DateTimeFormatter.ISO_LOCAL_DATE))
+                .append("&group_adults=").append(job.adults())
+                .append("&no_rooms=").append(job.rooms())
+                .append("&group_children=0");
+        if (!codes.isEmpty()) url.append("&nflt=").append(enc(String.join(";", codes)));
+        return url.toString();
+    }
+
+    private static String enc(String s) {
+        return URLEncoder.encode(s, StandardCharsets.UTF_8);
+    }
+}
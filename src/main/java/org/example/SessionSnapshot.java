@@ -0,0 +1,223 @@
+package org.example;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Cookies + localStorage of the booking origin, saved after a run that reached the results and put back
+// before the next run's first navigation, so the consent banner (OneTrust keeps its answer in cookies)
+// and the sign-in nag do not come back. -Dbooking.session=<file> (default .booking-session.json) or
+// =off; snapshots older than -Dbooking.sessionMaxAgeHours (default 72) are ignored.
+public record SessionSnapshot(String origin, long savedAt, List<Map<String, Object>> cookies, Map<String, String> localStorage) {
+
+    // Fills localStorage before the page's own scripts run; keys the page already has win
+    private static final String RESTORE_STORAGE =
+            "(function(origin, data){" +
+            "  if (location.origin !== origin) return;" +
+            "  try { for (const k in data) if (localStorage.getItem(k) === null) localStorage.setItem(k, data[k]); } catch (e) {}" +
+            "})";
+
+    public static Path file() {
+        return Path.of(System.getProperty("booking.session", ".booking-session.json"));
+    }
+
+    public static boolean enabled() {
+        return !"off".equalsIgnoreCase(System.getProperty("booking.session"));
+    }
+
+    // Consent given in an earlier run: the OneTrust cookies or a stored consent flag
+    public boolean consent() {
+        for (Map<String, Object> c : cookies) {
+            String name = String.valueOf(c.get("name"));
+            if (name.startsWith("OptanonAlertBoxClosed") || name.equals("OptanonConsent")) return true;
+        }
+        return localStorage.keySet().stream().anyMatch(k -> k.toLowerCase().contains("consent"));
+    }
+
+    public Duration age() {
+        return Duration.ofMillis(System.currentTimeMillis() - savedAt);
+    }
+
+    @Override
+    public String toString() {
+        return cookies.size() + " cookies, " + localStorage.size() + " localStorage keys, consent="
+                + (consent() ? "yes" : "no") + ", saved " + age().toMinutes() + " min ago";
+    }
+
+    // ---------------- CAPTURE / RESTORE ----------------
+
+    // Whatever the browser holds for the origin of the page it is on; empty off http(s) pages
+    public static Optional<SessionSnapshot> capture(WebDriver driver) {
+        String url = driver.getCurrentUrl();
+        if (url == null || !url.startsWith("http")) return Optional.empty();
+        URI uri = URI.create(url);
+        String origin = uri.getScheme() + "://" + uri.getHost() + (uri.getPort() > 0 ? ":" + uri.getPort() : "");
+        List<Map<String, Object>> cookies = new ArrayList<>();
+        for (Cookie c : driver.manage().getCookies()) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("name", c.getName());
+            m.put("value", c.getValue());
+            m.put("domain", c.getDomain());
+            m.put("path", c.getPath());
+            if (c.getExpiry() != null) m.put("expires", c.getExpiry().getTime() / 1000);
+            m.put("secure", c.isSecure());
+            m.put("httpOnly", c.isHttpOnly());
+            if (c.getSameSite() != null) m.put("sameSite", c.getSameSite());
+            cookies.add(m);
+        }
+        Map<String, String> storage = new LinkedHashMap<>();
+        Object entries = ((JavascriptExecutor) driver).executeScript(
+                "const o = {}; for (let i = 0; i < localStorage.length; i++) { const k = localStorage.key(i); o[k] = localStorage.getItem(k); } return o;");
+        if (entries instanceof Map<?, ?> map) {
+            map.forEach((k, v) -> { if (v != null) storage.put(String.valueOf(k), String.valueOf(v)); });
+        }
+        return Optional.of(new SessionSnapshot(origin, System.currentTimeMillis(), cookies, storage));
+    }
+
+    // Before the first navigation. With CDP nothing is loaded: cookies go in through Network.setCookies and
+    // localStorage through a new-document script. Other drivers only take cookies on an HTML page of the
+    // origin, so its home page is opened first.
+    public void restore(WebDriver driver) {
+        long nowSec = System.currentTimeMillis() / 1000;
+        List<Map<String, Object>> live = new ArrayList<>();
+        for (Map<String, Object> c : cookies) {
+            Object exp = c.get("expires");
+            if (exp instanceof Number n && n.longValue() < nowSec) continue;
+            live.add(c);
+        }
+        String storageJs = RESTORE_STORAGE + "(" + Json.quote(origin) + ", " + storageJson() + ");";
+
+        if (Drivers.unwrap(driver) instanceof HasCdp cdp) {
+            List<Map<String, Object>> params = new ArrayList<>();
+            for (Map<String, Object> c : live) {
+                Map<String, Object> p = new LinkedHashMap<>(c);
+                if (!p.containsKey("domain") || p.get("domain") == null) p.put("url", origin + "/");
+                params.add(p);
+            }
+            cdp.executeCdpCommand("Network.setCookies", Map.of("cookies", params));
+            cdp.executeCdpCommand("Page.enable", Map.of());
+            cdp.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", Map.of("source", storageJs));
+            return;
+        }
+        driver.get(origin + "/");
+        for (Map<String, Object> c : live) {
+            try {
+                Object exp = c.get("expires");
+                driver.manage().addCookie(new Cookie.Builder(String.valueOf(c.get("name")), String.valueOf(c.get("value")))
+                        .domain((String) c.get("domain"))
+                        .path((String) c.getOrDefault("path", "/"))
+                        .expiresOn(exp instanceof Number n ? new Date(n.longValue() * 1000) : null)
+                        .isSecure(Boolean.TRUE.equals(c.get("secure")))
+                        .isHttpOnly(Boolean.TRUE.equals(c.get("httpOnly")))
+                        .sameSite((String) c.get("sameSite"))
+                        .build());
+            } catch (Exception ignored) {}
+        }
+        ((JavascriptExecutor) driver).executeScript(storageJs);
+    }
+
+    // ---------------- FILE ----------------
+
+    @SuppressWarnings("unchecked")
+    public static Optional<SessionSnapshot> load(Path file) {
+        if (!Files.exists(file)) return Optional.empty();
+        try {
+            Map<String, Object> m = (Map<String, Object>) Json.parse(Files.readString(file, StandardCharsets.UTF_8));
+            long savedAt = ((Number) m.get("savedAt")).longValue();
+            long maxAgeMs = Integer.getInteger("booking.sessionMaxAgeHours", 72) * 3_600_000L;
+            if (System.currentTimeMillis() - savedAt > maxAgeMs) {
+                System.out.println("Session snapshot expired: " + file);
+                return Optional.empty();
+            }
+            Map<String, String> storage = new LinkedHashMap<>();
+            ((Map<String, Object>) m.get("localStorage")).forEach((k, v) -> storage.put(k, String.valueOf(v)));
+            return Optional.of(new SessionSnapshot((String) m.get("origin"), savedAt,
+                    (List<Map<String, Object>>) m.get("cookies"), storage));
+        } catch (Exception e) {
+            System.out.println("Ignoring unreadable session snapshot " + file + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void save(Path file) throws IOException {
+        StringBuilder sb = new StringBuilder("{\"origin\":").append(Json.quote(origin))
+                .append(",\"savedAt\":").append(savedAt).append(",\"cookies\":[");
+        for (int i = 0; i < cookies.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append("\n  {");
+            int j = 0;
+            for (Map.Entry<String, Object> e : cookies.get(i).entrySet()) {
+                if (j++ > 0) sb.append(',');
+                Object v = e.getValue();
+                sb.append(Json.quote(e.getKey())).append(':').append(v instanceof String s ? Json.quote(s) : String.valueOf(v));
+            }
+            sb.append('}');
+        }
+        sb.append("],\n\"localStorage\":").append(storageJson()).append("}\n");
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(tmp, sb, StandardCharsets.UTF_8);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private String storageJson() {
+        StringBuilder sb = new StringBuilder("{");
+        int i = 0;
+        for (Map.Entry<String, String> e : localStorage.entrySet()) {
+            if (i++ > 0) sb.append(',');
+            sb.append(Json.quote(e.getKey())).append(':').append(Json.quote(e.getValue()));
+        }
+        return sb.append('}').toString();
+    }
+
+    // Cold (fresh profile, banner handling) vs warm (snapshot restored) time to visible property cards.
+    // Usage: SessionSnapshot [runs per mode, default 3]; needs network access and Chrome.
+    public static void main(String[] args) throws IOException {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        SearchJob job = SearchJob.defaultJob();
+        Path file = Files.createTempFile("booking-session", ".json");
+        long[] cold = new long[runs], warm = new long[runs];
+        for (int i = 0; i < runs * 2; i++) {
+            boolean isWarm = i % 2 == 1;
+            long t0 = System.nanoTime();
+            Drivers.Counted counted = Drivers.create(Drivers.Profile.HEADLESS);
+            WebDriver driver = counted.driver();
+            RunTrace trace = RunTrace.start(RunTrace.newRunId(), counted.calls());
+            try {
+                if (isWarm) load(file).ifPresent(s -> s.restore(driver));
+                Main.openResults(driver, Main.newWait(driver), job, Main.Navigation.DIRECT);
+                long ms = (System.nanoTime() - t0) / 1_000_000;
+                if (isWarm) warm[i / 2] = ms;
+                else {
+                    cold[i / 2] = ms;
+                    Optional<SessionSnapshot> s = capture(driver);
+                    if (s.isPresent()) s.get().save(file);
+                }
+                System.out.println((isWarm ? "warm " : "cold ") + (i / 2 + 1) + ": " + ms + " ms");
+            } finally {
+                driver.quit();
+                trace.finish();
+            }
+        }
+        System.out.printf("Startup to results: cold avg %d ms, warm avg %d ms%n",
+                Arrays.stream(cold).sum() / runs, Arrays.stream(warm).sum() / runs);
+        Files.deleteIfExists(file);
+    }
+}
@@ -0,0 +1,351 @@
+package org.example;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+import org.jsoup.select.QueryParser;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Reads property cards and room rates from server-rendered HTML without a browser: the page comes over
+// plain HTTP (or from a file) and goes through jsoup's StreamParser, which hands over each card / room row
+// as soon as its closing tag is parsed. The row is read and then removed from the tree, so a page never
+// exists as a whole DOM. Selectors and text rules are those of CardExtractor's batch script and
+// RoomTableExtractor, so both paths produce the same records.
+// With -Dbooking.staticHtml=true, search results (SearchEngine without screenshots) and detail pages
+// (DetailFanOut, SearchEngine, BatchRunner) are tried here first; a page that comes back without cards /
+// rooms (rendered by JavaScript, a bot wall, a non-200) goes to the browser as before.
+//   -Dbooking.staticTimeoutSec (15)  -Dbooking.staticUserAgent (desktop Chrome)
+public class StaticHtmlExtractor {
+
+    private static final String USER_AGENT = System.getProperty("booking.staticUserAgent",
+            "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/121.0.0.0 Safari/537.36");
+
+    private static final Evaluator CARD = QueryParser.parse(CardExtractor.CARD_CSS);
+    private static final Evaluator ROOM_SCOPE = QueryParser.parse(
+            "table tbody tr, [data-testid=room-card], [data-testid*=room-type-card]");
+    private static final String TITLE = "div[data-testid=title]";
+    private static final String PRICE = "span[data-testid=price-and-discounted-price]";
+    private static final String RATING = "div[aria-label*=Scored], div[data-testid=review-score]";
+    private static final String LINK = "a[data-testid=title-link]";
+    private static final String ROOM_NAME = ".hprt-roomtype-link, .hprt-roomtype-icon-link, [data-testid=room-name], th[scope=row]";
+    private static final String ROOM_PRICE = ".prco-valign-middle-helper, [data-testid=price-and-discounted-price], .bui-price-display__value, [class*=prco-]";
+    private static final String OCCUPANCY = ".hprt-occupancy-occupancy-info, [data-testid=occupancy], [class*=occupancy]";
+    private static final String CONDITIONS = ".hprt-conditions-bui li, [class*=conditions] li, [data-testid=policies] li";
+    private static final Pattern MONEY = Pattern.compile("(?:[₹$€£¥]|\\b(?:INR|USD|EUR|GBP|AED|US\\$|Rs\\.?)\\s?)\\s?\\d");
+    private static final Pattern MEAL = Pattern.compile("breakfast|dinner|lunch|meal|inclusive|room only", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CANCEL = Pattern.compile("cancel|refund", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CHARSET = Pattern.compile("charset=\"?([\\w.:-]+)", Pattern.CASE_INSENSITIVE);
+
+    private static StaticHtmlExtractor shared;
+
+    private final HttpClient http;
+    private final Duration timeout;
+    private final AtomicLong pages = new AtomicLong(), misses = new AtomicLong(), bytes = new AtomicLong(), nanos = new AtomicLong();
+
+    public StaticHtmlExtractor(Duration timeout) {
+        this.timeout = timeout;
+        this.http = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    public static boolean enabled() {
+        return Boolean.getBoolean("booking.staticHtml");
+    }
+
+    public static synchronized StaticHtmlExtractor shared() {
+        if (shared == null) shared = new StaticHtmlExtractor(Duration.ofSeconds(Integer.getInteger("booking.staticTimeoutSec", 15)));
+        return shared;
+    }
+
+    // ---------------- HYBRID ENTRY POINTS ----------------
+
+    // Cards of a results URL, or empty when the page has none without JavaScript (the caller then uses a browser)
+    public Optional<List<HotelCard>> tryCards(String url) {
+        try (RunTrace.Step step = RunTrace.current().step("static-cards")) {
+            try {
+                List<HotelCard> cards = new ArrayList<>();
+                fetch(url, in -> cards(in, url, cards::add));
+                if (cards.isEmpty()) {
+                    step.outcome("miss");
+                    misses.incrementAndGet();
+                    return Optional.empty();
+                }
+                Metrics.cards("static", cards.size());
+                return Optional.of(cards);
+            } catch (Throwable e) {
+                step.failed(e);
+                throw e;
+            }
+        } catch (IOException | RuntimeException e) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    public Optional<List<Main.RoomInfo>> tryRooms(String url) {
+        if (url == null || url.isBlank()) return Optional.empty();
+        try (RunTrace.Step step = RunTrace.current().step("static-rooms")) {
+            try {
+                List<Main.RoomInfo> rooms = fetch(url, in -> rooms(in, url));
+                if (rooms.isEmpty()) {
+                    step.outcome("miss");
+                    misses.incrementAndGet();
+                    return Optional.empty();
+                }
+                Metrics.rooms("static", rooms.size());
+                return Optional.of(rooms);
+            } catch (Throwable e) {
+                step.failed(e);
+                throw e;
+            }
+        } catch (IOException | RuntimeException e) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    private interface Body<T> {
+        T read(Reader in) throws IOException;
+    }
+
+    private <T> T fetch(String url, Body<T> body) throws IOException, InterruptedException {
+        long t0 = System.nanoTime();
+        HttpRequest req = HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", "text/html,application/xhtml+xml")
+                .header("Accept-Language", "en-GB,en;q=0.9")
+                .GET().build();
+        HttpResponse<InputStream> resp = http.send(req, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream raw = resp.body()) {
+            if (resp.statusCode() != 200) throw new IOException("HTTP " + resp.statusCode() + " for " + url);
+            CountingStream counted = new CountingStream(raw);
+            T out = body.read(new InputStreamReader(counted, charset(resp.headers().firstValue("Content-Type").orElse(""))));
+            pages.incrementAndGet();
+            bytes.addAndGet(counted.count);
+            Metrics.pages("static", 1);
+            return out;
+        } finally {
+            nanos.addAndGet(System.nanoTime() - t0);
+        }
+    }
+
+    public String stats() {
+        long n = pages.get();
+        return String.format("Static HTML: %d pages (%d KB, %.0f ms/page), %d sent to the browser",
+                n, bytes.get() / 1024, n == 0 ? 0.0 : nanos.get() / 1e6 / n, misses.get());
+    }
+
+    // ---------------- PARSING ----------------
+
+    // Streams the property cards of a results page to `out`; returns how many there were
+    public static int cards(Reader in, String baseUri, Consumer<HotelCard> out) throws IOException {
+        int n = 0;
+        try (StreamParser parser = new StreamParser(Parser.htmlParser()).parse(in, baseUri)) {
+            Element card;
+            while ((card = parser.selectNext(CARD)) != null) {
+                out.accept(card(card));
+                card.remove();
+                n++;
+            }
+        }
+        return n;
+    }
+
+    public static List<HotelCard> cards(Path file, String baseUri) throws IOException {
+        List<HotelCard> out = new ArrayList<>();
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            cards(in, baseUri, out::add);
+        }
+        return out;
+    }
+
+    // Same fields and defaults as CardExtractor's BATCH_SCRIPT
+    static HotelCard card(Element c) {
+        Element img = c.selectFirst("img");
+        Element link = c.selectFirst(LINK);
+        if (link == null) link = c.selectFirst("a[href]");
+        String all = c.text().toLowerCase();
+        return new HotelCard(
+                orElse(innerText(c.selectFirst(TITLE)), "N/A"),
+                orElse(innerText(c.selectFirst(PRICE)), "Price not visible"),
+                orElse(innerText(c.selectFirst(RATING)), "Rating not available"),
+                orElse(img != null ? img.absUrl("src") : null, "Image not found"),
+                all.contains("breakfast"),
+                all.contains("free cancellation"),
+                link != null ? link.absUrl("href") : "");
+    }
+
+    // One RoomInfo per table row / rate option, carrying the room type across rowspans (RoomTableExtractor)
+    public static List<Main.RoomInfo> rooms(Reader in, String baseUri) throws IOException {
+        List<Main.RoomInfo> fromTable = new ArrayList<>();
+        List<Main.RoomInfo> fromCards = new ArrayList<>();
+        Element table = null;
+        String room = "";
+        try (StreamParser parser = new StreamParser(Parser.htmlParser()).parse(in, baseUri)) {
+            Element el;
+            while ((el = parser.selectNext(ROOM_SCOPE)) != null) {
+                if (el.nameIs("tr")) {
+                    Element t = el.closest("table");
+                    if (table == null && isRoomTable(t)) table = t;
+                    if (t != null && t == table) {
+                        String name = clean(el.selectFirst(ROOM_NAME));
+                        if (!name.isEmpty()) room = name;
+                        if (!room.isEmpty()) fromTable.add(rate(room, el));
+                    }
+                } else if (table == null) {
+                    String name = clean(el.selectFirst("[data-testid=room-name], h3, h2"));
+                    if (!name.isEmpty()) {
+                        List<Element> options = el.select("[data-testid=rate-option]");
+                        if (options.isEmpty()) fromCards.add(rate(name, el));
+                        else for (Element o : options) fromCards.add(rate(name, o));
+                    }
+                }
+                el.remove();
+            }
+        }
+        // the browser script returns the table when there is one, whatever the order in the page
+        return table != null ? fromTable : fromCards;
+    }
+
+    public static List<Main.RoomInfo> rooms(Path file, String baseUri) throws IOException {
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return rooms(in, baseUri);
+        }
+    }
+
+    private static boolean isRoomTable(Element table) {
+        if (table == null) return false;
+        if (table.id().equals("hprt-table") || table.hasClass("hprt-table")) return true;
+        Element head = table.selectFirst("thead");
+        return head != null && head.text().toLowerCase().contains("room type");
+    }
+
+    private static Main.RoomInfo rate(String room, Element scope) {
+        String price = clean(scope.selectFirst(ROOM_PRICE));
+        if (price.isEmpty()) {
+            for (Element e : scope.select("td, div, span")) {
+                if (e.childrenSize() == 0 && MONEY.matcher(e.text()).find()) {
+                    price = clean(e);
+                    break;
+                }
+            }
+        }
+        String meal = "", cancellation = "";
+        for (Element li : scope.select(CONDITIONS)) {
+            String c = clean(li);
+            if (meal.isEmpty() && MEAL.matcher(c).find()) meal = c;
+            if (cancellation.isEmpty() && CANCEL.matcher(c).find()) cancellation = c;
+        }
+        price = Main.normalizePrice(price);
+        return new Main.RoomInfo(room, price.isBlank() ? "Price not found" : price,
+                clean(scope.selectFirst(OCCUPANCY)), meal, cancellation);
+    }
+
+    // textContent with whitespace collapsed, as the room script reads it
+    private static String clean(Element e) {
+        return e == null ? "" : e.text();
+    }
+
+    // Close enough to innerText for card fields: block elements start a new line, runs of spaces collapse
+    static String innerText(Element e) {
+        if (e == null) return null;
+        StringBuilder sb = new StringBuilder();
+        NodeTraversor.traverse(new NodeVisitor() {
+            @Override
+            public void head(Node node, int depth) {
+                if (node instanceof TextNode t) {
+                    String s = t.text();
+                    if (s.isBlank()) {
+                        if (sb.length() > 0 && sb.charAt(sb.length() - 1) != '\n' && sb.charAt(sb.length() - 1) != ' ') sb.append(' ');
+                    } else {
+                        if (sb.length() > 0 && sb.charAt(sb.length() - 1) == ' ' && s.startsWith(" ")) s = s.stripLeading();
+                        sb.append(s);
+                    }
+                } else if (node instanceof Element el && el.isBlock() && depth > 0) {
+                    newLine(sb);
+                }
+            }
+
+            @Override
+            public void tail(Node node, int depth) {
+                if (node instanceof Element el && el.isBlock() && depth > 0) newLine(sb);
+            }
+        }, e);
+        String out = sb.toString().replaceAll(" *\n+ *", "\n").strip();
+        return out.isEmpty() ? null : out;
+    }
+
+    private static void newLine(StringBuilder sb) {
+        while (sb.length() > 0 && sb.charAt(sb.length() - 1) == ' ') sb.setLength(sb.length() - 1);
+        if (sb.length() > 0 && sb.charAt(sb.length() - 1) != '\n') sb.append('\n');
+    }
+
+    private static String orElse(String v, String fallback) {
+        return v == null || v.isBlank() ? fallback : v;
+    }
+
+    private static Charset charset(String contentType) {
+        Matcher m = CHARSET.matcher(contentType);
+        if (m.find()) {
+            try { return Charset.forName(m.group(1)); } catch (Exception ignored) {}
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private static final class CountingStream extends FilterInputStream {
+        long count;
+
+        CountingStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.example;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Sub-tasks of one search, in the shape of StructuredTaskScope.ShutdownOnFailure (a preview API from
+// JDK 21, so not usable from a Java 17 build): fork() each on its own thread (virtual when
+// Threads.mode() allows), join() them, and the first failure cancels the rest. close() cancels anything
+// still running, so no sub-task outlives the search that forked it. Forks inherit the caller's RunTrace.
+//   try (TaskScope scope = new TaskScope("search")) {
+//       Future<A> a = scope.fork(...); Future<B> b = scope.fork(...);
+//       scope.join().throwIfFailed();
+//   }
+public final class TaskScope implements AutoCloseable {
+
+    private final ThreadFactory threads;
+    private final List<FutureTask<?>> tasks = new ArrayList<>();
+    private final LinkedBlockingQueue<FutureTask<?>> completed = new LinkedBlockingQueue<>();
+    private final Thread owner = Thread.currentThread();
+    private final Object lock = new Object();
+    private int running; // threads not yet returned, guarded by lock
+    private int joined;
+    private Throwable failure;
+    private boolean shutdown;
+
+    public TaskScope(String name) {
+        this(Threads.factory(name));
+    }
+
+    public TaskScope(ThreadFactory threads) {
+        this.threads = threads;
+    }
+
+    public <T> Future<T> fork(Callable<T> task) {
+        checkOwner();
+        if (shutdown) throw new IllegalStateException("scope is shut down");
+        RunTrace trace = RunTrace.current();
+        FutureTask<T> f = new FutureTask<>(() -> {
+            RunTrace previous = RunTrace.bind(trace);
+            try {
+                return task.call();
+            } finally {
+                RunTrace.bind(previous);
+            }
+        }) {
+            @Override
+            protected void done() {
+                completed.add(this);
+            }
+        };
+        tasks.add(f);
+        synchronized (lock) { running++; }
+        threads.newThread(() -> {
+            try {
+                f.run();
+            } finally {
+                synchronized (lock) {
+                    running--;
+                    lock.notifyAll();
+                }
+            }
+        }).start();
+        return f;
+    }
+
+    // Waits for every fork (or the first failure, which cancels the others)
+    public TaskScope join() throws InterruptedException {
+        try {
+            return joinUntil(null);
+        } catch (TimeoutException impossible) {
+            throw new IllegalStateException(impossible);
+        }
+    }
+
+    public TaskScope joinUntil(Instant deadline) throws InterruptedException, TimeoutException {
+        checkOwner();
+        while (joined < tasks.size()) {
+            FutureTask<?> f;
+            if (deadline == null) {
+                f = completed.take();
+            } else {
+                long left = deadline.toEpochMilli() - System.currentTimeMillis();
+                f = left > 0 ? completed.poll(left, TimeUnit.MILLISECONDS) : null;
+                if (f == null) {
+                    shutdown();
+                    throw new TimeoutException("sub-tasks still running at " + deadline);
+                }
+            }
+            joined++;
+            if (failure == null && !f.isCancelled()) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    failure = e.getCause();
+                    shutdown();
+                }
+            }
+        }
+        return this;
+    }
+
+    public void throwIfFailed() throws ExecutionException {
+        if (failure != null) throw new ExecutionException(failure);
+    }
+
+    public Throwable failure() {
+        return failure;
+    }
+
+    // Interrupts every fork that has not finished; their results are discarded
+    public void shutdown() {
+        shutdown = true;
+        for (FutureTask<?> f : tasks) f.cancel(true);
+    }
+
+    @Override
+    public void close() {
+        checkOwner();
+        shutdown();
+        // a cancelled FutureTask reports done at once; wait for the threads themselves to return
+        synchronized (lock) {
+            while (running > 0) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void checkOwner() {
+        if (Thread.currentThread() != owner) throw new IllegalStateException("TaskScope used outside its owner thread");
+    }
+}
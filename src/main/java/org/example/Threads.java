@@ -0,0 +1,98 @@
+package org.example;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Where blocking WebDriver work runs. -Dbooking.threads=virtual gives every task its own virtual thread
+// on a JDK that has them (21+); they are looked up by reflection because the build still targets 17.
+// Anything else, or an older JDK, keeps the platform threads the code has always used.
+public final class Threads {
+
+    public enum Mode {
+        PLATFORM, VIRTUAL;
+
+        // -Dbooking.threads=platform|virtual (default platform); virtual falls back when unavailable
+        static Mode fromProperty() {
+            String v = System.getProperty("booking.threads", "platform");
+            if (!"virtual".equalsIgnoreCase(v)) return PLATFORM;
+            if (VIRTUAL_BUILDER != null) return VIRTUAL;
+            if (!warned) {
+                warned = true;
+                System.out.println("Virtual threads need JDK 21+ (running " + Runtime.version() + "), using platform threads");
+            }
+            return PLATFORM;
+        }
+    }
+
+    private static final Method VIRTUAL_BUILDER = lookup("ofVirtual");
+    private static volatile boolean warned;
+
+    private Threads() {}
+
+    public static boolean virtualAvailable() {
+        return VIRTUAL_BUILDER != null;
+    }
+
+    public static Mode mode() {
+        return Mode.fromProperty();
+    }
+
+    // Names threads <prefix>-0, <prefix>-1, ...; platform threads are daemons like the existing workers
+    public static ThreadFactory factory(String prefix) {
+        return factory(prefix, mode());
+    }
+
+    public static ThreadFactory factory(String prefix, Mode mode) {
+        if (mode == Mode.VIRTUAL) {
+            try {
+                Object builder = VIRTUAL_BUILDER.invoke(null);
+                Class<?> type = Class.forName("java.lang.Thread$Builder");
+                builder = type.getMethod("name", String.class, long.class).invoke(builder, prefix + "-", 0L);
+                return (ThreadFactory) type.getMethod("factory").invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Virtual thread factory unavailable", e);
+            }
+        }
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + n.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    // Virtual: a new thread per task, bounded only by whatever the tasks block on (DriverPool permits).
+    // Platform: a fixed pool of platformThreads.
+    public static ExecutorService executor(String prefix, int platformThreads) {
+        return executor(prefix, platformThreads, mode());
+    }
+
+    public static ExecutorService executor(String prefix, int platformThreads, Mode mode) {
+        if (mode == Mode.VIRTUAL) {
+            try {
+                Method perTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+                return (ExecutorService) perTask.invoke(null, factory(prefix, mode));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Virtual thread executor unavailable", e);
+            }
+        }
+        return Executors.newFixedThreadPool(Math.max(1, platformThreads), factory(prefix, mode));
+    }
+
+    public static Thread start(String name, Runnable task) {
+        Thread t = factory(name).newThread(task);
+        t.start();
+        return t;
+    }
+
+    private static Method lookup(String name) {
+        try {
+            return Thread.class.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.example;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+
+public class ColumnarSinkTest {
+
+    @Test
+    public void roundTrip() throws IOException {
+        Path file = Files.createTempFile("results", ".col");
+        try {
+            List<HotelCard> hotels = new ArrayList<>();
+            try (ColumnarSink sink = new ColumnarSink(file, 4096, Duration.ofMinutes(1), 2)) {
+                for (int i = 0; i < 5; i++) {
+                    HotelCard h = new HotelCard("Hotel " + i + " ✓", "€ " + (100 + i) + ",50", i == 3 ? "" : "8." + i,
+                            "https://cf.bstatic.com/xdata/images/hotel/" + i + ".jpg", i % 2 == 0, i % 3 == 0,
+                            "https://www.booking.com/hotel/pt/h" + i + ".html");
+                    hotels.add(h);
+                    sink.hotel(h);
+                }
+                sink.rooms(hotels.get(0), List.of(new Main.RoomInfo("Double", "€ 120", "2 adults", "Breakfast included", ""),
+                        new Main.RoomInfo("Twin", "Sold out", "", "", "Non-refundable"),
+                        new Main.RoomInfo("Suite", "€ 1.234,56", "4 adults", "", "Free cancellation")));
+            }
+
+            List<ColumnarSink.Block> blocks = new ArrayList<>();
+            ColumnarSink.scan(file, null, blocks::add);
+            List<String> names = new ArrayList<>(), currencies = new ArrayList<>(), roomTypes = new ArrayList<>();
+            List<Long> hotelPrices = new ArrayList<>(), roomPrices = new ArrayList<>();
+            List<Short> ratings = new ArrayList<>();
+            for (ColumnarSink.Block b : blocks) {
+                if (b.kind() == 'H') {
+                    String[] name = (String[]) b.columns().get("name"), currency = (String[]) b.columns().get("currency");
+                    long[] price = (long[]) b.columns().get("price_minor");
+                    short[] rating = (short[]) b.columns().get("rating_tenths");
+                    for (int r = 0; r < b.rows(); r++) {
+                        names.add(name[r]);
+                        currencies.add(currency[r]);
+                        hotelPrices.add(price[r]);
+                        ratings.add(rating[r]);
+                    }
+                } else {
+                    String[] type = (String[]) b.columns().get("room_type");
+                    long[] price = (long[]) b.columns().get("price_minor");
+                    for (int r = 0; r < b.rows(); r++) {
+                        roomTypes.add(type[r]);
+                        roomPrices.add(price[r]);
+                    }
+                }
+            }
+            assertEquals(names, hotels.stream().map(HotelCard::name).toList());
+            assertEquals(currencies, List.of("EUR", "EUR", "EUR", "EUR", "EUR"));
+            assertEquals(hotelPrices, List.of(10_050L, 10_150L, 10_250L, 10_350L, 10_450L));
+            assertEquals(ratings, List.of((short) 80, (short) 81, (short) 82, (short) -1, (short) 84));
+            assertEquals(roomTypes, List.of("Double", "Twin", "Suite"));
+            assertEquals(roomPrices, List.of(12_000L, -1L, 123_456L));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void scanDecodesOnlyWantedColumns() throws IOException {
+        Path file = Files.createTempFile("results", ".col");
+        try {
+            try (ColumnarSink sink = new ColumnarSink(file, 4096, Duration.ofMinutes(1), 16)) {
+                sink.hotel(new HotelCard("Haveli", "₹ 8,000", "9.1", "", false, true, "https://www.booking.com/hotel/in/haveli.html"));
+            }
+            List<ColumnarSink.Block> blocks = new ArrayList<>();
+            ColumnarSink.scan(file, List.of("price_minor"), blocks::add);
+            assertEquals(blocks.size(), 1);
+            assertEquals(((long[]) blocks.get(0).columns().get("price_minor"))[0], 800_000L);
+            assertNull(blocks.get(0).columns().get("name"));
+            assertFalse(blocks.get(0).columns().containsKey("url"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.example;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+
+public class CsvSinkTest {
+
+    @Test
+    public void quotesFieldsThatNeedIt() throws IOException {
+        Path file = Files.createTempFile("results", ".csv");
+        try {
+            HotelCard h = new HotelCard("The \"Grand\", Goa", "₹ 13,700", "Scored 8.7\n8.7", "", true, false,
+                    "https://www.booking.com/hotel/in/grand.html");
+            try (CsvSink sink = new CsvSink(file, 4096, Duration.ofMinutes(1))) {
+                sink.hotel(h);
+                sink.rooms(h, List.of(new Main.RoomInfo("Deluxe, Sea View", "₹ 13,700", "2 adults", "Breakfast \"included\"",
+                        "Free cancellation\r\nbefore 30 October")));
+            }
+            String csv = Files.readString(file, StandardCharsets.UTF_8);
+            assertEquals(csv.substring(0, CsvSink.HEADER.length()), CsvSink.HEADER);
+
+            List<List<String>> rows = parse(csv);
+            int columns = rows.get(0).size();
+            assertEquals(rows.size(), 3);
+            for (List<String> row : rows) assertEquals(row.size(), columns, row.toString());
+
+            List<String> hotel = rows.get(1);
+            assertEquals(hotel.get(0), "hotel");
+            assertEquals(hotel.get(2), "The \"Grand\", Goa");
+            assertEquals(hotel.get(5), "1370000");
+            assertEquals(hotel.get(6), "INR");
+            assertEquals(hotel.get(7), "87");
+            assertEquals(hotel.get(14), h.url());
+
+            List<String> room = rows.get(2);
+            assertEquals(room.get(0), "room");
+            assertEquals(room.get(3), "Deluxe, Sea View");
+            assertEquals(room.get(9), "true");
+            assertEquals(room.get(11), "Breakfast \"included\"");
+            assertEquals(room.get(12), "Free cancellation\r\nbefore 30 October");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // RFC 4180: "" inside a quoted field is one quote; quoted fields may hold commas and line breaks
+    private static List<List<String>> parse(String csv) {
+        List<List<String>> rows = new ArrayList<>();
+        List<String> row = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < csv.length(); i++) {
+            char c = csv.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' && i + 1 < csv.length() && csv.charAt(i + 1) == '\n') {
+                row.add(field.toString());
+                field.setLength(0);
+                rows.add(row);
+                row = new ArrayList<>();
+                i++;
+            } else {
+                field.append(c);
+            }
+        }
+        return rows;
+    }
+}
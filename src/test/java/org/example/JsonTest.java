@@ -0,0 +1,68 @@
+package org.example;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class JsonTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void parsesNestedValues() {
+        Object v = Json.parse(" {\"b\": [1, -2.5, 3e2, true, false, null], \"a\": {\"x\": \"y\"}, \"empty\": {}, \"none\": []} ");
+        Map<String, Object> m = (Map<String, Object>) v;
+        assertEquals(List.copyOf(m.keySet()), List.of("b", "a", "empty", "none"));
+        assertEquals(m.get("b"), Arrays.asList(1L, -2.5, 300L, true, false, null));
+        assertEquals(m.get("a"), Map.of("x", "y"));
+        assertEquals(m.get("empty"), Map.of());
+        assertEquals(m.get("none"), List.of());
+    }
+
+    @Test
+    public void integralNumbersAreLongs() {
+        assertEquals(Json.parse("9223372036854775807"), Long.MAX_VALUE);
+        assertEquals(Json.parse("-12"), -12L);
+        assertEquals(Json.parse("0.5"), 0.5);
+    }
+
+    @Test
+    public void unescapesStrings() {
+        assertEquals(Json.parse("\"a\\\"b\\\\c\\/d\\n\\t\\u20b9\""), "a\"b\\c/d\n\t₹");
+        assertNull(Json.parse("null"));
+    }
+
+    @Test
+    public void quoteRoundTrips() {
+        String s = "Room \"A\"\\B\r\n\t\u0001 ₹ 1,234";
+        String quoted = Json.quote(s);
+        assertTrue(quoted.contains("\\u0001"), quoted);
+        assertEquals(Json.parse(quoted), s);
+        assertEquals(Json.quote(null), "null");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rejectsTrailingCharacters() {
+        Json.parse("{\"a\": 1} x");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rejectsUnterminatedString() {
+        Json.parse("[\"abc");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rejectsSignsInsideNumbers() {
+        Json.parse("[1-2]");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rejectsEmptyInput() {
+        Json.parse("  ");
+    }
+}
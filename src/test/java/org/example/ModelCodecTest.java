@@ -0,0 +1,73 @@
+package org.example;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class ModelCodecTest {
+
+    private static List<RoomRate> rates() {
+        SearchJob goa = new SearchJob("Goa, India", LocalDate.of(2026, 11, 1), LocalDate.of(2026, 11, 4),
+                EnumSet.of(SearchFilter.FOUR_STARS_PLUS, SearchFilter.FREE_CANCELLATION), 3, 2);
+        SearchJob jaipur = new SearchJob("Jaipur", LocalDate.of(2026, 12, 1), LocalDate.of(2026, 12, 3), Set.of());
+        HotelCard a = new HotelCard("Sea View, \"Resort\"", "₹ 15,100 ₹ 13,700", "Scored 8.7 8.7 Excellent",
+                "https://cf.bstatic.com/xdata/images/hotel/square600/1.jpg", true, false, "https://www.booking.com/hotel/in/sea-view.html");
+        HotelCard b = new HotelCard("Haveli", "€ 1.234,56", "", "", false, true, "https://www.booking.com/hotel/in/haveli.html");
+        List<RoomRate> rates = new ArrayList<>();
+        rates.add(RoomRate.of(goa, a, new Main.RoomInfo("Deluxe Double Room", "₹ 15,100 ₹ 13,700 +₹ 1,644 taxes and charges",
+                "2 adults", "Breakfast included", "Free cancellation before 30 October")));
+        rates.add(RoomRate.of(goa, a, new Main.RoomInfo("Deluxe Double Room", "₹ 12,000", "2 adults", "", "Non-refundable")));
+        rates.add(RoomRate.of(goa, b, new Main.RoomInfo("Suite", "€ 1.234,56", "4 adults", "", "")));
+        rates.add(RoomRate.of(jaipur, a, new Main.RoomInfo("Deluxe Double Room", "", "", "", "")));
+        return rates;
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        List<RoomRate> rates = rates();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ModelCodec.Writer out = new ModelCodec.Writer(bytes)) {
+            for (RoomRate r : rates) out.write(r);
+        }
+        List<RoomRate> decoded = new ArrayList<>();
+        try (ModelCodec.Reader in = new ModelCodec.Reader(new ByteArrayInputStream(bytes.toByteArray()))) {
+            for (RoomRate r; (r = in.next()) != null; ) decoded.add(r);
+            assertNull(in.next());
+        }
+        assertEquals(decoded, rates);
+        // queries and hotels are shared references, not copies per rate
+        assertSame(decoded.get(0).query(), decoded.get(2).query());
+        assertSame(decoded.get(0).hotel(), decoded.get(1).hotel());
+        assertEquals(decoded.get(0).price().taxesMinor(), 164_400L);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void rejectsOtherStreams() throws IOException {
+        new ModelCodec.Reader(new ByteArrayInputStream("BKCOL\0\0\1".getBytes()));
+    }
+
+    @Test
+    public void repeatedRatesAreSmall() throws IOException {
+        RoomRate r = rates().get(0);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        long first;
+        try (ModelCodec.Writer out = new ModelCodec.Writer(bytes)) {
+            out.write(r);
+            first = out.size();
+            for (int i = 0; i < 100; i++) out.write(r);
+            assertTrue((out.size() - first) / 100 < 32, "bytes per repeated rate: " + (out.size() - first) / 100);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.example;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class PriceHistoryStoreTest {
+
+    private Path dir;
+
+    @BeforeMethod
+    public void createDir() throws IOException {
+        dir = Files.createTempDirectory("price-history");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDir() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+        }
+    }
+
+    private static HotelCard hotel(String name, String price) {
+        return new HotelCard(name, price, "8.5", "", false, false, "https://www.booking.com/hotel/in/" + name.toLowerCase() + ".html?aid=1");
+    }
+
+    @Test
+    public void reportsNewPriceAndDropped() throws IOException {
+        try (PriceHistoryStore store = new PriceHistoryStore(dir)) {
+            PriceHistoryStore.Diff first = store.record(List.of(hotel("Alpha", "₹ 10,000"), hotel("Beta", "₹ 8,000")), Map.of());
+            assertEquals(first.run(), 1);
+            assertEquals(first.count(PriceHistoryStore.Kind.NEW), 2);
+
+            PriceHistoryStore.Diff second = store.record(List.of(hotel("Alpha", "₹ 9,000")), Map.of());
+            assertEquals(second.run(), 2);
+            assertEquals(second.changes().size(), 2);
+            PriceHistoryStore.Change price = second.changes().get(0);
+            assertEquals(price.kind(), PriceHistoryStore.Kind.PRICE);
+            assertEquals(price.label(), "Alpha");
+            assertEquals(price.before().amountMinor(), 1_000_000L);
+            assertEquals(price.after().amountMinor(), 900_000L);
+            assertTrue(price.toString().contains("-10.0%"), price.toString());
+            PriceHistoryStore.Change dropped = second.changes().get(1);
+            assertEquals(dropped.kind(), PriceHistoryStore.Kind.DROPPED);
+            assertEquals(dropped.label(), "Beta");
+        }
+    }
+
+    @Test
+    public void roomsOfAHotelNotFetchedAreNotDropped() throws IOException {
+        HotelCard alpha = hotel("Alpha", "₹ 10,000");
+        try (PriceHistoryStore store = new PriceHistoryStore(dir)) {
+            store.record(List.of(alpha), Map.of(alpha, List.of(new Main.RoomInfo("Deluxe Room", "₹ 10,000"))));
+            PriceHistoryStore.Diff second = store.record(List.of(alpha), Map.of());
+            assertTrue(second.changes().isEmpty(), second.changes().toString());
+        }
+    }
+
+    @Test
+    public void historySurvivesReopen() throws IOException {
+        HotelCard alpha = hotel("Alpha", "₹ 10,000");
+        try (PriceHistoryStore store = new PriceHistoryStore(dir)) {
+            store.record(List.of(alpha), Map.of(alpha, List.of(new Main.RoomInfo("Deluxe Room", "₹ 10,000"))));
+            store.record(List.of(hotel("Alpha", "₹ 11,000")), Map.of());
+        }
+        try (PriceHistoryStore store = new PriceHistoryStore(dir)) {
+            assertEquals(store.runs(), 2);
+            assertEquals(store.observations(), 3);
+            List<String> keys = store.keysMatching("alpha");
+            assertEquals(keys.size(), 2);
+            String hotelKey = keys.stream().filter(k -> k.startsWith("H\t")).findFirst().orElseThrow();
+            List<PriceHistoryStore.Observation> series = store.series(hotelKey);
+            assertEquals(series.size(), 2);
+            assertEquals(series.get(0).price().amountMinor(), 1_000_000L);
+            assertEquals(series.get(1).price().amountMinor(), 1_100_000L);
+            assertEquals(series.get(1).run(), 2);
+
+            PriceHistoryStore.Diff third = store.record(List.of(hotel("Alpha", "₹ 11,000")), Map.of());
+            assertEquals(third.run(), 3);
+            assertTrue(third.changes().isEmpty(), third.changes().toString());
+        }
+    }
+
+    @Test
+    public void currencyChangeIsNotAPercentage() throws IOException {
+        try (PriceHistoryStore store = new PriceHistoryStore(dir)) {
+            store.record(List.of(hotel("Alpha", "₹ 10,000")), Map.of());
+            PriceHistoryStore.Diff second = store.record(List.of(hotel("Alpha", "€ 120")), Map.of());
+            assertEquals(second.changes().size(), 1);
+            String line = second.changes().get(0).toString();
+            assertTrue(line.contains("INR 10000.00 -> EUR 120.00 (currency changed)"), line);
+            assertTrue(!line.contains("%"), line);
+        }
+    }
+
+    @Test
+    public void storesSharingADirectoryKeepKeyIdsConsistent() throws IOException {
+        try (PriceHistoryStore a = new PriceHistoryStore(dir); PriceHistoryStore b = new PriceHistoryStore(dir)) {
+            a.record(List.of(hotel("Alpha", "₹ 10,000")), Map.of());
+            b.record(List.of(hotel("Beta", "₹ 8,000")), Map.of());
+            PriceHistoryStore.Diff third = a.record(List.of(hotel("Gamma", "₹ 7,000"), hotel("Beta", "₹ 7,500")), Map.of());
+            assertEquals(third.run(), 3);
+            assertTrue(third.changes().stream().anyMatch(c -> c.kind() == PriceHistoryStore.Kind.PRICE && c.label().equals("Beta")),
+                    third.changes().toString());
+        }
+        try (PriceHistoryStore store = new PriceHistoryStore(dir)) {
+            assertEquals(store.runs(), 3);
+            assertEquals(store.observations(), 4);
+            for (String name : List.of("Alpha", "Beta", "Gamma")) {
+                List<String> keys = store.keysMatching(name);
+                assertEquals(keys.size(), 1, name);
+                assertEquals(store.label(keys.get(0)), name);
+                assertTrue(store.series(keys.get(0)).size() >= 1, name);
+            }
+            assertEquals(store.series(store.keysMatching("Beta").get(0)).size(), 2);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.example;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class PriceParserTest {
+
+    @DataProvider
+    public Object[][] amounts() {
+        return new Object[][]{
+                // text, fallback currency, currency, amount in minor units
+                {"₹ 13,700", "", "INR", 1_370_000L},
+                {"₹ 1,23,456", "", "INR", 12_345_600L},
+                {"Rs. 12,34,567.50", "", "INR", 123_456_750L},
+                {"1.234,56 €", "", "EUR", 123_456L},
+                {"€ 1.234", "", "EUR", 123_400L},
+                {"CHF 1'234", "", "CHF", 123_400L},
+                {"CHF 1'234.50", "", "CHF", 123_450L},
+                {"KWD 12.345", "", "KWD", 12_345L},
+                {"KWD 1,234.500", "", "KWD", 1_234_500L},
+                {"12 345 Kč", "", "CZK", 1_234_500L},
+                {"¥ 12,000", "", "JPY", 12_000L},
+                {"US$1,234", "", "USD", 123_400L},
+                {"$ 99.99", "CAD", "CAD", 9_999L},
+                {"2 adults, 3 nights ₹ 41,100", "", "INR", 4_110_000L},
+                {"13700", "INR", "INR", 1_370_000L},
+                {"Total: 13,700", "INR", "INR", 1_370_000L},
+        };
+    }
+
+    @Test(dataProvider = "amounts")
+    public void parsesAmount(String text, String fallback, String currency, long minor) {
+        Price p = PriceParser.parse(text, fallback);
+        assertEquals(p.currency(), currency, text);
+        assertEquals(p.amountMinor(), minor, text);
+    }
+
+    @Test
+    public void readsDiscountAndTaxSurcharge() {
+        Price p = PriceParser.parse("₹ 15,100 ₹ 13,700 +₹ 1,644 taxes and charges", "");
+        assertEquals(p.amountMinor(), 1_370_000L);
+        assertEquals(p.originalMinor(), 1_510_000L);
+        assertEquals(p.taxesMinor(), 164_400L);
+        assertTrue(p.discounted());
+        assertFalse(p.taxesIncluded());
+    }
+
+    @Test
+    public void unmarkedSurchargeTakesThePriceCurrency() {
+        Price p = PriceParser.parse("€ 250 + 18.50 taxes", "");
+        assertEquals(p.currency(), "EUR");
+        assertEquals(p.amountMinor(), 25_000L);
+        assertEquals(p.taxesMinor(), 1_850L);
+    }
+
+    @Test
+    public void readsTaxesIncluded() {
+        Price p = PriceParser.parse("₹ 9,500 Includes taxes and charges", "");
+        assertEquals(p.amountMinor(), 950_000L);
+        assertTrue(p.taxesIncluded());
+        assertEquals(p.taxesMinor(), -1L);
+    }
+
+    @Test
+    public void countsAreNotPrices() {
+        assertFalse(PriceParser.parse("2 adults", "").known());
+        assertFalse(PriceParser.parse("2 adults", "INR").known());
+        assertFalse(PriceParser.parse("3 nights, 2 adults", "").known());
+        assertFalse(PriceParser.parse("Room for 4 guests", "EUR").known());
+    }
+
+    @Test
+    public void toStringParsesBack() {
+        Price[] prices = {
+                PriceParser.parse("₹ 15,100 ₹ 13,700 +₹ 1,644 taxes and charges", ""),
+                PriceParser.parse("€ 1.234,56 Includes taxes and charges", ""),
+                PriceParser.parse("KWD 15.000 KWD 12.345", ""),
+                PriceParser.parse("¥ 12,000", ""),
+        };
+        for (Price p : prices) {
+            assertEquals(PriceParser.parse(p.toString(), ""), p, p.toString());
+        }
+        assertEquals(prices[0].toString(), "INR 13700.00 (was 15100.00, +1644.00 taxes)");
+    }
+
+    @Test
+    public void unknownText() {
+        assertEquals(PriceParser.parse(null, ""), Price.UNKNOWN);
+        assertEquals(PriceParser.parse("", ""), Price.UNKNOWN);
+        assertEquals(PriceParser.parse("Sold out", ""), Price.UNKNOWN);
+    }
+}
@@ -0,0 +1,66 @@
+package org.example;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class ResultCacheTest {
+
+    private static final SearchJob GOA = new SearchJob("Goa, India", LocalDate.of(2026, 11, 1), LocalDate.of(2026, 11, 4),
+            EnumSet.noneOf(SearchFilter.class));
+
+    @Test
+    public void roundTrip() throws IOException {
+        Path dir = Files.createTempDirectory("cache");
+        ResultCache cache = new ResultCache(dir, Duration.ofMinutes(5), 10, 1 << 20);
+        SearchOutcome outcome = new SearchOutcome(
+                List.of(new HotelCard("Haveli", "₹ 8,000", "9.1", "", true, false, "https://www.booking.com/hotel/in/haveli.html")),
+                List.of(new Main.RoomInfo("Deluxe Room", "₹ 8,000", "2 adults", "Breakfast included", "Free cancellation")));
+        cache.put(GOA, outcome);
+
+        Optional<SearchOutcome> cached = new ResultCache(dir, Duration.ofMinutes(5), 10, 1 << 20).get(GOA);
+        assertTrue(cached.isPresent());
+        assertEquals(cached.get().hotels(), outcome.hotels());
+        assertEquals(cached.get().rooms().get(0).roomType, "Deluxe Room");
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void rejectsForeignClasses() throws IOException {
+        Path dir = Files.createTempDirectory("cache");
+        ResultCache cache = new ResultCache(dir, Duration.ofMinutes(5), 10, 1 << 20);
+        cache.put(GOA, new SearchOutcome(List.of(), List.of()));
+        Path file;
+        try (var files = Files.list(dir)) {
+            file = files.findFirst().orElseThrow();
+        }
+
+        // Same entry, but an outcome carrying a class the cache never writes
+        List foreign = new ArrayList();
+        foreign.add(new StringBuilder("not a hotel"));
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        buf.write(ByteBuffer.allocate(Long.BYTES).putLong(Long.MAX_VALUE).array());
+        try (ObjectOutputStream out = new ObjectOutputStream(buf)) {
+            out.writeObject(new SearchOutcome(foreign, List.of()));
+        }
+        Files.write(file, buf.toByteArray());
+
+        assertFalse(cache.get(GOA).isPresent());
+        assertFalse(Files.exists(file));
+    }
+}